@@ -0,0 +1,162 @@
+package dev.emmily.oersted.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Runs the benchmarks with the GC profiler and compares the scores against a stored baseline.
+ * <p>
+ * Usage: {@code java -jar benchmarks/target/benchmarks.jar [include regex] [--baseline file] [--record] [--threshold percent]}
+ * <ul>
+ *   <li>{@code --baseline} the baseline file, {@code benchmarks/baseline.tsv} by default.</li>
+ *   <li>{@code --record} stores the scores of this run as the new baseline, which also happens when there is no baseline yet.</li>
+ *   <li>{@code --threshold} the slowdown, in percent, reported as a regression. 10 by default.</li>
+ * </ul>
+ * The process exits with status 1 if any benchmark regressed.
+ */
+public final class BenchmarkRunner {
+  private BenchmarkRunner() {
+  }
+
+  public static void main(String[] args) throws RunnerException, IOException {
+    String include = ".*";
+    Path baseline = Paths.get("benchmarks", "baseline.tsv");
+    boolean record = false;
+    double threshold = 10;
+
+    for (int i = 0; i < args.length; i++) {
+      switch (args[i]) {
+        case "--baseline" -> baseline = Paths.get(args[++i]);
+        case "--record" -> record = true;
+        case "--threshold" -> threshold = Double.parseDouble(args[++i]);
+        default -> include = args[i];
+      }
+    }
+
+    Collection<RunResult> results = new Runner(new OptionsBuilder()
+      .include(include)
+      .addProfiler(GCProfiler.class)
+      .build())
+      .run();
+
+    Map<String, Score> scores = scores(results);
+
+    if (record || Files.notExists(baseline)) {
+      write(baseline, scores);
+      System.out.println("Recorded " + scores.size() + " scores as the baseline in " + baseline);
+      return;
+    }
+
+    if (compare(read(baseline), scores, threshold)) {
+      System.exit(1);
+    }
+  }
+
+  private static Map<String, Score> scores(Collection<RunResult> results) {
+    Map<String, Score> scores = new LinkedHashMap<>();
+
+    for (RunResult result : results) {
+      String label = result.getParams().getBenchmark() + params(result);
+      scores.put(label, new Score(result.getPrimaryResult().getScore(), result.getPrimaryResult().getScoreUnit()));
+      result.getSecondaryResults().forEach((name, secondary) -> {
+        if (name.equals("gc.alloc.rate.norm") || name.equals("retainedBytes")) {
+          scores.put(label + ":" + name, new Score(secondary.getScore(), secondary.getScoreUnit()));
+        }
+      });
+    }
+
+    return scores;
+  }
+
+  private static String params(RunResult result) {
+    Collection<String> keys = result.getParams().getParamsKeys();
+
+    if (keys.isEmpty()) {
+      return "";
+    }
+
+    return keys.stream()
+      .map(key -> key + "=" + result.getParams().getParam(key))
+      .collect(Collectors.joining(",", "[", "]"));
+  }
+
+  /**
+   * Prints the difference of every score against the baseline. Every score recorded here is
+   * lower-is-better (average time, single shot time, allocated and retained bytes).
+   *
+   * @return whether any score regressed beyond the threshold.
+   */
+  private static boolean compare(Map<String, Score> baseline, Map<String, Score> scores, double threshold) {
+    boolean regressed = false;
+
+    for (Map.Entry<String, Score> entry : scores.entrySet()) {
+      Score previous = baseline.get(entry.getKey());
+      Score current = entry.getValue();
+
+      if (previous == null || !previous.unit().equals(current.unit())) {
+        System.out.printf("%-100s %14.3f %-12s (no baseline)%n", entry.getKey(), current.value(), current.unit());
+        continue;
+      }
+
+      double change = previous.value() == 0 ? 0 : (current.value() - previous.value()) / previous.value() * 100;
+      // allocation scores of allocation-free benchmarks are noise around zero
+      boolean negligible = current.unit().equals("B/op") && current.value() - previous.value() < 1;
+      boolean regression = change > threshold && !negligible;
+      regressed |= regression;
+
+      System.out.printf(
+        "%-100s %14.3f %-12s %+8.2f%%%s%n",
+        entry.getKey(), current.value(), current.unit(), change, regression ? "  REGRESSION" : ""
+      );
+    }
+
+    return regressed;
+  }
+
+  private static Map<String, Score> read(Path file) throws IOException {
+    Map<String, Score> scores = new LinkedHashMap<>();
+
+    for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+      String[] columns = line.split("\t");
+
+      if (columns.length == 3 && !line.startsWith("#")) {
+        scores.put(columns[0], new Score(Double.parseDouble(columns[1]), columns[2]));
+      }
+    }
+
+    return scores;
+  }
+
+  private static void write(Path file, Map<String, Score> scores) throws IOException {
+    List<String> lines = new ArrayList<>();
+    int processors = Runtime.getRuntime().availableProcessors();
+    lines.add("# recorded with " + System.getProperty("java.vm.name") + " " + System.getProperty("java.version")
+      + " on " + processors + (processors == 1 ? " available processor" : " available processors")
+      + ", compare only runs from the same machine");
+    lines.add("# benchmark\tscore\tunit");
+    scores.forEach((label, score) -> lines.add(label + "\t" + score.value() + "\t" + score.unit()));
+
+    if (file.toAbsolutePath().getParent() != null) {
+      Files.createDirectories(file.toAbsolutePath().getParent());
+    }
+
+    Files.write(file, lines, StandardCharsets.UTF_8);
+  }
+
+  private record Score(double value, String unit) {}
+}
@@ -0,0 +1,42 @@
+package dev.emmily.oersted.benchmarks;
+
+import dev.emmily.oersted.calculator.conductor.ConductorCalculator;
+import dev.emmily.oersted.circuit.Circuit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConductorSizingBenchmark {
+  @Param({"1000", "100000", "1000000"})
+  private int circuits;
+
+  private List<Circuit> installation;
+
+  @Setup
+  public void setup() {
+    installation = new ArrayList<>(Installations.create(circuits, 42).circuitTree().values());
+  }
+
+  @Benchmark
+  public float[] calculateByVoltageDrop() {
+    return ConductorCalculator.calculateByVoltageDrop(installation);
+  }
+}
@@ -0,0 +1,70 @@
+package dev.emmily.oersted.benchmarks;
+
+import dev.emmily.oersted.earthing.EarthingEvaluator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the scalar and Vector API kernels of {@link EarthingEvaluator} over the same designs as
+ * {@link EarthingSystemBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+public class EarthingEvaluatorBenchmark {
+  @Param({"1000", "100000"})
+  private int designs;
+
+  @Param({"scalar", "vector"})
+  private String kernel;
+
+  private EarthingEvaluator evaluator;
+  private double[] soilResistivity;
+  private double[] maxResistance;
+  private double[] maxMeshLength;
+  private double[] rodLength;
+  private double[] rods;
+  private double[] meshLength;
+  private double[] resistance;
+
+  @Setup
+  public void setup() {
+    SplittableRandom random = new SplittableRandom(42);
+    evaluator = kernel.equals("vector") ? EarthingEvaluator.vectorized() : EarthingEvaluator.scalar();
+    soilResistivity = new double[designs];
+    maxResistance = new double[designs];
+    maxMeshLength = new double[designs];
+    rodLength = new double[designs];
+    rods = new double[designs];
+    meshLength = new double[designs];
+    resistance = new double[designs];
+
+    for (int i = 0; i < designs; i++) {
+      maxResistance[i] = 5 + random.nextDouble() * 20;
+      soilResistivity[i] = 50 + random.nextDouble() * 500;
+      maxMeshLength[i] = 10 + random.nextDouble() * 100;
+      rodLength[i] = random.nextBoolean() ? 1.5 : 2;
+    }
+  }
+
+  @Benchmark
+  public double[] evaluate() {
+    evaluator.evaluate(soilResistivity, maxResistance, maxMeshLength, rodLength, rods, meshLength, resistance);
+    return resistance;
+  }
+}
@@ -0,0 +1,56 @@
+package dev.emmily.oersted.benchmarks;
+
+import dev.emmily.oersted.earthing.EarthingSystem;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EarthingSystemBenchmark {
+  @Param({"1000", "100000"})
+  private int designs;
+
+  private EarthingSystem[] systems;
+
+  @Setup
+  public void setup() {
+    SplittableRandom random = new SplittableRandom(42);
+    systems = new EarthingSystem[designs];
+
+    for (int i = 0; i < designs; i++) {
+      systems[i] = EarthingSystem.create(
+        5 + random.nextDouble() * 20,
+        50 + random.nextDouble() * 500,
+        10 + random.nextDouble() * 100,
+        random.nextBoolean() ? 1.5 : 2
+      );
+    }
+  }
+
+  @Benchmark
+  public double calculateEarthingResistance() {
+    double total = 0;
+
+    for (EarthingSystem system : systems) {
+      total += system.calculateEarthingResistance();
+    }
+
+    return total;
+  }
+}
@@ -0,0 +1,52 @@
+package dev.emmily.oersted.benchmarks;
+
+import dev.emmily.oersted.circuit.Circuit;
+import dev.emmily.oersted.hierarchy.HierarchicalTree;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HierarchicalTreeBenchmark {
+  @Param({"1000", "100000", "1000000"})
+  private int circuits;
+
+  private HierarchicalTree<Circuit> tree;
+
+  @Setup
+  public void setup() {
+    tree = new HierarchicalTree<>(Installations.create(circuits, 42).circuitTree());
+  }
+
+  @Benchmark
+  public List<Circuit> getChildren() {
+    return tree.getChildren("c1");
+  }
+
+  @Benchmark
+  public Circuit getParent() {
+    return tree.getParent("c" + (circuits - 1));
+  }
+
+  @Benchmark
+  public Map<String, List<Circuit>> groupByParent() {
+    return tree.groupByParent();
+  }
+}
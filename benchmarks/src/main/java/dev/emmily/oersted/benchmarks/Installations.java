@@ -0,0 +1,42 @@
+package dev.emmily.oersted.benchmarks;
+
+import dev.emmily.oersted.installation.ElectricalInstallation;
+import dev.emmily.oersted.installation.generator.InstallationGenerator;
+import dev.emmily.oersted.system.ElectricalSystem;
+import dev.emmily.oersted.system.threephase.ThreePhaseElectricalSystem;
+
+/**
+ * Builds reproducible synthetic installations for the benchmarks.
+ */
+final class Installations {
+  static final int FAN_OUT = 10;
+
+  private Installations() {
+  }
+
+  static ElectricalSystem supply() {
+    return new ThreePhaseElectricalSystem("supply", ElectricalSystem.DistributionSystem.TT, 50, 230, 400);
+  }
+
+  /**
+   * Builds an installation of exactly the given amount of circuits, with ids {@code c0} to {@code c<circuits - 1>}
+   * and boards feeding {@value #FAN_OUT} circuits each.
+   */
+  static ElectricalInstallation create(int circuits, long seed) {
+    int depth = 0;
+
+    for (long capacity = 1, level = 1; capacity < circuits; capacity += level) {
+      level *= FAN_OUT;
+      depth++;
+    }
+
+    return InstallationGenerator.builder()
+      .seed(seed)
+      .depth(depth)
+      .fanOut(FAN_OUT, FAN_OUT)
+      .maxCircuits(circuits)
+      .supply(supply())
+      .build()
+      .generate();
+  }
+}
@@ -0,0 +1,112 @@
+package dev.emmily.oersted.benchmarks;
+
+import dev.emmily.oersted.circuit.Circuit;
+import dev.emmily.oersted.circuit.conductor.Conductor;
+import dev.emmily.oersted.circuit.conduit.Conduit;
+import dev.emmily.oersted.circuit.protection.CircuitBreaker;
+import dev.emmily.oersted.circuit.protection.ThermalMagneticCircuitBreaker;
+import dev.emmily.oersted.hierarchy.Hierarchical;
+import dev.emmily.oersted.system.ElectricalSystem;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the heap retained by a synthetic installation whose conductors and conduits are allocated per
+ * circuit, against the same installation built from interned values. Breakers have unique ids, so they are
+ * allocated per circuit in both cases.
+ * The retained heap is reported as the {@code retainedBytes} secondary result.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class InterningFootprintBenchmark {
+  private static final Conductor.Material[] INSULATORS = {Conductor.Material.PVC, Conductor.Material.XLPE};
+  private static final float[] SECTIONS = {1.5f, 2.5f, 4, 6, 10, 16};
+
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  public static class Footprint {
+    public long retainedBytes;
+  }
+
+  @State(Scope.Benchmark)
+  public static class Size {
+    @Param({"1000000"})
+    public int circuits;
+  }
+
+  @Benchmark
+  public Circuit[] allocated(Size size, Footprint footprint) {
+    return build(size.circuits, footprint, false);
+  }
+
+  @Benchmark
+  public Circuit[] interned(Size size, Footprint footprint) {
+    return build(size.circuits, footprint, true);
+  }
+
+  private static Circuit[] build(int count, Footprint footprint, boolean intern) {
+    ElectricalSystem supply = Installations.supply();
+    long before = usedHeap();
+    Circuit[] circuits = new Circuit[count];
+
+    for (int i = 0; i < count; i++) {
+      Conductor.Material insulator = INSULATORS[i % INSULATORS.length];
+      float section = SECTIONS[i % SECTIONS.length];
+      Conductor conductor = new Conductor(Conductor.Material.COPPER, insulator, 20, section);
+      Conductor earth = new Conductor(Conductor.Material.COPPER, insulator, 20, section);
+      Conduit conduit = new Conduit(Conduit.Material.PVC, Conduit.Type.PIPE, 20);
+      ThermalMagneticCircuitBreaker breaker = new ThermalMagneticCircuitBreaker(
+        "tm-" + i, Hierarchical.PARENT, 16, 50, 2, 6, ThermalMagneticCircuitBreaker.TripCurve.C
+      );
+
+      if (intern) {
+        conductor = conductor.intern();
+        earth = earth.intern();
+        conduit = conduit.intern();
+      }
+
+      circuits[i] = new Circuit(
+        "c" + i,
+        Hierarchical.PARENT,
+        null,
+        Map.<String, CircuitBreaker>of(breaker.id(), breaker),
+        conduit,
+        conductor,
+        conductor,
+        earth,
+        Circuit.CircuitType.POWER,
+        supply,
+        ElectricalSystem.SystemType.SINGLE_PHASE,
+        1000
+      );
+    }
+
+    footprint.retainedBytes = usedHeap() - before;
+    return circuits;
+  }
+
+  private static long usedHeap() {
+    Runtime runtime = Runtime.getRuntime();
+
+    for (int i = 0; i < 3; i++) {
+      System.gc();
+    }
+
+    return runtime.totalMemory() - runtime.freeMemory();
+  }
+}
@@ -0,0 +1,55 @@
+package dev.emmily.oersted.benchmarks;
+
+import dev.emmily.oersted.calculator.ResistorCalculator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResistorCalculatorBenchmark {
+  @Param({"2", "16", "1024"})
+  private int resistors;
+
+  private double[] values;
+
+  @Setup
+  public void setup() {
+    SplittableRandom random = new SplittableRandom(42);
+    values = new double[resistors];
+
+    for (int i = 0; i < resistors; i++) {
+      values[i] = 0.5 + random.nextDouble() * 100;
+    }
+  }
+
+  @Benchmark
+  public double sumParallelResistors() {
+    return ResistorCalculator.sumParallelResistors(values);
+  }
+
+  @Benchmark
+  public double sumSeriesResistors() {
+    return ResistorCalculator.sumSeriesResistors(values);
+  }
+
+  @Benchmark
+  public double reduceResistors() {
+    return ResistorCalculator.reduceResistors(values, resistor -> resistor * resistor, Math::max);
+  }
+}
@@ -0,0 +1,67 @@
+package dev.emmily.oersted.benchmarks;
+
+import dev.emmily.oersted.circuit.Circuit;
+import dev.emmily.oersted.circuit.conductor.Conductor;
+import dev.emmily.oersted.circuit.conduit.Conduit;
+import dev.emmily.oersted.circuit.dsl.Table;
+import dev.emmily.oersted.circuit.dsl.TableRule;
+import dev.emmily.oersted.circuit.dsl.TableSelectionStrategy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TableSelectionBenchmark {
+  @Param({"1000", "100000", "1000000"})
+  private int circuits;
+
+  private TableSelectionStrategy strategy;
+  private Circuit[] installation;
+
+  @Setup
+  public void setup() {
+    strategy = new TableSelectionStrategy(new LinkedHashMap<>());
+    register("table-i", TableRule.withInsulator(Conductor.Material.XLPE).andConduit(Conduit.Type.OUTDOOR));
+    register("table-vi", TableRule.withInsulator(Conductor.Material.PVC).andConduit(Conduit.Type.OUTDOOR_UNDER_ROOF));
+    register("table-x", TableRule.withInsulator(Conductor.Material.PVC).andConductor(Conductor.Material.COPPER).andConduit(Conduit.Type.PIPE));
+    register("table-xi", TableRule.withInsulator(Conductor.Material.XLPE).andConductor(Conductor.Material.COPPER).andConduit(Conduit.Type.PIPE));
+    register("table-xii", TableRule.withInsulator(Conductor.Material.PVC).andConductor(Conductor.Material.ALUMINUM).andConduit(Conduit.Type.PIPE));
+    register("table-xiii", TableRule.withInsulator(Conductor.Material.XLPE).andConductor(Conductor.Material.ALUMINUM).andConduit(Conduit.Type.PIPE));
+    register("table-ix", TableRule.where(circuit -> true));
+    installation = Installations.create(circuits, 42).circuitTree().values().toArray(new Circuit[0]);
+  }
+
+  private void register(String id, TableRule rule) {
+    strategy.registerTable(new Table(id, id, rule, null, List.of()));
+  }
+
+  @Benchmark
+  public void selectTableByCircuit(Blackhole blackhole) {
+    for (Circuit circuit : installation) {
+      blackhole.consume(strategy.selectTable(circuit));
+    }
+  }
+
+  @Benchmark
+  public Table selectTableById() {
+    return strategy.selectTable("table-xi");
+  }
+}
@@ -0,0 +1,51 @@
+package dev.emmily.oersted.balancing;
+
+import java.util.Map;
+
+/**
+ * Represents the phase assignment of the single-phase circuits fed by a distribution board.
+ *
+ * @param board  the identifier of the board, {@link dev.emmily.oersted.hierarchy.Hierarchical#PARENT}
+ *               for the circuits fed directly by the supply.
+ * @param phases the phase assigned to every single-phase circuit of the board, keyed by circuit id.
+ * @param l1     the resulting apparent power on L1 (VA).
+ * @param l2     the resulting apparent power on L2 (VA).
+ * @param l3     the resulting apparent power on L3 (VA).
+ */
+public record BoardBalance(String board,
+                           Map<String, Phase> phases,
+                           long l1,
+                           long l2,
+                           long l3) {
+  /**
+   * Returns the apparent power on the given phase.
+   *
+   * @param phase the phase.
+   * @return the apparent power on the phase (VA).
+   */
+  public long load(Phase phase) {
+    return switch (phase) {
+      case L1 -> l1;
+      case L2 -> l2;
+      case L3 -> l3;
+    };
+  }
+
+  /**
+   * Returns the apparent power on the most loaded phase.
+   *
+   * @return the maximum phase load (VA).
+   */
+  public long maxLoad() {
+    return Math.max(l1, Math.max(l2, l3));
+  }
+
+  /**
+   * Returns the difference between the most and the least loaded phases.
+   *
+   * @return the phase imbalance (VA).
+   */
+  public long imbalance() {
+    return maxLoad() - Math.min(l1, Math.min(l2, l3));
+  }
+}
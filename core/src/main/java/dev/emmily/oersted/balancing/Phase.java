@@ -0,0 +1,10 @@
+package dev.emmily.oersted.balancing;
+
+/**
+ * Represents the phases of a three-phase supply a single-phase circuit can be connected to.
+ */
+public enum Phase {
+  L1,
+  L2,
+  L3
+}
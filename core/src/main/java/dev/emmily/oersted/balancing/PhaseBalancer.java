@@ -0,0 +1,323 @@
+package dev.emmily.oersted.balancing;
+
+import dev.emmily.oersted.circuit.Circuit;
+import dev.emmily.oersted.hierarchy.HierarchicalTree;
+import dev.emmily.oersted.installation.ElectricalInstallation;
+import dev.emmily.oersted.system.ElectricalSystem;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+/**
+ * Assigns the single-phase circuits of three-phase supplies to L1, L2 or L3, so that the most loaded
+ * phase under every distribution board carries as little apparent power as possible.
+ * <p>
+ * Each board is seeded with the greedy longest-processing-time heuristic (heaviest circuits first,
+ * each one on the least loaded phase) and then refined by a local search of single moves and pairwise
+ * swaps between the heaviest phase and the others. The local search is restarted from several
+ * randomly perturbed copies of the seed in parallel, and boards are balanced in parallel as well.
+ * Every step of the local search costs O(n log n), so boards with thousands of circuits are balanced
+ * in milliseconds.
+ * <p>
+ * Three-phase circuits load every phase evenly, so they are added to the resulting phase loads
+ * but don't take part in the search.
+ */
+public class PhaseBalancer {
+  private static final Phase[] PHASES = Phase.values();
+
+  public static PhaseBalancer create() {
+    return create(Runtime.getRuntime().availableProcessors(), 10_000, 0);
+  }
+
+  /**
+   * @param restarts      the amount of local searches run per board, the first one starts from the
+   *                      greedy seed and the rest from randomly perturbed copies of it.
+   * @param maxIterations the maximum amount of improving steps per local search.
+   * @param seed          the seed of the perturbations, so that results are reproducible.
+   */
+  public static PhaseBalancer create(int restarts, int maxIterations, long seed) {
+    if (restarts < 1) {
+      throw new IllegalArgumentException("at least 1 restart is required");
+    }
+
+    return new PhaseBalancer(restarts, maxIterations, seed);
+  }
+
+  private final int restarts;
+  private final int maxIterations;
+  private final long seed;
+
+  private PhaseBalancer(int restarts, int maxIterations, long seed) {
+    this.restarts = restarts;
+    this.maxIterations = maxIterations;
+    this.seed = seed;
+  }
+
+  /**
+   * Balances every distribution board of the installation.
+   *
+   * @param installation the installation to be balanced.
+   * @return the balance of every board feeding at least one single-phase circuit, keyed by board id.
+   */
+  public Map<String, BoardBalance> balance(ElectricalInstallation installation) {
+    ElectricalSystem supply = installation.supplyingSystem();
+    Map<String, List<Circuit>> boards = new HierarchicalTree<>(installation.circuitTree()).groupByParent();
+    Map<String, BoardBalance> balances = new ConcurrentHashMap<>();
+
+    boards.entrySet().parallelStream().forEach(board -> {
+      BoardBalance balance = balance(board.getKey(), board.getValue(), supply);
+
+      if (!balance.phases().isEmpty()) {
+        balances.put(balance.board(), balance);
+      }
+    });
+
+    return balances;
+  }
+
+  /**
+   * Balances the circuits fed by a single distribution board.
+   *
+   * @param board    the identifier of the board.
+   * @param circuits the circuits fed by the board.
+   * @param supply   the system supplying circuits without an electrical system of their own.
+   * @return the balance of the board.
+   */
+  public BoardBalance balance(String board, List<Circuit> circuits, ElectricalSystem supply) {
+    List<Circuit> singlePhase = new ArrayList<>();
+    long threePhaseLoad = 0;
+
+    for (Circuit circuit : circuits) {
+      ElectricalSystem system = circuit.electricalSystem() == null ? supply : circuit.electricalSystem();
+
+      if (system == null || system.systemType() != ElectricalSystem.SystemType.THREE_PHASE) {
+        continue;
+      }
+
+      if (circuit.circuitSystemType() == ElectricalSystem.SystemType.SINGLE_PHASE) {
+        singlePhase.add(circuit);
+      } else {
+        threePhaseLoad += circuit.apparentPower();
+      }
+    }
+
+    singlePhase.sort(Comparator.comparingInt(Circuit::apparentPower).reversed());
+
+    long[] weights = new long[singlePhase.size()];
+
+    for (int i = 0; i < weights.length; i++) {
+      weights[i] = singlePhase.get(i).apparentPower();
+    }
+
+    byte[] phases = search(weights);
+    long[] loads = loads(weights, phases);
+    Map<String, Phase> assignment = new LinkedHashMap<>();
+
+    for (int i = 0; i < phases.length; i++) {
+      assignment.put(singlePhase.get(i).id(), PHASES[phases[i]]);
+    }
+
+    long perPhase = threePhaseLoad / 3;
+    return new BoardBalance(board, assignment, loads[0] + perPhase, loads[1] + perPhase, loads[2] + perPhase);
+  }
+
+  private byte[] search(long[] weights) {
+    byte[] greedy = greedy(weights);
+
+    if (weights.length < 2) {
+      return greedy;
+    }
+
+    return IntStream.range(0, restarts)
+      .parallel()
+      .mapToObj(restart -> {
+        byte[] phases = greedy.clone();
+
+        if (restart > 0) {
+          perturb(phases, new SplittableRandom(seed + restart));
+        }
+
+        localSearch(weights, phases, loads(weights, phases));
+        return phases;
+      })
+      .min(Comparator
+        .comparingLong((byte[] phases) -> max(loads(weights, phases)))
+        .thenComparingDouble(phases -> sumOfSquares(loads(weights, phases))))
+      .orElse(greedy);
+  }
+
+  private static byte[] greedy(long[] weights) {
+    byte[] phases = new byte[weights.length];
+    long[] loads = new long[PHASES.length];
+
+    for (int i = 0; i < weights.length; i++) {
+      int lightest = 0;
+
+      for (int phase = 1; phase < loads.length; phase++) {
+        if (loads[phase] < loads[lightest]) {
+          lightest = phase;
+        }
+      }
+
+      phases[i] = (byte) lightest;
+      loads[lightest] += weights[i];
+    }
+
+    return phases;
+  }
+
+  private static void perturb(byte[] phases, SplittableRandom random) {
+    int changes = Math.max(1, phases.length / 20);
+
+    for (int i = 0; i < changes; i++) {
+      phases[random.nextInt(phases.length)] = (byte) random.nextInt(PHASES.length);
+    }
+  }
+
+  private void localSearch(long[] weights, byte[] phases, long[] loads) {
+    for (int iteration = 0; iteration < maxIterations; iteration++) {
+      int heaviest = 0;
+
+      for (int phase = 1; phase < loads.length; phase++) {
+        if (loads[phase] > loads[heaviest]) {
+          heaviest = phase;
+        }
+      }
+
+      int first = (heaviest + 1) % 3;
+      int second = (heaviest + 2) % 3;
+      int lightest = loads[first] <= loads[second] ? first : second;
+      int middle = lightest == first ? second : first;
+
+      if (!improve(weights, phases, loads, heaviest, lightest)
+        && !improve(weights, phases, loads, heaviest, middle)) {
+        return;
+      }
+    }
+  }
+
+  /**
+   * Applies the move or swap between two phases that brings their loads closest together.
+   * Any transfer of d VA with 0 &lt; d &lt; gap lowers the maximum of both phases, and the
+   * best one is the closest to gap / 2.
+   */
+  private static boolean improve(long[] weights, byte[] phases, long[] loads, int from, int to) {
+    long gap = loads[from] - loads[to];
+
+    if (gap <= 0) {
+      return false;
+    }
+
+    // circuits on the target phase, heaviest first since weights are sorted in descending order
+    int[] targets = new int[weights.length];
+    int targetCount = 0;
+
+    for (int i = 0; i < weights.length; i++) {
+      if (phases[i] == to) {
+        targets[targetCount++] = i;
+      }
+    }
+
+    long bestDistance = Long.MAX_VALUE;
+    int bestSource = -1;
+    int bestTarget = -1;
+
+    for (int source = 0; source < weights.length; source++) {
+      if (phases[source] != from) {
+        continue;
+      }
+
+      long weight = weights[source];
+
+      if (weight > 0 && weight < gap && Math.abs(2 * weight - gap) < bestDistance) {
+        bestDistance = Math.abs(2 * weight - gap);
+        bestSource = source;
+        bestTarget = -1;
+      }
+
+      int position = lowerBound(weights, targets, targetCount, weight - gap / 2);
+
+      for (int candidate = position - 1; candidate <= position; candidate++) {
+        if (candidate < 0 || candidate >= targetCount) {
+          continue;
+        }
+
+        long transfer = weight - weights[targets[candidate]];
+
+        if (transfer > 0 && transfer < gap && Math.abs(2 * transfer - gap) < bestDistance) {
+          bestDistance = Math.abs(2 * transfer - gap);
+          bestSource = source;
+          bestTarget = targets[candidate];
+        }
+      }
+    }
+
+    if (bestSource == -1) {
+      return false;
+    }
+
+    long transfer = weights[bestSource];
+    phases[bestSource] = (byte) to;
+
+    if (bestTarget != -1) {
+      transfer -= weights[bestTarget];
+      phases[bestTarget] = (byte) from;
+    }
+
+    loads[from] -= transfer;
+    loads[to] += transfer;
+    return true;
+  }
+
+  /**
+   * Returns the first position whose weight is lower than or equal to the given one,
+   * in a list of indices sorted by descending weight.
+   */
+  private static int lowerBound(long[] weights, int[] indices, int count, long weight) {
+    int low = 0;
+    int high = count;
+
+    while (low < high) {
+      int middle = (low + high) >>> 1;
+
+      if (weights[indices[middle]] > weight) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+
+    return low;
+  }
+
+  private static long[] loads(long[] weights, byte[] phases) {
+    long[] loads = new long[PHASES.length];
+
+    for (int i = 0; i < weights.length; i++) {
+      loads[phases[i]] += weights[i];
+    }
+
+    return loads;
+  }
+
+  private static long max(long[] loads) {
+    return Arrays.stream(loads).max().orElse(0);
+  }
+
+  private static double sumOfSquares(long[] loads) {
+    double sum = 0;
+
+    for (long load : loads) {
+      sum += (double) load * load;
+    }
+
+    return sum;
+  }
+}
@@ -0,0 +1,230 @@
+package dev.emmily.oersted.bom;
+
+import dev.emmily.oersted.circuit.Circuit;
+import dev.emmily.oersted.circuit.conductor.Conductor;
+import dev.emmily.oersted.circuit.conduit.Conduit;
+import dev.emmily.oersted.installation.ElectricalInstallation;
+import dev.emmily.oersted.system.ElectricalSystem;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * The cable and conduit an installation requires: the total length of conductor per conductor material,
+ * insulator material and cross-section, counting the phase, neutral and earth conductors of every circuit, and
+ * the total length of conduit per conduit type and diameter.
+ * <p>
+ * Totals are accumulated in primitive hash tables keyed by the packed attributes of each item, in whole
+ * millimetres, so adding, removing and merging are exact: a bill aggregated in parallel equals the one
+ * aggregated sequentially, and removing a circuit undoes adding it. Circuits are aggregated in parallel by
+ * {@link #of(Collection)}, and a bill can be kept up to date afterwards by adding and removing the circuits
+ * that change.
+ * <p>
+ * Phase conductors are counted once per phase, three times for three-phase circuits. Circuits routed
+ * through the air, whose conduit has no type, add no conduit.
+ * <p>
+ * Bills aren't thread-safe.
+ */
+public class BillOfMaterials {
+  private static final long PRESENT = Long.MIN_VALUE;
+  private static final Conductor.Material[] MATERIALS = Conductor.Material.values();
+  private static final Conduit.Type[] CONDUIT_TYPES = Conduit.Type.values();
+
+  public static BillOfMaterials create() {
+    return new BillOfMaterials();
+  }
+
+  public static BillOfMaterials of(ElectricalInstallation installation) {
+    return of(installation.circuitTree().values());
+  }
+
+  /**
+   * Aggregates the bill of materials of some circuits, splitting them into partitions that are aggregated in
+   * parallel and merged.
+   *
+   * @param circuits the circuits to be aggregated.
+   * @return the bill of materials of the circuits.
+   */
+  public static BillOfMaterials of(Collection<Circuit> circuits) {
+    // an array splits into even partitions, unlike the linked collections installations are usually kept in
+    return Arrays.stream(circuits.toArray(Circuit[]::new))
+      .parallel()
+      .collect(BillOfMaterials::new, BillOfMaterials::add, BillOfMaterials::merge);
+  }
+
+  private final LengthTable conductors = new LengthTable();
+  // one table per conduit type, keyed by the bits of the diameter
+  private final LengthTable[] conduits = new LengthTable[CONDUIT_TYPES.length];
+
+  private BillOfMaterials() {
+    for (int i = 0; i < conduits.length; i++) {
+      conduits[i] = new LengthTable();
+    }
+  }
+
+  /**
+   * Adds the conductors and conduit of a circuit.
+   *
+   * @param circuit the circuit to be added.
+   */
+  public void add(Circuit circuit) {
+    accumulate(circuit, 1);
+  }
+
+  /**
+   * Removes the conductors and conduit of a circuit that was added before.
+   *
+   * @param circuit the circuit to be removed, in the state it was added.
+   */
+  public void remove(Circuit circuit) {
+    accumulate(circuit, -1);
+  }
+
+  /**
+   * Adds every item of another bill to this one.
+   *
+   * @param other the bill to be merged, which is left untouched.
+   * @return this bill.
+   */
+  public BillOfMaterials merge(BillOfMaterials other) {
+    conductors.addAll(other.conductors);
+
+    for (int i = 0; i < conduits.length; i++) {
+      conduits[i].addAll(other.conduits[i]);
+    }
+
+    return this;
+  }
+
+  /**
+   * Returns the total length of a kind of cable.
+   *
+   * @param conductor    the material of the conductor.
+   * @param insulator    the material of the insulator.
+   * @param crossSection the cross-section (mm²).
+   * @return the total length (m).
+   */
+  public double conductorLength(Conductor.Material conductor, Conductor.Material insulator, float crossSection) {
+    return conductors.length(conductorKey(conductor, insulator, crossSection)) / 1000d;
+  }
+
+  /**
+   * Returns the total length of a kind of conduit.
+   *
+   * @param type     the type of the conduit.
+   * @param diameter the diameter of the conduit (mm).
+   * @return the total length (m).
+   */
+  public double conduitLength(Conduit.Type type, double diameter) {
+    return conduits[type.ordinal()].length(conduitKey(diameter)) / 1000d;
+  }
+
+  /**
+   * @return every kind of cable of the bill, sorted by conductor material, insulator material and cross-section.
+   */
+  public List<ConductorItem> conductors() {
+    List<ConductorItem> items = new ArrayList<>();
+
+    for (int slot = 0; slot < conductors.capacity(); slot++) {
+      long key = conductors.keyAt(slot);
+
+      if (key != 0 && conductors.runsAt(slot) != 0) {
+        items.add(new ConductorItem(
+          material((int) (key >>> 40 & 0xFF)),
+          material((int) (key >>> 32 & 0xFF)),
+          Float.intBitsToFloat((int) key),
+          conductors.lengthAt(slot) / 1000d,
+          conductors.runsAt(slot)
+        ));
+      }
+    }
+
+    items.sort(Comparator
+      .comparing(ConductorItem::conductor, Comparator.nullsFirst(Comparator.naturalOrder()))
+      .thenComparing(ConductorItem::insulator, Comparator.nullsFirst(Comparator.naturalOrder()))
+      .thenComparingDouble(ConductorItem::crossSection));
+
+    return items;
+  }
+
+  /**
+   * @return every kind of conduit of the bill, sorted by type and diameter.
+   */
+  public List<ConduitItem> conduits() {
+    List<ConduitItem> items = new ArrayList<>();
+
+    for (Conduit.Type type : CONDUIT_TYPES) {
+      LengthTable table = conduits[type.ordinal()];
+      int first = items.size();
+
+      for (int slot = 0; slot < table.capacity(); slot++) {
+        long key = table.keyAt(slot);
+
+        if (key != 0 && table.runsAt(slot) != 0) {
+          items.add(new ConduitItem(
+            type,
+            Double.longBitsToDouble(key & ~PRESENT),
+            table.lengthAt(slot) / 1000d,
+            table.runsAt(slot)
+          ));
+        }
+      }
+
+      items.subList(first, items.size()).sort(Comparator.comparingDouble(ConduitItem::diameter));
+    }
+
+    return items;
+  }
+
+  private void accumulate(Circuit circuit, int sign) {
+    Conductor phase = circuit.phaseConductors();
+    int phases = circuit.circuitSystemType() == ElectricalSystem.SystemType.THREE_PHASE ? 3 : 1;
+
+    accumulate(phase, phases * sign);
+    accumulate(circuit.neutralConductor(), sign);
+    accumulate(circuit.earthConductor(), sign);
+
+    Conduit conduit = circuit.conduit();
+
+    if (conduit != null && conduit.type() != null) {
+      long length = phase == null ? 0 : millimetres(phase.length());
+      conduits[conduit.type().ordinal()].add(conduitKey(conduit.diameter()), length * sign, sign);
+    }
+  }
+
+  private void accumulate(Conductor conductor, int runs) {
+    if (conductor != null) {
+      conductors.add(
+        conductorKey(conductor.conductor(), conductor.insulator(), conductor.crossSection()),
+        millimetres(conductor.length()) * runs,
+        runs
+      );
+    }
+  }
+
+  /**
+   * Packs a kind of cable as a present bit, the conductor and insulator materials (their ordinals plus one, so
+   * that 0 stands for {@code null}) and the bits of the cross-section.
+   */
+  private static long conductorKey(Conductor.Material conductor, Conductor.Material insulator, float crossSection) {
+    return PRESENT
+      | (long) (conductor == null ? 0 : conductor.ordinal() + 1) << 40
+      | (long) (insulator == null ? 0 : insulator.ordinal() + 1) << 32
+      | Float.floatToIntBits(crossSection) & 0xFFFFFFFFL;
+  }
+
+  private static long conduitKey(double diameter) {
+    return PRESENT | Double.doubleToLongBits(diameter);
+  }
+
+  private static Conductor.Material material(int packed) {
+    return packed == 0 ? null : MATERIALS[packed - 1];
+  }
+
+  private static long millimetres(float length) {
+    return Math.round(length * 1000d);
+  }
+}
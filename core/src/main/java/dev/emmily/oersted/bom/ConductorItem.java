@@ -0,0 +1,20 @@
+package dev.emmily.oersted.bom;
+
+import dev.emmily.oersted.circuit.conductor.Conductor;
+
+/**
+ * Represents the total amount of a kind of cable required by an installation.
+ *
+ * @param conductor    the material of the conductor.
+ * @param insulator    the material of the insulator.
+ * @param crossSection the cross-section (mm²).
+ * @param length       the total length (m).
+ * @param runs         the amount of single conductors the length is made of, e.g. 3 per three-phase circuit
+ *                     for its phase conductors.
+ */
+public record ConductorItem(Conductor.Material conductor,
+                            Conductor.Material insulator,
+                            float crossSection,
+                            double length,
+                            long runs) {
+}
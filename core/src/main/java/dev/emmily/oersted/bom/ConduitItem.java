@@ -0,0 +1,17 @@
+package dev.emmily.oersted.bom;
+
+import dev.emmily.oersted.circuit.conduit.Conduit;
+
+/**
+ * Represents the total amount of a kind of conduit required by an installation.
+ *
+ * @param type     the type of the conduit.
+ * @param diameter the diameter of the conduit (mm).
+ * @param length   the total length (m), that of the phase conductors routed through it.
+ * @param runs     the amount of circuits routed through this kind of conduit.
+ */
+public record ConduitItem(Conduit.Type type,
+                          double diameter,
+                          double length,
+                          long runs) {
+}
@@ -0,0 +1,102 @@
+package dev.emmily.oersted.bom;
+
+/**
+ * An open-addressing hash table from packed long keys to a total length (mm) and an amount of runs, with
+ * linear probing and no boxing. Keys must have their highest bit set, so that 0 marks an empty slot.
+ */
+final class LengthTable {
+  private static final long EMPTY = 0;
+
+  private long[] keys;
+  private long[] lengths;
+  private long[] runs;
+  private int size;
+
+  LengthTable() {
+    this(16);
+  }
+
+  private LengthTable(int capacity) {
+    this.keys = new long[capacity];
+    this.lengths = new long[capacity];
+    this.runs = new long[capacity];
+  }
+
+  void add(long key, long length, long runs) {
+    int slot = slot(key);
+
+    if (keys[slot] == EMPTY) {
+      // keep the table at most half full so that probe sequences stay short
+      if ((size + 1) * 2 > keys.length) {
+        grow();
+        slot = slot(key);
+      }
+
+      keys[slot] = key;
+      size++;
+    }
+
+    this.lengths[slot] += length;
+    this.runs[slot] += runs;
+  }
+
+  void addAll(LengthTable other) {
+    for (int i = 0; i < other.keys.length; i++) {
+      if (other.keys[i] != EMPTY) {
+        add(other.keys[i], other.lengths[i], other.runs[i]);
+      }
+    }
+  }
+
+  long length(long key) {
+    int slot = slot(key);
+    return keys[slot] == EMPTY ? 0 : lengths[slot];
+  }
+
+  int capacity() {
+    return keys.length;
+  }
+
+  long keyAt(int slot) {
+    return keys[slot];
+  }
+
+  long lengthAt(int slot) {
+    return lengths[slot];
+  }
+
+  long runsAt(int slot) {
+    return runs[slot];
+  }
+
+  private int slot(long key) {
+    int mask = keys.length - 1;
+    long hash = key * 0x9E3779B97F4A7C15L;
+    int slot = (int) (hash ^ hash >>> 32) & mask;
+
+    while (keys[slot] != EMPTY && keys[slot] != key) {
+      slot = (slot + 1) & mask;
+    }
+
+    return slot;
+  }
+
+  private void grow() {
+    long[] oldKeys = keys;
+    long[] oldLengths = lengths;
+    long[] oldRuns = runs;
+
+    keys = new long[oldKeys.length * 2];
+    lengths = new long[keys.length];
+    runs = new long[keys.length];
+
+    for (int i = 0; i < oldKeys.length; i++) {
+      if (oldKeys[i] != EMPTY) {
+        int slot = slot(oldKeys[i]);
+        keys[slot] = oldKeys[i];
+        lengths[slot] = oldLengths[i];
+        runs[slot] = oldRuns[i];
+      }
+    }
+  }
+}
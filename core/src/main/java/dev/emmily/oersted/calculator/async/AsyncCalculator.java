@@ -0,0 +1,242 @@
+package dev.emmily.oersted.calculator.async;
+
+import dev.emmily.oersted.calculator.ResistorCalculator;
+import dev.emmily.oersted.calculator.conductor.ConductorSizer;
+import dev.emmily.oersted.calculator.conductor.ConductorSizing;
+import dev.emmily.oersted.circuit.Circuit;
+import dev.emmily.oersted.earthing.EarthingDesign;
+import dev.emmily.oersted.earthing.EarthingSystem;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Runs a batched calculation asynchronously on an {@link Executor} supplied by the caller.
+ * <p>
+ * The submitted requests are split into batches of {@code batchSize}, and at most {@code maxInFlight} batches
+ * of a calculation are handed to the executor at once: every finished batch schedules the next one, so a
+ * large recalculation never floods the executor nor blocks the submitting thread. The results of every batch
+ * can be streamed to a listener as soon as it finishes, and a {@link Calculation} can be cancelled at any
+ * time, which stops it from scheduling more batches.
+ * <p>
+ * The executor should run tasks on other threads; a direct executor would calculate every batch within
+ * {@link #submit(List)}.
+ *
+ * @param <I> the type of the requests.
+ * @param <O> the type of the results, one per request and in the same order.
+ */
+public class AsyncCalculator<I, O> {
+  public static <I, O> Builder<I, O> builder(Function<List<I>, List<O>> calculation) {
+    return new Builder<>(calculation);
+  }
+
+  /**
+   * Sizes the conductors of circuits.
+   *
+   * @param sizer the sizer of the conductors.
+   */
+  public static Builder<Circuit, ConductorSizing> sizing(ConductorSizer sizer) {
+    return builder(circuits -> sizer.size(circuits));
+  }
+
+  /**
+   * Calculates earthing systems. Every system is mutated by its calculation, so the same instance must not be
+   * submitted more than once at a time.
+   */
+  public static Builder<EarthingSystem, EarthingDesign> earthing() {
+    return builder(systems -> {
+      List<EarthingDesign> designs = new ArrayList<>(systems.size());
+
+      for (EarthingSystem system : systems) {
+        designs.add(system.design());
+      }
+
+      return designs;
+    });
+  }
+
+  /**
+   * Calculates the equivalent resistance of sets of parallel resistors (Ω).
+   */
+  public static Builder<double[], Double> parallelResistors() {
+    return builder(sets -> {
+      List<Double> resistances = new ArrayList<>(sets.size());
+
+      for (double[] resistors : sets) {
+        resistances.add(ResistorCalculator.sumParallelResistors(resistors));
+      }
+
+      return resistances;
+    });
+  }
+
+  private final Function<List<I>, List<O>> calculation;
+  private final Executor executor;
+  private final int maxInFlight;
+  private final int batchSize;
+
+  private AsyncCalculator(Builder<I, O> builder) {
+    this.calculation = builder.calculation;
+    this.executor = builder.executor;
+    this.maxInFlight = builder.maxInFlight;
+    this.batchSize = builder.batchSize;
+  }
+
+  public Calculation<O> submit(List<I> requests) {
+    return submit(requests, partial -> {});
+  }
+
+  /**
+   * Submits requests to be calculated.
+   *
+   * @param requests the requests to be calculated, which must not be modified until the calculation completes.
+   * @param progress the listener of the results of every batch, called from the threads of the executor in
+   *                 completion order. If it throws, the calculation fails.
+   * @return the submitted calculation.
+   */
+  public Calculation<O> submit(List<I> requests, Consumer<PartialResult<O>> progress) {
+    Run run = new Run(requests, progress);
+
+    if (run.batches == 0) {
+      run.handle.result().complete(List.of());
+    }
+
+    for (int i = 0; i < Math.min(maxInFlight, run.batches); i++) {
+      run.schedule();
+    }
+
+    return run.handle;
+  }
+
+  private final class Run {
+    private final List<I> requests;
+    private final Consumer<PartialResult<O>> progress;
+    private final Calculation<O> handle;
+    private final Object[] results;
+    private final int batches;
+    private final AtomicInteger nextBatch = new AtomicInteger();
+    private final AtomicInteger pendingBatches;
+
+    private Run(List<I> requests, Consumer<PartialResult<O>> progress) {
+      this.requests = requests;
+      this.progress = progress;
+      this.handle = new Calculation<>(new CompletableFuture<>(), requests.size());
+      this.results = new Object[requests.size()];
+      this.batches = (requests.size() + batchSize - 1) / batchSize;
+      this.pendingBatches = new AtomicInteger(batches);
+    }
+
+    private void schedule() {
+      int batch = nextBatch.getAndIncrement();
+
+      if (batch >= batches || handle.isDone()) {
+        return;
+      }
+
+      try {
+        executor.execute(() -> calculate(batch));
+      } catch (RejectedExecutionException e) {
+        handle.result().completeExceptionally(e);
+      }
+    }
+
+    private void calculate(int batch) {
+      if (handle.isDone()) {
+        return;
+      }
+
+      int from = batch * batchSize;
+      int to = Math.min(from + batchSize, requests.size());
+
+      try {
+        List<O> batchResults = calculation.apply(requests.subList(from, to));
+
+        if (batchResults.size() != to - from) {
+          throw new IllegalStateException(
+            "the batch of " + (to - from) + " requests returned " + batchResults.size() + " results"
+          );
+        }
+
+        for (int i = 0; i < batchResults.size(); i++) {
+          results[from + i] = batchResults.get(i);
+        }
+
+        if (handle.isDone()) {
+          return;
+        }
+
+        progress.accept(new PartialResult<>(from, batchResults, handle.complete(to - from), requests.size()));
+      } catch (Throwable e) {
+        // errors too, or the handle would never complete
+        handle.result().completeExceptionally(e);
+        return;
+      }
+
+      if (pendingBatches.decrementAndGet() == 0) {
+        handle.result().complete(toList());
+      } else {
+        schedule();
+      }
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<O> toList() {
+      return (List<O>) Arrays.asList(results);
+    }
+  }
+
+  public static class Builder<I, O> {
+    private final Function<List<I>, List<O>> calculation;
+    private Executor executor;
+    private int maxInFlight = Runtime.getRuntime().availableProcessors();
+    private int batchSize = 1024;
+
+    private Builder(Function<List<I>, List<O>> calculation) {
+      this.calculation = calculation;
+    }
+
+    /**
+     * @param executor the executor batches are calculated on.
+     */
+    public Builder<I, O> executor(Executor executor) {
+      this.executor = executor;
+      return this;
+    }
+
+    /**
+     * @param maxInFlight the maximum amount of batches of a calculation handed to the executor at once, the
+     *                    amount of available processors by default.
+     */
+    public Builder<I, O> maxInFlight(int maxInFlight) {
+      this.maxInFlight = maxInFlight;
+      return this;
+    }
+
+    /**
+     * @param batchSize the amount of requests calculated by a single task, 1024 by default.
+     */
+    public Builder<I, O> batchSize(int batchSize) {
+      this.batchSize = batchSize;
+      return this;
+    }
+
+    public AsyncCalculator<I, O> build() {
+      if (executor == null) {
+        throw new IllegalArgumentException("an executor is required");
+      }
+
+      if (maxInFlight < 1 || batchSize < 1) {
+        throw new IllegalArgumentException("invalid calculator settings");
+      }
+
+      return new AsyncCalculator<>(this);
+    }
+  }
+}
@@ -0,0 +1,65 @@
+package dev.emmily.oersted.calculator.async;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A calculation submitted to an {@link AsyncCalculator}.
+ *
+ * @param <O> the type of the results.
+ */
+public class Calculation<O> {
+  private final CompletableFuture<List<O>> result;
+  private final int total;
+  private final AtomicInteger completed = new AtomicInteger();
+
+  Calculation(CompletableFuture<List<O>> result, int total) {
+    this.result = result;
+    this.total = total;
+  }
+
+  /**
+   * Returns the future of every result, in the order of the submitted requests. It completes exceptionally
+   * with the first failure of a batch, or with a {@link java.util.concurrent.CancellationException} once
+   * cancelled.
+   *
+   * @return the future of the results.
+   */
+  public CompletableFuture<List<O>> result() {
+    return result;
+  }
+
+  /**
+   * Cancels the calculation. Batches that haven't started are never run; running batches finish, but their
+   * results are discarded.
+   *
+   * @return {@code true} if the calculation was cancelled, {@code false} if it had already completed.
+   */
+  public boolean cancel() {
+    return result.cancel(false);
+  }
+
+  public boolean isCancelled() {
+    return result.isCancelled();
+  }
+
+  public boolean isDone() {
+    return result.isDone();
+  }
+
+  /**
+   * @return the amount of requests calculated so far.
+   */
+  public int completed() {
+    return completed.get();
+  }
+
+  public int total() {
+    return total;
+  }
+
+  int complete(int requests) {
+    return completed.addAndGet(requests);
+  }
+}
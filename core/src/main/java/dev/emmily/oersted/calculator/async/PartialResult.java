@@ -0,0 +1,17 @@
+package dev.emmily.oersted.calculator.async;
+
+import java.util.List;
+
+/**
+ * The results of one batch of a {@link Calculation}, streamed as soon as the batch completes.
+ *
+ * @param offset    the index of the first request of the batch within the submitted requests.
+ * @param results   the results of the batch, one per request and in the same order.
+ * @param completed the amount of requests calculated so far, this batch included.
+ * @param total     the amount of submitted requests.
+ * @param <O>       the type of the results.
+ */
+public record PartialResult<O>(int offset,
+                               List<O> results,
+                               int completed,
+                               int total) {}
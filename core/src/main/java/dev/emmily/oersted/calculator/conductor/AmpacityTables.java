@@ -0,0 +1,175 @@
+package dev.emmily.oersted.calculator.conductor;
+
+import dev.emmily.oersted.circuit.Circuit;
+import dev.emmily.oersted.circuit.conductor.Conductor;
+import dev.emmily.oersted.circuit.dsl.Table;
+import dev.emmily.oersted.circuit.dsl.TableSelectionStrategy;
+import dev.emmily.oersted.system.ElectricalSystem;
+import dev.emmily.oersted.validation.AmpacityProvider;
+import org.apache.commons.csv.CSVRecord;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reads the maximum admissible currents of UTE's RBT annex tables selected by a {@link TableSelectionStrategy}.
+ * <p>
+ * Each table is parsed once into a sorted array of cross-sections and one array of currents per column.
+ * The column of a circuit is chosen by its amount of loaded conductors ({@code 2 Unipolar conductors} for
+ * single-phase circuits, {@code 3 Unipolar conductors} for three-phase ones) or, in tables split by material,
+ * by the conductor and insulator of its phase conductors. Cells that are empty or {@code -} are not available.
+ */
+public class AmpacityTables implements AmpacityProvider {
+  private final TableSelectionStrategy tableSelectionStrategy;
+  private final Map<String, Columns> parsed = new ConcurrentHashMap<>();
+
+  public AmpacityTables(TableSelectionStrategy tableSelectionStrategy) {
+    this.tableSelectionStrategy = tableSelectionStrategy;
+  }
+
+  /**
+   * Returns the ampacity of the phase conductors of a circuit at their installed cross-section.
+   *
+   * @param circuit the circuit.
+   * @return the ampacity (A), or {@link Double#NaN} if no table lists the cross-section.
+   */
+  @Override
+  public double ampacity(Circuit circuit) {
+    Conductor conductors = circuit.phaseConductors();
+    Columns columns = columns(circuit);
+
+    if (conductors == null || columns == null) {
+      return Double.NaN;
+    }
+
+    return columns.ampacity(columns.column(circuit), conductors.crossSection());
+  }
+
+  /**
+   * Returns the smallest cross-section listed for a circuit whose ampacity carries the given current.
+   *
+   * @param circuit the circuit.
+   * @param current the current to be carried (A).
+   * @return the cross-section (mm²), {@link Float#NaN} if no table or column applies to the circuit, or
+   * {@link Float#POSITIVE_INFINITY} if the current exceeds every listed cross-section.
+   */
+  public float minimumSection(Circuit circuit, double current) {
+    Columns columns = columns(circuit);
+    return columns == null ? Float.NaN : columns.minimumSection(columns.column(circuit), current);
+  }
+
+  private Columns columns(Circuit circuit) {
+    Table table;
+
+    try {
+      table = tableSelectionStrategy.selectTable(circuit);
+    } catch (IllegalArgumentException e) {
+      return null;
+    }
+
+    return parsed.computeIfAbsent(table.id(), id -> Columns.parse(table));
+  }
+
+  /**
+   * A parsed table, with its rows sorted by cross-section.
+   */
+  private record Columns(String[] headers, float[] sections, float[][] currents) {
+    private static Columns parse(Table table) {
+      List<CSVRecord> records = table.csvRecords();
+      String[] headers = records.isEmpty() || records.get(0).getParser() == null
+        ? new String[0]
+        : records.get(0).getParser().getHeaderNames().toArray(new String[0]);
+      List<float[]> rows = new ArrayList<>(records.size());
+
+      for (CSVRecord record : records) {
+        float section = parse(record.get(0));
+
+        if (Float.isNaN(section)) {
+          continue;
+        }
+
+        float[] row = new float[headers.length];
+        row[0] = section;
+
+        for (int column = 1; column < row.length; column++) {
+          row[column] = column < record.size() ? parse(record.get(column)) : Float.NaN;
+        }
+
+        rows.add(row);
+      }
+
+      rows.sort((first, second) -> Float.compare(first[0], second[0]));
+
+      float[] sections = new float[rows.size()];
+      float[][] currents = new float[headers.length][rows.size()];
+
+      for (int i = 0; i < sections.length; i++) {
+        sections[i] = rows.get(i)[0];
+
+        for (int column = 1; column < headers.length; column++) {
+          currents[column][i] = rows.get(i)[column];
+        }
+      }
+
+      return new Columns(headers, sections, currents);
+    }
+
+    private static float parse(String value) {
+      try {
+        return Float.parseFloat(value.trim());
+      } catch (NumberFormatException e) {
+        return Float.NaN;
+      }
+    }
+
+    private int column(Circuit circuit) {
+      String loaded = circuit.circuitSystemType() == ElectricalSystem.SystemType.THREE_PHASE
+        ? "3 unipolar"
+        : "2 unipolar";
+      Conductor conductors = circuit.phaseConductors();
+
+      for (int column = 1; column < headers.length; column++) {
+        String header = headers[column].toLowerCase(Locale.ROOT);
+
+        if (header.startsWith(loaded)) {
+          return column;
+        }
+
+        if (conductors != null
+          && header.startsWith(conductors.conductor().name().toLowerCase(Locale.ROOT))
+          && header.contains(conductors.insulator().name().toLowerCase(Locale.ROOT))) {
+          return column;
+        }
+      }
+
+      return -1;
+    }
+
+    private double ampacity(int column, float section) {
+      if (column == -1) {
+        return Double.NaN;
+      }
+
+      int row = Arrays.binarySearch(sections, section);
+      return row < 0 ? Double.NaN : currents[column][row];
+    }
+
+    private float minimumSection(int column, double current) {
+      if (column == -1) {
+        return Float.NaN;
+      }
+
+      for (int row = 0; row < sections.length; row++) {
+        if (currents[column][row] >= current) {
+          return sections[row];
+        }
+      }
+
+      return Float.POSITIVE_INFINITY;
+    }
+  }
+}
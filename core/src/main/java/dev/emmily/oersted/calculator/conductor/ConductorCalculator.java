@@ -1,29 +1,194 @@
 package dev.emmily.oersted.calculator.conductor;
 
 import dev.emmily.oersted.circuit.Circuit;
+import dev.emmily.oersted.circuit.conductor.Conductor;
+import dev.emmily.oersted.installation.columnar.ColumnarCircuitStore;
+import dev.emmily.oersted.jfr.ConductorSizingEvent;
 import dev.emmily.oersted.system.ElectricalSystem;
+import dev.emmily.oersted.system.ElectricalSystemSnapshot;
+
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
 
 public interface ConductorCalculator {
+  /**
+   * Calculates the cross-section required by the voltage drop of every circuit of a batch.
+   * A single snapshot of each electrical system is taken for the whole batch, so the circuits
+   * are sized against a consistent supply even if the systems are edited concurrently.
+   *
+   * @param circuits the circuits to be sized.
+   * @return the required cross-sections (mm²), in the same order as the circuits.
+   */
+  static float[] calculateByVoltageDrop(List<Circuit> circuits) {
+    ConductorSizingEvent event = new ConductorSizingEvent();
+    event.begin();
+    long start = SizingMetrics.LATENCY.start();
+    SizingMetrics.CALLS.increment();
+    SizingMetrics.CIRCUITS.add(circuits.size());
+
+    Map<ElectricalSystem, ElectricalSystemSnapshot> snapshots = new IdentityHashMap<>();
+    float[] crossSections = new float[circuits.size()];
+
+    for (int i = 0; i < crossSections.length; i++) {
+      Circuit circuit = circuits.get(i);
+      Conductor phaseConductors = circuit.phaseConductors();
+      ElectricalSystemSnapshot electricalSystem = snapshots.computeIfAbsent(
+        circuit.electricalSystem(),
+        ElectricalSystem::snapshot
+      );
+
+      crossSections[i] = calculateByVoltageDrop(
+        electricalSystem,
+        circuit,
+        phaseConductors.conductor(),
+        phaseConductors.length()
+      );
+    }
+
+    SizingMetrics.LATENCY.stop(start);
+
+    if (event.shouldCommit()) {
+      event.circuits = circuits.size();
+
+      if (!circuits.isEmpty()) {
+        event.firstCircuit = circuits.get(0).id();
+        event.lastCircuit = circuits.get(circuits.size() - 1).id();
+      }
+
+      event.commit();
+    }
+
+    return crossSections;
+  }
+
+  /**
+   * Calculates the cross-section required by the voltage drop of every circuit of a columnar store, scanning
+   * its columns without materializing any circuit. The voltage and maximum voltage drop of every combination of
+   * electrical system, system type and circuit type are computed once for the whole scan.
+   *
+   * @param store the circuits to be sized.
+   * @return the required cross-sections (mm²), by circuit index, {@link Float#NaN} for the circuits without
+   * phase conductors, electrical system or circuit type.
+   */
+  static float[] calculateByVoltageDrop(ColumnarCircuitStore store) {
+    ConductorSizingEvent event = new ConductorSizingEvent();
+    event.begin();
+    long start = SizingMetrics.LATENCY.start();
+    SizingMetrics.CALLS.increment();
+    SizingMetrics.CIRCUITS.add(store.size());
+
+    List<ElectricalSystem> systems = store.electricalSystems();
+    ElectricalSystem.SystemType[] systemTypes = ElectricalSystem.SystemType.values();
+    Circuit.CircuitType[] circuitTypes = Circuit.CircuitType.values();
+    Conductor.Material[] materials = Conductor.Material.values();
+
+    // voltage × maximum voltage drop, by system, system type and circuit type
+    float[] denominators = new float[systems.size() * systemTypes.length * circuitTypes.length];
+
+    for (int system = 0; system < systems.size(); system++) {
+      ElectricalSystemSnapshot snapshot = systems.get(system).snapshot();
+
+      for (ElectricalSystem.SystemType systemType : systemTypes) {
+        float voltage = (float) snapshot.voltageFor(systemType);
+
+        for (Circuit.CircuitType circuitType : circuitTypes) {
+          denominators[(system * systemTypes.length + systemType.ordinal()) * circuitTypes.length + circuitType.ordinal()] =
+            circuitType.calculateMaxVoltageDrop(voltage) * voltage;
+        }
+      }
+    }
+
+    float[] resistivities = new float[materials.length];
+
+    for (Conductor.Material material : materials) {
+      resistivities[material.ordinal()] = material.resistivity();
+    }
+
+    IntBuffer systemColumn = store.systemColumn();
+    ByteBuffer systemTypeColumn = store.circuitSystemTypeColumn();
+    ByteBuffer circuitTypeColumn = store.circuitTypeColumn();
+    ByteBuffer materialColumn = store.materialColumn(ColumnarCircuitStore.Role.PHASE);
+    FloatBuffer lengthColumn = store.lengthColumn(ColumnarCircuitStore.Role.PHASE);
+    IntBuffer apparentPowerColumn = store.apparentPowerColumn();
+    int singlePhase = ElectricalSystem.SystemType.SINGLE_PHASE.ordinal();
+    float[] crossSections = new float[store.size()];
+
+    for (int i = 0; i < crossSections.length; i++) {
+      int system = systemColumn.get(i);
+      int systemType = systemTypeColumn.get(i);
+      int circuitType = circuitTypeColumn.get(i);
+      int material = materialColumn.get(i);
+
+      if (system == -1 || systemType == -1 || circuitType == -1 || material == -1) {
+        crossSections[i] = Float.NaN;
+        continue;
+      }
+
+      float denominator = denominators[(system * systemTypes.length + systemType) * circuitTypes.length + circuitType];
+      crossSections[i] = (systemType == singlePhase ? 2 : 1) * lengthColumn.get(i) * apparentPowerColumn.get(i)
+        / (resistivities[material] * denominator);
+    }
+
+    SizingMetrics.LATENCY.stop(start);
+
+    if (event.shouldCommit()) {
+      event.circuits = store.size();
+
+      if (store.size() > 0) {
+        event.firstCircuit = store.id(0);
+        event.lastCircuit = store.id(store.size() - 1);
+      }
+
+      event.commit();
+    }
+
+    return crossSections;
+  }
+
   private static float calculateByVoltageDrop(Circuit circuit,
                                               Conductor.Builder builder) {
-    ElectricalSystem electricalSystem = circuit.electricalSystem();
-    float length = builder.length();
-    float voltage = switch (electricalSystem.distributionSystem()) {
-      case IT -> electricalSystem.getLineVoltage();
-      case TT -> switch (circuit.circuitSystemType()) {
-        case SINGLE_PHASE -> electricalSystem.getPhaseVoltage();
-        case THREE_PHASE -> electricalSystem.getLineVoltage();
-      };
-    };
-
-    return switch (electricalSystem.systemType()) {
+    return calculateByVoltageDrop(
+      circuit.electricalSystem().snapshot(),
+      circuit,
+      builder.conductor(),
+      builder.length()
+    );
+  }
+
+  private static float calculateByVoltageDrop(ElectricalSystemSnapshot electricalSystem,
+                                              Circuit circuit,
+                                              Conductor.Material conductor,
+                                              float length) {
+    float voltage = (float) electricalSystem.voltageFor(circuit.circuitSystemType());
+
+    return switch (circuit.circuitSystemType()) {
       case SINGLE_PHASE -> 2 * length * circuit.apparentPower();
       case THREE_PHASE -> length * circuit.apparentPower();
-    } / (builder.conductor().resistivity() * circuit.circuitType().calculateMaxVoltageDrop(voltage) * voltage);
+    } / (conductor.resistivity() * circuit.circuitType().calculateMaxVoltageDrop(voltage) * voltage);
   }
 
-  private static float calculateByAdmissibleCurrent(Circuit circuit,
-                                                    Conductor.Builder builder) {
-    return 0f; // must be defined based on UTE's tables
+  /**
+   * Calculates the smallest cross-section listed in UTE's tables whose ampacity carries the design current
+   * of every circuit of a batch.
+   *
+   * @param circuits       the circuits to be sized.
+   * @param ampacityTables the tables giving the ampacity of the conductors.
+   * @return the required cross-sections (mm²), in the same order as the circuits, {@link Float#NaN} for the
+   * circuits no table applies to and {@link Float#POSITIVE_INFINITY} for the ones whose design current exceeds
+   * the table.
+   */
+  static float[] calculateByAdmissibleCurrent(List<Circuit> circuits, AmpacityTables ampacityTables) {
+    float[] crossSections = new float[circuits.size()];
+    List<ConductorSizing> sizings = ConductorSizer.create(ampacityTables).size(circuits);
+
+    for (int i = 0; i < crossSections.length; i++) {
+      crossSections[i] = sizings.get(i).byAmpacity();
+    }
+
+    return crossSections;
   }
 }
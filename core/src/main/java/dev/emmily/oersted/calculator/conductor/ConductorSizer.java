@@ -0,0 +1,171 @@
+package dev.emmily.oersted.calculator.conductor;
+
+import dev.emmily.oersted.circuit.Circuit;
+import dev.emmily.oersted.circuit.conductor.Conductor;
+import dev.emmily.oersted.hierarchy.HierarchicalTree;
+import dev.emmily.oersted.installation.ElectricalInstallation;
+import dev.emmily.oersted.system.ElectricalSystem;
+import dev.emmily.oersted.system.ElectricalSystemSnapshot;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.ToIntFunction;
+
+/**
+ * Selects the commercial cross-sections of the phase, neutral and protective earth conductors of circuits
+ * in a single pass.
+ * <p>
+ * The phase cross-section is the larger of the one required by the voltage drop and the smallest one whose
+ * ampacity carries the design current, snapped up to the next commercial cross-section with a binary search.
+ * The neutral and earth conductors are derived from it following IEC 60364-5-52 and 60364-5-54:
+ * <ul>
+ *   <li>Neutral: the phase cross-section in single-phase circuits and up to 16 mm² (copper) or
+ *   25 mm² (aluminium), half of it but no less than those minimums above.</li>
+ *   <li>Earth: the phase cross-section up to 16 mm², 16 mm² up to 35 mm², and half of it above.</li>
+ * </ul>
+ */
+public class ConductorSizer {
+  private static final float[] COMMERCIAL_SECTIONS = {
+    0.75f, 1, 1.5f, 2.5f, 4, 6, 10, 16, 25, 35, 50, 70, 95, 120, 150, 185, 240, 300, 400
+  };
+
+  /**
+   * Creates a sizer that only takes the voltage drop into account.
+   */
+  public static ConductorSizer create() {
+    return create(null);
+  }
+
+  /**
+   * @param ampacityTables the tables giving the ampacity of the conductors, or {@code null} to only take the
+   *                       voltage drop into account.
+   */
+  public static ConductorSizer create(AmpacityTables ampacityTables) {
+    return new ConductorSizer(ampacityTables);
+  }
+
+  /**
+   * Snaps a cross-section up to the next commercial one.
+   *
+   * @param crossSection the required cross-section (mm²).
+   * @return the smallest commercial cross-section greater than or equal to the given one, or
+   * {@link Float#NaN} if it exceeds the largest one.
+   */
+  public static float standardSection(float crossSection) {
+    int index = Arrays.binarySearch(COMMERCIAL_SECTIONS, crossSection);
+
+    if (index < 0) {
+      index = -index - 1;
+    }
+
+    return index < COMMERCIAL_SECTIONS.length ? COMMERCIAL_SECTIONS[index] : Float.NaN;
+  }
+
+  /**
+   * @return a copy of the commercial cross-sections (mm²), in ascending order.
+   */
+  public static float[] commercialSections() {
+    return COMMERCIAL_SECTIONS.clone();
+  }
+
+  private final AmpacityTables ampacityTables;
+
+  private ConductorSizer(AmpacityTables ampacityTables) {
+    this.ampacityTables = ampacityTables;
+  }
+
+  public ConductorSizing size(Circuit circuit) {
+    return size(List.of(circuit)).get(0);
+  }
+
+  /**
+   * Sizes a batch of circuits by their apparent power.
+   *
+   * @param circuits the circuits to be sized.
+   * @return the sizing of every circuit, in the same order.
+   */
+  public List<ConductorSizing> size(List<Circuit> circuits) {
+    return size(circuits, Circuit::apparentPower);
+  }
+
+  /**
+   * Sizes a batch of circuits. A single snapshot of each electrical system is taken for the whole batch.
+   *
+   * @param circuits the circuits to be sized.
+   * @param load     the apparent power (VA) each circuit must be sized for, e.g. its diversified demand.
+   * @return the sizing of every circuit, in the same order.
+   */
+  public List<ConductorSizing> size(List<Circuit> circuits, ToIntFunction<Circuit> load) {
+    Map<ElectricalSystem, ElectricalSystemSnapshot> snapshots = new IdentityHashMap<>();
+    List<ConductorSizing> sizings = new ArrayList<>(circuits.size());
+
+    for (Circuit circuit : circuits) {
+      if (circuit.electricalSystem() == null) {
+        throw new IllegalArgumentException("the circuit " + circuit.id() + " has no electrical system");
+      }
+
+      ElectricalSystemSnapshot system = snapshots.computeIfAbsent(circuit.electricalSystem(), ElectricalSystem::snapshot);
+      sizings.add(size(circuit, system, load.applyAsInt(circuit)));
+    }
+
+    return sizings;
+  }
+
+  /**
+   * Sizes every circuit of an installation, with the circuits of each distribution board sized as a batch
+   * and boards sized in parallel.
+   *
+   * @param installation the installation to be sized.
+   * @param load         the apparent power (VA) each circuit must be sized for.
+   * @return the sizing of every circuit, keyed by circuit id.
+   */
+  public Map<String, ConductorSizing> size(ElectricalInstallation installation, ToIntFunction<Circuit> load) {
+    Map<String, List<Circuit>> boards = new HierarchicalTree<>(installation.circuitTree()).groupByParent();
+    Map<String, ConductorSizing> sizings = new ConcurrentHashMap<>(installation.circuitTree().size() * 2);
+
+    boards.values().parallelStream().forEach(circuits -> {
+      for (ConductorSizing sizing : size(circuits, load)) {
+        sizings.put(sizing.circuit(), sizing);
+      }
+    });
+
+    return sizings;
+  }
+
+  private ConductorSizing size(Circuit circuit, ElectricalSystemSnapshot system, int load) {
+    Conductor conductors = circuit.phaseConductors();
+
+    if (conductors == null) {
+      throw new IllegalArgumentException(
+        "the circuit " + circuit.id() + " has no phase conductors to take the material and length from"
+      );
+    }
+
+    boolean threePhase = circuit.circuitSystemType() == ElectricalSystem.SystemType.THREE_PHASE;
+    double voltage = system.voltageFor(circuit.circuitSystemType());
+    float designCurrent = (float) (threePhase ? load / (ElectricalSystem.SQRT_3 * voltage) : load / voltage);
+    float byVoltageDrop = (float) ((threePhase ? 1 : 2) * conductors.length() * load
+      / (conductors.conductor().resistivity() * circuit.circuitType().calculateMaxVoltageDrop((float) voltage) * voltage));
+    float byAmpacity = ampacityTables == null ? Float.NaN : ampacityTables.minimumSection(circuit, designCurrent);
+
+    float phase = Float.isInfinite(byAmpacity)
+      ? Float.NaN
+      : standardSection(Float.isNaN(byAmpacity) ? byVoltageDrop : Math.max(byVoltageDrop, byAmpacity));
+
+    if (Float.isNaN(phase)) {
+      return new ConductorSizing(circuit.id(), designCurrent, byVoltageDrop, byAmpacity, phase, phase, phase);
+    }
+
+    float minimumNeutral = conductors.conductor() == Conductor.Material.ALUMINUM ? 25 : 16;
+    float neutral = !threePhase || phase <= minimumNeutral
+      ? phase
+      : Math.max(standardSection(phase / 2), minimumNeutral);
+    float earth = phase <= 16 ? phase : phase <= 35 ? 16 : standardSection(phase / 2);
+
+    return new ConductorSizing(circuit.id(), designCurrent, byVoltageDrop, byAmpacity, phase, neutral, earth);
+  }
+}
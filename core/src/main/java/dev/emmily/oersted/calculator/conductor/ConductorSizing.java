@@ -0,0 +1,71 @@
+package dev.emmily.oersted.calculator.conductor;
+
+import dev.emmily.oersted.circuit.Circuit;
+import dev.emmily.oersted.circuit.conductor.Conductor;
+
+/**
+ * The commercial cross-sections selected for the conductors of a circuit.
+ *
+ * @param circuit       the identifier of the circuit.
+ * @param designCurrent the design current of the circuit (A).
+ * @param byVoltageDrop the raw cross-section required by the voltage drop (mm²).
+ * @param byAmpacity    the smallest listed cross-section carrying the design current (mm²),
+ *                      {@link Float#NaN} if the ampacity is unknown, or {@link Float#POSITIVE_INFINITY} if the
+ *                      design current exceeds the table, in which case the sizing is not feasible.
+ * @param phase         the commercial cross-section of the phase conductors (mm²), or {@link Float#NaN}
+ *                      if the requirement exceeds the largest commercial cross-section or the ampacity table.
+ * @param neutral       the commercial cross-section of the neutral conductor (mm²).
+ * @param earth         the commercial cross-section of the protective earth conductor (mm²).
+ */
+public record ConductorSizing(String circuit,
+                              float designCurrent,
+                              float byVoltageDrop,
+                              float byAmpacity,
+                              float phase,
+                              float neutral,
+                              float earth) {
+  /**
+   * Tells whether a commercial cross-section satisfies the requirements.
+   */
+  public boolean feasible() {
+    return !Float.isNaN(phase);
+  }
+
+  /**
+   * Returns a copy of the circuit with the selected cross-sections. The material, insulator and length of the
+   * conductors are taken from its current conductors, falling back to the phase conductors.
+   *
+   * @param circuit the sized circuit.
+   * @return the circuit with the selected conductors.
+   * @throws IllegalArgumentException if the requirements can't be met by a commercial cross-section.
+   */
+  public Circuit applyTo(Circuit circuit) {
+    if (!feasible()) {
+      throw new IllegalArgumentException(
+        "the circuit " + circuit.id() + " requires more than the largest commercial cross-section"
+      );
+    }
+
+    Conductor template = circuit.phaseConductors();
+
+    return new Circuit(
+      circuit.id(),
+      circuit.parent(),
+      circuit.description(),
+      circuit.circuitBreakerTree(),
+      circuit.conduit(),
+      resize(template, template, phase),
+      resize(circuit.neutralConductor(), template, neutral),
+      resize(circuit.earthConductor(), template, earth),
+      circuit.circuitType(),
+      circuit.electricalSystem(),
+      circuit.circuitSystemType(),
+      circuit.apparentPower()
+    );
+  }
+
+  private static Conductor resize(Conductor conductor, Conductor template, float crossSection) {
+    Conductor source = conductor == null ? template : conductor;
+    return new Conductor(source.conductor(), source.insulator(), source.length(), crossSection).intern();
+  }
+}
@@ -0,0 +1,17 @@
+package dev.emmily.oersted.calculator.conductor;
+
+import dev.emmily.oersted.metrics.Counter;
+import dev.emmily.oersted.metrics.LatencyHistogram;
+import dev.emmily.oersted.metrics.Metrics;
+
+/**
+ * Metrics of the conductor sizing calls, kept apart since interfaces can't hold private constants.
+ */
+final class SizingMetrics {
+  static final Counter CALLS = Metrics.global().counter("sizing.calls");
+  static final Counter CIRCUITS = Metrics.global().counter("sizing.circuits");
+  static final LatencyHistogram LATENCY = Metrics.global().histogram("sizing.latency");
+
+  private SizingMetrics() {
+  }
+}
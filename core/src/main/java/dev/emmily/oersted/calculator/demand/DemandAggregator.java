@@ -0,0 +1,130 @@
+package dev.emmily.oersted.calculator.demand;
+
+import dev.emmily.oersted.circuit.Circuit;
+import dev.emmily.oersted.installation.ElectricalInstallation;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Aggregates the demand of an installation from its final circuits up to its main supply lines.
+ * <p>
+ * The demand of a final circuit, one that supplies no other circuit, is its apparent power times the demand
+ * factor of its {@link Circuit.CircuitType}. The demand of a distribution board is the combined demand of the
+ * circuits it supplies times the diversity factor of the board, so the apparent power recorded on boards is
+ * ignored. Diversity factors are given by a {@link DiversityRule}, which can be overridden for single levels
+ * of the installation.
+ * <p>
+ * Aggregators are immutable; the aggregated {@link DemandProfile} can be updated incrementally as the
+ * installation is edited.
+ */
+public class DemandAggregator {
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /**
+   * Creates an aggregator with a demand factor of 1 for every circuit type and the diversity factors of
+   * {@link DiversityRule#iec61439()}.
+   */
+  public static DemandAggregator create() {
+    return builder().build();
+  }
+
+  private final double[] demandFactors;
+  private final DiversityRule diversity;
+  private final double[] levelDiversity;
+
+  private DemandAggregator(Builder builder) {
+    this.demandFactors = new double[Circuit.CircuitType.values().length];
+
+    for (Circuit.CircuitType type : Circuit.CircuitType.values()) {
+      demandFactors[type.ordinal()] = builder.demandFactors.getOrDefault(type, 1d);
+    }
+
+    this.diversity = builder.diversity;
+
+    int levels = builder.levelDiversity.keySet().stream().mapToInt(Integer::intValue).max().orElse(-1) + 1;
+    this.levelDiversity = new double[levels];
+    Arrays.fill(levelDiversity, Double.NaN);
+    builder.levelDiversity.forEach((level, factor) -> levelDiversity[level] = factor);
+  }
+
+  /**
+   * Aggregates the demand of every circuit of an installation in a single bottom-up pass.
+   *
+   * @param installation the installation to be aggregated.
+   * @return the demand profile of the installation.
+   * @throws IllegalArgumentException if the circuits of the installation form a cycle.
+   */
+  public DemandProfile aggregate(ElectricalInstallation installation) {
+    return new DemandProfile(this, installation);
+  }
+
+  double demandFactor(Circuit.CircuitType type) {
+    return type == null ? 1 : demandFactors[type.ordinal()];
+  }
+
+  double diversityFactor(int level, int outgoingCircuits) {
+    if (level < levelDiversity.length && !Double.isNaN(levelDiversity[level])) {
+      return levelDiversity[level];
+    }
+
+    return diversity.factor(level, outgoingCircuits);
+  }
+
+  public static class Builder {
+    private final Map<Circuit.CircuitType, Double> demandFactors = new EnumMap<>(Circuit.CircuitType.class);
+    private final Map<Integer, Double> levelDiversity = new HashMap<>();
+    private DiversityRule diversity = DiversityRule.iec61439();
+
+    private Builder() {
+    }
+
+    /**
+     * @param type   the type of the final circuits.
+     * @param factor the fraction of their apparent power they are expected to draw, 1 by default.
+     */
+    public Builder demandFactor(Circuit.CircuitType type, double factor) {
+      checkFactor(factor);
+      demandFactors.put(type, factor);
+      return this;
+    }
+
+    /**
+     * @param diversity the diversity factor of every board, {@link DiversityRule#iec61439()} by default.
+     */
+    public Builder diversity(DiversityRule diversity) {
+      this.diversity = diversity;
+      return this;
+    }
+
+    /**
+     * Fixes the diversity factor of the boards of a level, regardless of the {@link DiversityRule}.
+     *
+     * @param level  the level of the boards, 0 for the circuits at the root of the installation.
+     * @param factor the diversity factor.
+     */
+    public Builder diversity(int level, double factor) {
+      if (level < 0) {
+        throw new IllegalArgumentException("the level must not be negative");
+      }
+
+      checkFactor(factor);
+      levelDiversity.put(level, factor);
+      return this;
+    }
+
+    public DemandAggregator build() {
+      return new DemandAggregator(this);
+    }
+
+    private static void checkFactor(double factor) {
+      if (!(factor >= 0 && factor <= 1)) {
+        throw new IllegalArgumentException("the factor must be between 0 and 1");
+      }
+    }
+  }
+}
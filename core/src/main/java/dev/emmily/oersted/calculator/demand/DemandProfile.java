@@ -0,0 +1,342 @@
+package dev.emmily.oersted.calculator.demand;
+
+import dev.emmily.oersted.circuit.Circuit;
+import dev.emmily.oersted.hierarchy.Hierarchical;
+import dev.emmily.oersted.installation.ElectricalInstallation;
+import dev.emmily.oersted.system.ElectricalSystem;
+import dev.emmily.oersted.system.ElectricalSystemSnapshot;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.function.ToIntFunction;
+
+/**
+ * The demand and design current of every circuit of an installation, as aggregated by a
+ * {@link DemandAggregator}.
+ * <p>
+ * Every circuit keeps the combined demand of the circuits it supplies, so editing a circuit only updates the
+ * demand of its ancestors, in O(depth). The demand feeds the sizing of conductors and protection devices
+ * through {@link #load()}:
+ * <pre>{@code
+ * DemandProfile profile = DemandAggregator.create().aggregate(installation);
+ * sizer.size(installation, profile.load());
+ * BreakerSelector.builder(catalog).load(profile.load()).build().assign(installation);
+ * }</pre>
+ * Electrical systems are snapshotted when a circuit is aggregated, and profiles aren't thread-safe.
+ */
+public class DemandProfile {
+  private static final int ROOT = -1;
+
+  private final DemandAggregator aggregator;
+  private final ElectricalSystem supplyingSystem;
+  private final Map<ElectricalSystem, ElectricalSystemSnapshot> snapshots = new IdentityHashMap<>();
+  private final Map<String, Integer> index;
+
+  private String[] ids;
+  private int[] parents;
+  private int[] levels;
+  private int[] children;
+  private double[] ownDemand;
+  private double[] childDemand;
+  private double[] demand;
+  private double[] amperesPerVoltAmpere;
+  private int[] free = new int[16];
+  private int freeCount;
+  private int slots;
+
+  DemandProfile(DemandAggregator aggregator, ElectricalInstallation installation) {
+    this.aggregator = aggregator;
+    this.supplyingSystem = installation.supplyingSystem();
+
+    Map<String, Circuit> circuits = installation.circuitTree();
+    int size = circuits.size();
+
+    this.index = new HashMap<>(Math.max(16, (int) (size / 0.75f) + 1));
+    allocate(Math.max(16, size));
+
+    Circuit[] bySlot = new Circuit[size];
+
+    for (Circuit circuit : circuits.values()) {
+      bySlot[slots] = circuit;
+      ids[slots] = circuit.id();
+      index.put(circuit.id(), slots++);
+    }
+
+    // children are laid out contiguously per parent to walk the tree top-down and get the levels
+    int[] offsets = new int[size + 1];
+
+    for (int slot = 0; slot < size; slot++) {
+      Integer parent = index.get(bySlot[slot].parent());
+      parents[slot] = parent == null || bySlot[slot].parent().equals(Hierarchical.PARENT) ? ROOT : parent;
+      set(slot, bySlot[slot]);
+
+      if (parents[slot] != ROOT) {
+        children[parents[slot]]++;
+        offsets[parents[slot] + 1]++;
+      }
+    }
+
+    for (int slot = 0; slot < size; slot++) {
+      offsets[slot + 1] += offsets[slot];
+    }
+
+    int[] fill = Arrays.copyOf(offsets, size);
+    int[] childSlots = new int[offsets[size]];
+    int[] order = new int[size];
+    int ordered = 0;
+
+    for (int slot = 0; slot < size; slot++) {
+      if (parents[slot] == ROOT) {
+        order[ordered++] = slot;
+      } else {
+        childSlots[fill[parents[slot]]++] = slot;
+      }
+    }
+
+    for (int next = 0; next < ordered; next++) {
+      int slot = order[next];
+
+      for (int child = offsets[slot]; child < offsets[slot + 1]; child++) {
+        levels[childSlots[child]] = levels[slot] + 1;
+        order[ordered++] = childSlots[child];
+      }
+    }
+
+    if (ordered < size) {
+      for (int slot = 0; slot < size; slot++) {
+        if (levels[slot] == 0 && parents[slot] != ROOT) {
+          throw new IllegalArgumentException("the circuit " + ids[slot] + " is part of a cycle");
+        }
+      }
+    }
+
+    // children come after their parents, so walking the order backwards aggregates the tree bottom-up
+    for (int next = size - 1; next >= 0; next--) {
+      int slot = order[next];
+      demand[slot] = aggregate(slot);
+
+      if (parents[slot] != ROOT) {
+        childDemand[parents[slot]] += demand[slot];
+      }
+    }
+  }
+
+  /**
+   * @return the amount of aggregated circuits.
+   */
+  public int size() {
+    return index.size();
+  }
+
+  /**
+   * Returns the demand of a circuit.
+   *
+   * @param id the id of the circuit.
+   * @return the demand (VA).
+   * @throws IllegalArgumentException if the circuit isn't part of the profile.
+   */
+  public double demand(String id) {
+    return demand[slot(id)];
+  }
+
+  /**
+   * Returns the design current of a circuit, the current its demand draws at the voltage of its system.
+   *
+   * @param id the id of the circuit.
+   * @return the design current (A).
+   * @throws IllegalArgumentException if the circuit isn't part of the profile.
+   */
+  public double designCurrent(String id) {
+    int slot = slot(id);
+    return demand[slot] * amperesPerVoltAmpere[slot];
+  }
+
+  /**
+   * Returns the demand of the circuits as a load function for conductor and breaker sizing, rounded up to the
+   * next volt-ampere. The function reads the profile as it is when it's applied.
+   *
+   * @return the load function.
+   */
+  public ToIntFunction<Circuit> load() {
+    return circuit -> (int) Math.min(Integer.MAX_VALUE, Math.ceil(demand(circuit.id())));
+  }
+
+  /**
+   * Adds a circuit, updating the demand of its ancestors.
+   *
+   * @param circuit the circuit to be added.
+   * @throws IllegalArgumentException if the circuit is already part of the profile, or if its parent isn't.
+   */
+  public void add(Circuit circuit) {
+    if (index.containsKey(circuit.id())) {
+      throw new IllegalArgumentException("the element " + circuit.id() + " is already part of the tree.");
+    }
+
+    int parent = ROOT;
+
+    if (!Hierarchical.PARENT.equals(circuit.parent())) {
+      parent = slot(circuit.parent());
+    }
+
+    int slot = freeCount > 0 ? free[--freeCount] : nextSlot();
+
+    ids[slot] = circuit.id();
+    parents[slot] = parent;
+    levels[slot] = parent == ROOT ? 0 : levels[parent] + 1;
+    children[slot] = 0;
+    childDemand[slot] = 0;
+    set(slot, circuit);
+    demand[slot] = aggregate(slot);
+    index.put(circuit.id(), slot);
+
+    if (parent != ROOT) {
+      children[parent]++;
+      childDemand[parent] += demand[slot];
+      propagate(parent, aggregate(parent));
+    }
+  }
+
+  /**
+   * Updates the demand of a circuit and its ancestors after the circuit was edited.
+   *
+   * @param circuit the new state of the circuit.
+   * @throws IllegalArgumentException if the circuit isn't part of the profile, or if it was moved to another
+   *                                  parent while supplying other circuits or to a parent that isn't part of
+   *                                  the profile.
+   */
+  public void update(Circuit circuit) {
+    int slot = slot(circuit.id());
+    Integer parent = index.get(circuit.parent());
+
+    if ((parent == null ? ROOT : parent) != parents[slot]) {
+      if (children[slot] > 0) {
+        throw new IllegalArgumentException(
+          "the circuit " + circuit.id() + " supplies other circuits, aggregate the installation again to move it"
+        );
+      }
+
+      // checked before the circuit is removed, so a rejected move leaves the profile untouched
+      if (!Hierarchical.PARENT.equals(circuit.parent()) && (parent == null || parent == slot)) {
+        throw new IllegalArgumentException("the element " + circuit.parent() + " is not part of the tree.");
+      }
+
+      remove(circuit.id());
+      add(circuit);
+      return;
+    }
+
+    set(slot, circuit);
+    propagate(slot, aggregate(slot));
+  }
+
+  /**
+   * Removes a circuit, updating the demand of its ancestors.
+   *
+   * @param id the id of the circuit to be removed.
+   * @throws IllegalArgumentException if the circuit isn't part of the profile, or if it supplies other circuits.
+   */
+  public void remove(String id) {
+    int slot = slot(id);
+
+    if (children[slot] > 0) {
+      throw new IllegalArgumentException("the circuit " + id + " still supplies " + children[slot] + " circuits");
+    }
+
+    int parent = parents[slot];
+
+    index.remove(id);
+    ids[slot] = null;
+
+    if (freeCount == free.length) {
+      free = Arrays.copyOf(free, freeCount * 2);
+    }
+
+    free[freeCount++] = slot;
+
+    if (parent != ROOT) {
+      children[parent]--;
+      childDemand[parent] -= demand[slot];
+      propagate(parent, aggregate(parent));
+    }
+  }
+
+  /**
+   * Sets the demand of a circuit and moves the difference up its ancestors, stopping as soon as the demand
+   * of a circuit doesn't change.
+   */
+  private void propagate(int slot, double newDemand) {
+    while (true) {
+      double delta = newDemand - demand[slot];
+      demand[slot] = newDemand;
+      int parent = parents[slot];
+
+      if (parent == ROOT || delta == 0) {
+        return;
+      }
+
+      childDemand[parent] += delta;
+      slot = parent;
+      newDemand = aggregate(parent);
+    }
+  }
+
+  private double aggregate(int slot) {
+    return children[slot] == 0
+      ? ownDemand[slot]
+      : aggregator.diversityFactor(levels[slot], children[slot]) * childDemand[slot];
+  }
+
+  private void set(int slot, Circuit circuit) {
+    ElectricalSystem system = circuit.electricalSystem() == null ? supplyingSystem : circuit.electricalSystem();
+    ElectricalSystemSnapshot snapshot = snapshots.computeIfAbsent(system, ElectricalSystem::snapshot);
+    double voltage = snapshot.voltageFor(circuit.circuitSystemType());
+
+    ownDemand[slot] = circuit.apparentPower() * aggregator.demandFactor(circuit.circuitType());
+    amperesPerVoltAmpere[slot] = circuit.circuitSystemType() == ElectricalSystem.SystemType.THREE_PHASE
+      ? 1 / (ElectricalSystem.SQRT_3 * voltage)
+      : 1 / voltage;
+  }
+
+  private int slot(String id) {
+    Integer slot = index.get(id);
+
+    if (slot == null) {
+      throw new IllegalArgumentException("the element " + id + " is not part of the tree.");
+    }
+
+    return slot;
+  }
+
+  private int nextSlot() {
+    if (slots == ids.length) {
+      allocate(slots * 2);
+    }
+
+    return slots++;
+  }
+
+  private void allocate(int capacity) {
+    if (ids == null) {
+      ids = new String[capacity];
+      parents = new int[capacity];
+      levels = new int[capacity];
+      children = new int[capacity];
+      ownDemand = new double[capacity];
+      childDemand = new double[capacity];
+      demand = new double[capacity];
+      amperesPerVoltAmpere = new double[capacity];
+      return;
+    }
+
+    ids = Arrays.copyOf(ids, capacity);
+    parents = Arrays.copyOf(parents, capacity);
+    levels = Arrays.copyOf(levels, capacity);
+    children = Arrays.copyOf(children, capacity);
+    ownDemand = Arrays.copyOf(ownDemand, capacity);
+    childDemand = Arrays.copyOf(childDemand, capacity);
+    demand = Arrays.copyOf(demand, capacity);
+    amperesPerVoltAmpere = Arrays.copyOf(amperesPerVoltAmpere, capacity);
+  }
+}
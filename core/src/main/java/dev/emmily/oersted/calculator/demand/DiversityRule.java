@@ -0,0 +1,44 @@
+package dev.emmily.oersted.calculator.demand;
+
+/**
+ * Gives the diversity factor applied to the demand of the circuits supplied by a distribution board, that is,
+ * the fraction of their combined demand expected to be drawn at the same time.
+ */
+@FunctionalInterface
+public interface DiversityRule {
+  /**
+   * The rated diversity factors of IEC 61439-1 by amount of outgoing circuits: 0.9 for 2 or 3, 0.8 for 4 or 5,
+   * 0.7 from 6 to 9 and 0.6 from 10 on.
+   */
+  static DiversityRule iec61439() {
+    return (level, outgoingCircuits) -> {
+      if (outgoingCircuits <= 1) {
+        return 1;
+      } else if (outgoingCircuits <= 3) {
+        return 0.9;
+      } else if (outgoingCircuits <= 5) {
+        return 0.8;
+      } else if (outgoingCircuits <= 9) {
+        return 0.7;
+      }
+
+      return 0.6;
+    };
+  }
+
+  /**
+   * A rule that applies no diversity, so boards demand the sum of their circuits.
+   */
+  static DiversityRule none() {
+    return (level, outgoingCircuits) -> 1;
+  }
+
+  /**
+   * Returns the diversity factor of a board.
+   *
+   * @param level            the level of the board, 0 for the circuits at the root of the installation.
+   * @param outgoingCircuits the amount of circuits supplied by the board.
+   * @return the diversity factor, between 0 and 1.
+   */
+  double factor(int level, int outgoingCircuits);
+}
@@ -1,5 +1,6 @@
 package dev.emmily.oersted.circuit;
 
+import dev.emmily.oersted.calculator.conductor.ConductorSizer;
 import dev.emmily.oersted.circuit.conductor.Conductor;
 import dev.emmily.oersted.circuit.conduit.Conduit;
 import dev.emmily.oersted.circuit.protection.CircuitBreaker;
@@ -190,10 +191,24 @@ public record Circuit(String id,
       return this;
     }
 
+    /**
+     * Sizes the phase, neutral and earth conductors by voltage drop. The phase conductors must be set
+     * beforehand, their material, insulator and length are kept.
+     */
     public Builder autoCalculateConductors() {
-      this.phaseConductors = ConductorCalculator.calculatePhaseConductors(this.apparentPower, this.type);
-      this.neutralConductor = ConductorCalculator.calculateNeutralConductor(this.apparentPower, this.type);
-      this.earthConductor = ConductorCalculator.calculateEarthConductor(this.apparentPower, this.type);
+      return autoCalculateConductors(ConductorSizer.create());
+    }
+
+    /**
+     * Sizes the phase, neutral and earth conductors with the given sizer. The phase conductors must be set
+     * beforehand, their material, insulator and length are kept.
+     */
+    public Builder autoCalculateConductors(ConductorSizer sizer) {
+      Circuit circuit = build();
+      Circuit sized = sizer.size(circuit).applyTo(circuit);
+      this.phaseConductors = sized.phaseConductors();
+      this.neutralConductor = sized.neutralConductor();
+      this.earthConductor = sized.earthConductor();
       return this;
     }
 
@@ -203,10 +218,10 @@ public record Circuit(String id,
         this.parent,
         this.description,
         this.circuitBreakerTree,
-        this.conduit,
-        this.phaseConductors,
-        this.neutralConductor,
-        this.earthConductor,
+        this.conduit == null ? null : this.conduit.intern(),
+        this.phaseConductors == null ? null : this.phaseConductors.intern(),
+        this.neutralConductor == null ? null : this.neutralConductor.intern(),
+        this.earthConductor == null ? null : this.earthConductor.intern(),
         this.type,
         this.electricalSystem,
         this.circuitSystemType,
@@ -1,4 +0,0 @@
-package dev.emmily.oersted.circuit.conductor;
-
-public class CompoundConductor extends Conductor {
-}
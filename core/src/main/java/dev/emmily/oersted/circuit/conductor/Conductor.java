@@ -1,26 +1,40 @@
 package dev.emmily.oersted.circuit.conductor;
 
+import dev.emmily.oersted.intern.Interner;
+
 public record Conductor(Material conductor,
                         Material insulator,
                         float length,
                         float crossSection) {
+  private static final Interner<Conductor> INTERNER = Interner.weak();
+
   public static Builder builder() {
     return new Builder();
   }
   public static Conductor aluminumAndPVC(float length, float crossSection) {
-    return new Conductor(Material.ALUMINUM, Material.PVC, length, crossSection);
+    return new Conductor(Material.ALUMINUM, Material.PVC, length, crossSection).intern();
   }
 
   public static Conductor aluminumAndXLPE(float length, float crossSection) {
-    return new Conductor(Material.ALUMINUM, Material.XLPE, length, crossSection);
+    return new Conductor(Material.ALUMINUM, Material.XLPE, length, crossSection).intern();
   }
 
   public static Conductor copperAndPVC(float length, float crossSection) {
-    return new Conductor(Material.COPPER, Material.PVC, length, crossSection);
+    return new Conductor(Material.COPPER, Material.PVC, length, crossSection).intern();
   }
 
   public static Conductor copperAndXLPE(float length, float crossSection) {
-    return new Conductor(Material.COPPER, Material.XLPE, length, crossSection);
+    return new Conductor(Material.COPPER, Material.XLPE, length, crossSection).intern();
+  }
+
+  /**
+   * Returns the shared instance equal to this conductor.
+   *
+   * @return the canonical instance of this conductor.
+   * @see Interner
+   */
+  public Conductor intern() {
+    return INTERNER.intern(this);
   }
 
   public enum Material {
@@ -87,7 +101,7 @@ public record Conductor(Material conductor,
 
 
     public Conductor build() {
-      return new Conductor(conductor, insulator, length, crossSection);
+      return new Conductor(conductor, insulator, length, crossSection).intern();
     }
   }
 
@@ -1,11 +1,31 @@
 package dev.emmily.oersted.circuit.conduit;
 
+import dev.emmily.oersted.intern.Interner;
+
 public record Conduit(Material material,
                       Type type,
                       double diameter) {
-  public static final Conduit AIR = new Conduit(null, null, Long.MAX_VALUE);
-  public static final Conduit CORRUGATED_PIPE_20MM = new Conduit(Material.PVC, Type.CORRUGATED_PIPE, 20);
-  public static final Conduit CORRUGATED_PIPE_40MM = new Conduit(Material.PVC, Type.CORRUGATED_PIPE, 40);
+  private static final Interner<Conduit> INTERNER = Interner.weak();
+
+  public static final Conduit AIR = create(null, null, Long.MAX_VALUE);
+  public static final Conduit CORRUGATED_PIPE_20MM = create(Material.PVC, Type.CORRUGATED_PIPE, 20);
+  public static final Conduit CORRUGATED_PIPE_40MM = create(Material.PVC, Type.CORRUGATED_PIPE, 40);
+
+  public static Conduit create(Material material,
+                               Type type,
+                               double diameter) {
+    return new Conduit(material, type, diameter).intern();
+  }
+
+  /**
+   * Returns the shared instance equal to this conduit.
+   *
+   * @return the canonical instance of this conduit.
+   * @see Interner
+   */
+  public Conduit intern() {
+    return INTERNER.intern(this);
+  }
 
   public double getUsableSpace() {
     return Math.PI * Math.pow((diameter / 2), 2);
@@ -21,6 +41,7 @@ public record Conduit(Material material,
   public enum Type {
     OUTDOOR,
     OUTDOOR_UNDER_ROOF,
-    PIPE;
+    PIPE,
+    CORRUGATED_PIPE;
   }
 }
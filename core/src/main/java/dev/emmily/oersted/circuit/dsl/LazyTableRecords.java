@@ -0,0 +1,72 @@
+package dev.emmily.oersted.circuit.dsl;
+
+import org.apache.commons.csv.CSVRecord;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.AbstractList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * The records of a table indexed by {@link TableLoader#indexTables()}, parsed from the source file on first
+ * access. Concurrent first accesses parse the file once, and a failed parse is retried on the next access.
+ */
+final class LazyTableRecords extends AbstractList<CSVRecord> {
+  private final String id;
+  private final File source;
+  private volatile List<CSVRecord> records;
+
+  LazyTableRecords(String id, File source) {
+    this.id = id;
+    this.source = source;
+  }
+
+  /**
+   * Parses the records if they haven't been parsed yet.
+   *
+   * @return the parsed records.
+   * @throws UncheckedIOException if the source file can't be parsed.
+   */
+  List<CSVRecord> load() {
+    List<CSVRecord> loaded = records;
+
+    if (loaded == null) {
+      synchronized (this) {
+        loaded = records;
+
+        if (loaded == null) {
+          try {
+            loaded = TableLoader.parseRecords(id, source);
+          } catch (IOException e) {
+            throw new UncheckedIOException("couldn't load the table " + id, e);
+          }
+
+          records = loaded;
+        }
+      }
+    }
+
+    return loaded;
+  }
+
+  boolean isLoaded() {
+    return records != null;
+  }
+
+  @Override
+  public CSVRecord get(int index) {
+    return load().get(index);
+  }
+
+  @Override
+  public int size() {
+    return load().size();
+  }
+
+  @Override
+  public Iterator<CSVRecord> iterator() {
+    return load().iterator();
+  }
+}
@@ -1,15 +1,16 @@
 package dev.emmily.oersted.circuit.dsl;
 
+import dev.emmily.oersted.jfr.TableLoadEvent;
 import org.apache.commons.csv.CSVFormat;
-import org.apache.commons.csv.CSVParser;
 import org.apache.commons.csv.CSVRecord;
 
 import java.io.*;
 import java.nio.file.Files;
+import java.util.List;
 
 public class TableLoader {
   private static final FilenameFilter CSV_FILE = (dir, name) -> name.endsWith(".csv");
-  private static final CSVFormat CSV_FORMAT = CSVFormat.DEFAULT.builder().setSkipHeaderRecord(true).build();
+  private static final CSVFormat CSV_FORMAT = CSVFormat.DEFAULT.builder().setHeader().setSkipHeaderRecord(true).build();
 
   private final File sourceFolder;
   private final TableSelectionStrategy tableSelectionStrategy;
@@ -21,26 +22,73 @@ public class TableLoader {
   }
 
   public void loadTables() throws IOException {
+    for (File table : tableFiles()) {
+      tableSelectionStrategy.registerTable(loadTable(table));
+    }
+  }
+
+  /**
+   * Registers every table of the folder without parsing it. The records of a table are parsed, only once,
+   * when the table is first selected or its records are first read, so short-lived jobs only pay for the
+   * tables they use.
+   *
+   * @throws IOException if the folder can't be listed.
+   */
+  public void indexTables() throws IOException {
+    for (File table : tableFiles()) {
+      String id = tableId(table);
+
+      tableSelectionStrategy.registerTable(new Table(
+        id,
+        sourceFolder.getName(),
+        TableSelectionStrategy.ruleFor(id),
+        table,
+        new LazyTableRecords(id, table)
+      ));
+    }
+  }
+
+  private File[] tableFiles() throws FileNotFoundException {
     File[] tables = sourceFolder.listFiles(CSV_FILE);
 
     if (tables == null) {
       throw new FileNotFoundException("Couldn't find table files");
     }
 
-    for (File table : tables) {
-      try (var reader = Files.newBufferedReader(table.toPath()); var parser = CSV_FORMAT.parse(reader)) {
+    return tables;
+  }
 
-      }
-    }
+  private Table loadTable(File source) throws IOException {
+    String id = tableId(source);
+
+    return new Table(
+      id,
+      sourceFolder.getName(),
+      TableSelectionStrategy.ruleFor(id),
+      source,
+      parseRecords(id, source)
+    );
+  }
+
+  private static String tableId(File source) {
+    return source.getName().replace(".csv", "");
   }
 
-  private Table loadTable(File table) throws IOException {
-    try (var reader = Files.newBufferedReader(table.toPath()); var parser = CSV_FORMAT.parse(reader)) {
-      return new Table(
-        table.getName().replace(".csv", ""),
-        "context xd", rule?, table,
-        parser.stream().toList()
-      );
+  static List<CSVRecord> parseRecords(String id, File source) throws IOException {
+    TableLoadEvent event = new TableLoadEvent();
+    event.begin();
+
+    try (var reader = Files.newBufferedReader(source.toPath()); var parser = CSV_FORMAT.parse(reader)) {
+      List<CSVRecord> records = parser.stream().toList();
+
+      if (event.shouldCommit()) {
+        event.table = id;
+        event.source = source.getPath();
+        event.rows = records.size();
+        event.commit();
+      }
+
+      return records;
     }
   }
 }
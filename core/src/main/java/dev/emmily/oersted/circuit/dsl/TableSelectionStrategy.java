@@ -3,11 +3,23 @@ package dev.emmily.oersted.circuit.dsl;
 import dev.emmily.oersted.circuit.Circuit;
 import dev.emmily.oersted.circuit.conductor.Conductor;
 import dev.emmily.oersted.circuit.conduit.Conduit;
+import dev.emmily.oersted.jfr.TableSelectionEvent;
+import dev.emmily.oersted.metrics.Counter;
+import dev.emmily.oersted.metrics.LatencyHistogram;
+import dev.emmily.oersted.metrics.Metrics;
 
+import java.util.Comparator;
+import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 import java.util.function.Predicate;
 
 public class TableSelectionStrategy {
+  private static final Counter SELECTIONS = Metrics.global().counter("table.selections");
+  private static final Counter REGISTRY_HITS = Metrics.global().counter("table.registry.hits");
+  private static final Counter REGISTRY_MISSES = Metrics.global().counter("table.registry.misses");
+  private static final LatencyHistogram SELECTION_LATENCY = Metrics.global().histogram("table.selection.latency");
+
   private final Map<String, Table> tableRegistry;
 
   public TableSelectionStrategy(Map<String, Table> tableRegistry) {
@@ -27,18 +39,86 @@ public class TableSelectionStrategy {
   }
 
   public Table selectTable(String table) {
-    return this.tableRegistry.get(table);
+    Table selected = this.tableRegistry.get(table);
+    (selected == null ? REGISTRY_MISSES : REGISTRY_HITS).increment();
+    return selected == null ? null : materialize(selected);
   }
 
   public Table selectTable(Circuit circuit) {
-    return tableRegistry
-      .values()
-      .stream()
-      .filter(table -> table.rule().applies(circuit))
-      .findFirst()
-      .orElseThrow(() -> new IllegalArgumentException("No applicable table found for the circuit " + circuit.id()));
+    TableSelectionEvent event = new TableSelectionEvent();
+    event.begin();
+    long start = SELECTION_LATENCY.start();
+    SELECTIONS.increment();
+
+    try {
+      Table table = tableRegistry
+        .values()
+        .stream()
+        .filter(candidate -> candidate.rule().applies(circuit))
+        .findFirst()
+        .orElseThrow(() -> new IllegalArgumentException("No applicable table found for the circuit " + circuit.id()));
+
+      if (event.shouldCommit()) {
+        event.circuit = circuit.id();
+        event.table = table.id();
+        event.commit();
+      }
+
+      return materialize(table);
+    } finally {
+      SELECTION_LATENCY.stop(start);
+    }
+  }
+
+  /**
+   * Parses the records of a table indexed by {@link TableLoader#indexTables()} on its first selection, so they
+   * are ready before the table is handed out.
+   */
+  private static Table materialize(Table table) {
+    if (table.csvRecords() instanceof LazyTableRecords records) {
+      records.load();
+    }
+
+    return table;
   }
 
+  /**
+   * Returns the rule deciding which circuits a table of the annex applies to.
+   *
+   * @param table the identifier of the table, e.g. {@code table-x}.
+   * @return the rule of the table, which applies to no circuit if the table is unknown.
+   */
+  public static TableRule ruleFor(String table) {
+    return TableRule.where(TABLE_MATCHER.getOrDefault(table, circuit -> false));
+  }
+
+  /**
+   * Creates a registry that hands its tables to {@link #selectTable(Circuit)} from the most specific rule of
+   * the annex to the catch-all {@code table-ix}, then the unknown tables by id, whatever order they are
+   * registered in.
+   *
+   * @return an empty registry.
+   */
+  public static Map<String, Table> prioritizedRegistry() {
+    return new TreeMap<>(Comparator
+      .comparingInt((String table) -> {
+        int priority = TABLE_PRIORITY.indexOf(table);
+        return priority == -1 ? TABLE_PRIORITY.size() : priority;
+      })
+      .thenComparing(Comparator.naturalOrder()));
+  }
+
+  private static final List<String> TABLE_PRIORITY = List.of(
+    "table-i",
+    "table-viii",
+    "table-vi",
+    "table-x",
+    "table-xi",
+    "table-xii",
+    "table-xiii",
+    "table-ix"
+  );
+
   private static final Map<String, Predicate<Circuit>> TABLE_MATCHER = Map.of(
     "table-i", TableRule
       .withInsulator(Conductor.Material.XLPE)
@@ -0,0 +1,291 @@
+package dev.emmily.oersted.circuit.protection;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A manufacturer catalog of protection devices, indexed for the selection of the smallest adequate device.
+ * <p>
+ * The catalog is read from a CSV file with the columns {@code kind} ({@code thermal-magnetic} or
+ * {@code residual-current}), {@code reference}, {@code poles}, {@code characteristic} (the
+ * {@link ThermalMagneticCircuitBreaker.TripCurve} or {@link ResidualCurrentCircuitBreaker.Type}),
+ * {@code frequency} (Hz, several ones separated by {@code /}), {@code nominal current} (A) and {@code rating}:
+ * the breaking capacity (kA) of thermal-magnetic breakers, or the sensitivity (mA) of residual current ones.
+ * <p>
+ * Devices are grouped by kind, poles, characteristic and frequency into shelves of primitive arrays sorted by
+ * nominal current and rating, and the shelves themselves are found by a binary search over packed keys, so a
+ * selection allocates nothing but the selected breaker.
+ */
+public class BreakerCatalog {
+  private static final CSVFormat CSV_FORMAT = CSVFormat.DEFAULT.builder().setHeader().setSkipHeaderRecord(true).build();
+  private static final String THERMAL_MAGNETIC = "thermal-magnetic";
+  private static final String RESIDUAL_CURRENT = "residual-current";
+
+  /**
+   * Loads the generic catalog bundled with the library.
+   *
+   * @return the generic catalog.
+   */
+  public static BreakerCatalog generic() {
+    try (InputStream input = BreakerCatalog.class.getResourceAsStream("/breaker-catalog.csv")) {
+      if (input == null) {
+        throw new IllegalStateException("the generic breaker catalog is missing");
+      }
+
+      return load(new InputStreamReader(input, StandardCharsets.UTF_8));
+    } catch (IOException e) {
+      throw new IllegalStateException("couldn't read the generic breaker catalog", e);
+    }
+  }
+
+  public static BreakerCatalog load(Path source) throws IOException {
+    try (Reader reader = Files.newBufferedReader(source)) {
+      return load(reader);
+    }
+  }
+
+  /**
+   * Loads a catalog.
+   *
+   * @param reader the CSV source of the catalog, which isn't closed.
+   * @return the loaded catalog.
+   * @throws IllegalArgumentException if a row is malformed.
+   */
+  public static BreakerCatalog load(Reader reader) throws IOException {
+    Map<Long, List<Device>> shelves = new HashMap<>();
+    CSVParser parser = CSV_FORMAT.parse(reader);
+
+    for (CSVRecord record : parser) {
+      try {
+        String kind = record.get("kind").trim();
+        int poles = Integer.parseInt(record.get("poles").trim());
+        String characteristic = record.get("characteristic").trim();
+        int nominalCurrent = Integer.parseInt(record.get("nominal current").trim());
+        int rating = Integer.parseInt(record.get("rating").trim());
+        Device device = switch (kind) {
+          // residual current devices are sorted by descending sensitivity, the least sensitive adequate one first
+          case THERMAL_MAGNETIC -> new Device(record.get("reference"), nominalCurrent, rating);
+          case RESIDUAL_CURRENT -> new Device(record.get("reference"), nominalCurrent, -rating);
+          default -> throw new IllegalArgumentException("unknown kind " + kind);
+        };
+        int variant = kind.equals(THERMAL_MAGNETIC)
+          ? ThermalMagneticCircuitBreaker.TripCurve.valueOf(characteristic).ordinal()
+          : ResidualCurrentCircuitBreaker.Type.valueOf(characteristic).ordinal();
+
+        for (String frequency : record.get("frequency").split("/")) {
+          long key = key(kind.equals(THERMAL_MAGNETIC), poles, variant, Integer.parseInt(frequency.trim()));
+          shelves.computeIfAbsent(key, k -> new ArrayList<>()).add(device);
+        }
+      } catch (IllegalArgumentException e) {
+        throw new IllegalArgumentException("malformed catalog row " + record.getRecordNumber() + ": " + e.getMessage(), e);
+      }
+    }
+
+    return new BreakerCatalog(shelves);
+  }
+
+  /**
+   * Packs the attributes a device is looked up by into a single key.
+   */
+  private static long key(boolean thermalMagnetic, int poles, int variant, int frequency) {
+    return (thermalMagnetic ? 1L : 0L) << 56 | (long) (poles & 0xFF) << 48 | (long) (variant & 0xFFFF) << 32 | (frequency & 0xFFFFFFFFL);
+  }
+
+  private final long[] keys;
+  private final Shelf[] shelves;
+  private final int size;
+
+  private BreakerCatalog(Map<Long, List<Device>> devices) {
+    this.keys = devices.keySet().stream().mapToLong(Long::longValue).sorted().toArray();
+    this.shelves = new Shelf[keys.length];
+    int size = 0;
+
+    for (int i = 0; i < keys.length; i++) {
+      shelves[i] = Shelf.of(devices.get(keys[i]));
+      size += shelves[i].references.length;
+    }
+
+    this.size = size;
+  }
+
+  /**
+   * @return the amount of indexed devices, counting once per frequency.
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Selects the smallest thermal-magnetic circuit breaker carrying a current.
+   *
+   * @param id                  the identifier of the selected breaker.
+   * @param parent              the parent of the selected breaker in the breaker tree.
+   * @param poles               the amount of poles.
+   * @param tripCurve           the trip curve.
+   * @param frequency           the frequency of the system (Hz).
+   * @param current             the design current (A).
+   * @param shortCircuitCurrent the prospective short-circuit current the breaker must interrupt (kA).
+   * @return the selected breaker, or {@code null} if no device of the catalog is adequate.
+   */
+  public ThermalMagneticCircuitBreaker selectThermalMagnetic(String id,
+                                                             String parent,
+                                                             int poles,
+                                                             ThermalMagneticCircuitBreaker.TripCurve tripCurve,
+                                                             int frequency,
+                                                             double current,
+                                                             int shortCircuitCurrent) {
+    Shelf shelf = shelf(key(true, poles, tripCurve.ordinal(), frequency));
+    int row = shelf == null ? -1 : shelf.select(current, shortCircuitCurrent);
+
+    if (row == -1) {
+      return null;
+    }
+
+    return new ThermalMagneticCircuitBreaker(
+      id,
+      parent,
+      shelf.nominalCurrents[row],
+      frequency,
+      poles,
+      shelf.ratings[row],
+      tripCurve
+    );
+  }
+
+  /**
+   * Selects the smallest residual current circuit breaker carrying a current, with the lowest sensitivity
+   * that still trips at the required residual current.
+   *
+   * @param id          the identifier of the selected breaker.
+   * @param parent      the parent of the selected breaker in the breaker tree.
+   * @param poles       the amount of poles.
+   * @param type        the type.
+   * @param frequency   the frequency of the system (Hz).
+   * @param current     the current the breaker must carry (A).
+   * @param sensitivity the maximum sensitivity (mA).
+   * @return the selected breaker, or {@code null} if no device of the catalog is adequate.
+   */
+  public ResidualCurrentCircuitBreaker selectResidualCurrent(String id,
+                                                             String parent,
+                                                             int poles,
+                                                             ResidualCurrentCircuitBreaker.Type type,
+                                                             int frequency,
+                                                             double current,
+                                                             int sensitivity) {
+    Shelf shelf = shelf(key(false, poles, type.ordinal(), frequency));
+    int row = shelf == null ? -1 : shelf.select(current, -sensitivity);
+
+    if (row == -1) {
+      return null;
+    }
+
+    return new ResidualCurrentCircuitBreaker(
+      id,
+      parent,
+      shelf.nominalCurrents[row],
+      frequency,
+      poles,
+      -shelf.ratings[row],
+      type
+    );
+  }
+
+  /**
+   * Returns the catalog reference of the device a breaker was selected from.
+   *
+   * @param breaker a breaker selected from this catalog.
+   * @return the reference, or {@code null} if the catalog has no such device.
+   */
+  public String reference(CircuitBreaker breaker) {
+    Shelf shelf;
+    int rating;
+
+    if (breaker instanceof ThermalMagneticCircuitBreaker thermalMagnetic) {
+      shelf = shelf(key(true, breaker.poles(), thermalMagnetic.tripCurve().ordinal(), breaker.frequency()));
+      rating = thermalMagnetic.shortCircuitCurrent();
+    } else if (breaker instanceof ResidualCurrentCircuitBreaker residualCurrent) {
+      shelf = shelf(key(false, breaker.poles(), residualCurrent.type().ordinal(), breaker.frequency()));
+      rating = -residualCurrent.sensitivity();
+    } else {
+      return null;
+    }
+
+    int row = shelf == null ? -1 : shelf.select(breaker.nominalCurrent(), rating);
+
+    return row != -1 && shelf.nominalCurrents[row] == breaker.nominalCurrent() && shelf.ratings[row] == rating
+      ? shelf.references[row]
+      : null;
+  }
+
+  private Shelf shelf(long key) {
+    int index = Arrays.binarySearch(keys, key);
+    return index < 0 ? null : shelves[index];
+  }
+
+  private record Device(String reference, int nominalCurrent, int rating) {}
+
+  /**
+   * The devices sharing kind, poles, characteristic and frequency, sorted by nominal current and rating.
+   * Ratings are stored so that a higher one is always more demanding.
+   */
+  private record Shelf(int[] nominalCurrents, int[] ratings, String[] references) {
+    private static Shelf of(List<Device> devices) {
+      devices.sort(Comparator.comparingInt(Device::nominalCurrent).thenComparingInt(Device::rating));
+
+      int[] nominalCurrents = new int[devices.size()];
+      int[] ratings = new int[devices.size()];
+      String[] references = new String[devices.size()];
+
+      for (int i = 0; i < nominalCurrents.length; i++) {
+        nominalCurrents[i] = devices.get(i).nominalCurrent();
+        ratings[i] = devices.get(i).rating();
+        references[i] = devices.get(i).reference();
+      }
+
+      return new Shelf(nominalCurrents, ratings, references);
+    }
+
+    /**
+     * Finds the first device with a nominal current of at least the given current and an adequate rating.
+     *
+     * @return the row of the device, or -1 if there is none.
+     */
+    private int select(double current, int rating) {
+      int low = 0;
+      int high = nominalCurrents.length;
+
+      while (low < high) {
+        int middle = (low + high) >>> 1;
+
+        if (nominalCurrents[middle] < current) {
+          low = middle + 1;
+        } else {
+          high = middle;
+        }
+      }
+
+      for (int row = low; row < nominalCurrents.length; row++) {
+        if (ratings[row] >= rating) {
+          return row;
+        }
+      }
+
+      return -1;
+    }
+  }
+}
@@ -0,0 +1,220 @@
+package dev.emmily.oersted.circuit.protection;
+
+import dev.emmily.oersted.circuit.Circuit;
+import dev.emmily.oersted.hierarchy.Hierarchical;
+import dev.emmily.oersted.installation.ElectricalInstallation;
+import dev.emmily.oersted.system.ElectricalSystem;
+import dev.emmily.oersted.system.ElectricalSystemSnapshot;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/**
+ * Selects the protection devices of circuits from a {@link BreakerCatalog}.
+ * <p>
+ * Every circuit gets the smallest thermal-magnetic breaker carrying its design current, with the id
+ * {@code <circuit>-tm}, and optionally the smallest residual current breaker downstream of it, with the id
+ * {@code <circuit>-rc}. Three-phase circuits get 4-pole devices and single-phase ones 2-pole devices.
+ */
+public class BreakerSelector {
+  public static Builder builder(BreakerCatalog catalog) {
+    return new Builder(catalog);
+  }
+
+  private final BreakerCatalog catalog;
+  private final ToIntFunction<Circuit> load;
+  private final Function<Circuit, ThermalMagneticCircuitBreaker.TripCurve> tripCurve;
+  private final ToIntFunction<Circuit> shortCircuitCurrent;
+  private final Function<Circuit, ResidualCurrentCircuitBreaker.Type> residualCurrentType;
+  private final ToIntFunction<Circuit> sensitivity;
+
+  private BreakerSelector(Builder builder) {
+    this.catalog = builder.catalog;
+    this.load = builder.load;
+    this.tripCurve = builder.tripCurve;
+    this.shortCircuitCurrent = builder.shortCircuitCurrent;
+    this.residualCurrentType = builder.residualCurrentType;
+    this.sensitivity = builder.sensitivity;
+  }
+
+  /**
+   * Selects the protection devices of a circuit.
+   *
+   * @param circuit the circuit to be protected.
+   * @return the breaker tree of the circuit.
+   * @throws IllegalArgumentException if the circuit has no electrical system, or the catalog has no adequate
+   *                                  device for it.
+   */
+  public Map<String, CircuitBreaker> select(Circuit circuit) {
+    if (circuit.electricalSystem() == null) {
+      throw new IllegalArgumentException("the circuit " + circuit.id() + " has no electrical system");
+    }
+
+    Map<String, CircuitBreaker> breakers = select(circuit, ElectricalSystemSnapshot.of(circuit.electricalSystem()));
+
+    if (breakers == null) {
+      throw new IllegalArgumentException("the catalog has no adequate device for the circuit " + circuit.id());
+    }
+
+    return breakers;
+  }
+
+  /**
+   * Fills the breaker tree of every circuit of an installation in a single pass, taking one snapshot per
+   * electrical system. Circuits the catalog has no adequate device for are left untouched.
+   *
+   * @param installation the installation whose circuits are to be protected.
+   * @return the identifiers of the circuits that couldn't be protected.
+   */
+  public List<String> assign(ElectricalInstallation installation) {
+    Map<ElectricalSystem, ElectricalSystemSnapshot> snapshots = new IdentityHashMap<>();
+    List<String> unprotected = new ArrayList<>();
+
+    installation.circuitTree().replaceAll((id, circuit) -> {
+      ElectricalSystem system = circuit.electricalSystem() == null
+        ? installation.supplyingSystem()
+        : circuit.electricalSystem();
+      Map<String, CircuitBreaker> breakers = select(
+        circuit,
+        snapshots.computeIfAbsent(system, ElectricalSystem::snapshot)
+      );
+
+      if (breakers == null) {
+        unprotected.add(id);
+        return circuit;
+      }
+
+      return new Circuit(
+        circuit.id(),
+        circuit.parent(),
+        circuit.description(),
+        breakers,
+        circuit.conduit(),
+        circuit.phaseConductors(),
+        circuit.neutralConductor(),
+        circuit.earthConductor(),
+        circuit.circuitType(),
+        circuit.electricalSystem(),
+        circuit.circuitSystemType(),
+        circuit.apparentPower()
+      );
+    });
+
+    return unprotected;
+  }
+
+  private Map<String, CircuitBreaker> select(Circuit circuit, ElectricalSystemSnapshot system) {
+    boolean threePhase = circuit.circuitSystemType() == ElectricalSystem.SystemType.THREE_PHASE;
+    double voltage = system.voltageFor(circuit.circuitSystemType());
+    int apparentPower = load.applyAsInt(circuit);
+    double current = threePhase ? apparentPower / (ElectricalSystem.SQRT_3 * voltage) : apparentPower / voltage;
+    int poles = threePhase ? 4 : 2;
+
+    ThermalMagneticCircuitBreaker thermalMagnetic = catalog.selectThermalMagnetic(
+      circuit.id() + "-tm",
+      Hierarchical.PARENT,
+      poles,
+      tripCurve.apply(circuit),
+      system.frequency(),
+      current,
+      shortCircuitCurrent.applyAsInt(circuit)
+    );
+
+    if (thermalMagnetic == null) {
+      return null;
+    }
+
+    Map<String, CircuitBreaker> breakers = new HashMap<>(4);
+    breakers.put(thermalMagnetic.id(), thermalMagnetic);
+    ResidualCurrentCircuitBreaker.Type type = residualCurrentType.apply(circuit);
+
+    if (type != null) {
+      // the residual current breaker must carry whatever the upstream breaker lets through
+      ResidualCurrentCircuitBreaker residualCurrent = catalog.selectResidualCurrent(
+        circuit.id() + "-rc",
+        thermalMagnetic.id(),
+        poles,
+        type,
+        system.frequency(),
+        thermalMagnetic.nominalCurrent(),
+        sensitivity.applyAsInt(circuit)
+      );
+
+      if (residualCurrent == null) {
+        return null;
+      }
+
+      breakers.put(residualCurrent.id(), residualCurrent);
+    }
+
+    return breakers;
+  }
+
+  public static class Builder {
+    private final BreakerCatalog catalog;
+    private ToIntFunction<Circuit> load = Circuit::apparentPower;
+    private Function<Circuit, ThermalMagneticCircuitBreaker.TripCurve> tripCurve = circuit ->
+      circuit.circuitType() == Circuit.CircuitType.LIGHTING
+        ? ThermalMagneticCircuitBreaker.TripCurve.B
+        : ThermalMagneticCircuitBreaker.TripCurve.C;
+    private ToIntFunction<Circuit> shortCircuitCurrent = circuit -> 6;
+    private Function<Circuit, ResidualCurrentCircuitBreaker.Type> residualCurrentType = circuit ->
+      circuit.circuitType() == Circuit.CircuitType.MAIN_SUPPLY_LINE ? null : ResidualCurrentCircuitBreaker.Type.A;
+    private ToIntFunction<Circuit> sensitivity = circuit -> 30;
+
+    private Builder(BreakerCatalog catalog) {
+      this.catalog = catalog;
+    }
+
+    /**
+     * @param load the apparent power (VA) each circuit is protected for, its apparent power by default.
+     */
+    public Builder load(ToIntFunction<Circuit> load) {
+      this.load = load;
+      return this;
+    }
+
+    /**
+     * @param tripCurve the trip curve of each circuit, B for lighting circuits and C otherwise by default.
+     */
+    public Builder tripCurve(Function<Circuit, ThermalMagneticCircuitBreaker.TripCurve> tripCurve) {
+      this.tripCurve = tripCurve;
+      return this;
+    }
+
+    /**
+     * @param shortCircuitCurrent the prospective short-circuit current at each circuit (kA), 6 kA by default.
+     */
+    public Builder shortCircuitCurrent(ToIntFunction<Circuit> shortCircuitCurrent) {
+      this.shortCircuitCurrent = shortCircuitCurrent;
+      return this;
+    }
+
+    /**
+     * @param residualCurrentType the type of the residual current breaker of each circuit, or {@code null} for
+     *                            none. Type A for every circuit but main supply lines by default.
+     */
+    public Builder residualCurrentType(Function<Circuit, ResidualCurrentCircuitBreaker.Type> residualCurrentType) {
+      this.residualCurrentType = residualCurrentType;
+      return this;
+    }
+
+    /**
+     * @param sensitivity the maximum sensitivity of the residual current breaker of each circuit (mA),
+     *                    30 mA by default.
+     */
+    public Builder sensitivity(ToIntFunction<Circuit> sensitivity) {
+      this.sensitivity = sensitivity;
+      return this;
+    }
+
+    public BreakerSelector build() {
+      return new BreakerSelector(this);
+    }
+  }
+}
@@ -0,0 +1,12 @@
+package dev.emmily.oersted.earthing;
+
+/**
+ * The outcome of the calculation of an {@link EarthingSystem}, detached from the mutable system.
+ *
+ * @param resistance the earthing resistance (Ω).
+ * @param meshLength the length of the mesh (m).
+ * @param rods       the amount of rods.
+ */
+public record EarthingDesign(double resistance,
+                             double meshLength,
+                             double rods) {}
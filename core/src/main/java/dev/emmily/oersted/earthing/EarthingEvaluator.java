@@ -0,0 +1,157 @@
+package dev.emmily.oersted.earthing;
+
+import dev.emmily.oersted.metrics.Counter;
+import dev.emmily.oersted.metrics.Metrics;
+
+/**
+ * Evaluates batches of earthing designs stored in primitive arrays, following the same model as
+ * {@link EarthingSystem#calculateEarthingResistance()} without allocating a system per design.
+ * <p>
+ * When the {@code jdk.incubator.vector} module is part of the boot layer (e.g. the JVM was started with
+ * {@code --add-modules jdk.incubator.vector}) the designs are evaluated several at a time with the Vector API,
+ * otherwise with a scalar loop. Both give the same results as the single system for positive inputs.
+ * <p>
+ * Evaluators are stateless and can be shared between threads.
+ */
+public final class EarthingEvaluator {
+  private static final Counter EVALUATIONS = Metrics.global().counter("earthing.evaluations");
+  private static final boolean VECTOR_API = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+  private static final String VECTOR_KERNEL = "dev.emmily.oersted.earthing.VectorEarthingKernel";
+
+  /**
+   * Creates an evaluator using the Vector API if it's available, and a scalar loop otherwise.
+   */
+  public static EarthingEvaluator create() {
+    return VECTOR_API ? vectorized() : scalar();
+  }
+
+  public static EarthingEvaluator scalar() {
+    return new EarthingEvaluator(EarthingEvaluator::evaluateScalar, false);
+  }
+
+  /**
+   * Creates an evaluator using the Vector API.
+   *
+   * @throws IllegalStateException if the {@code jdk.incubator.vector} module isn't available.
+   */
+  public static EarthingEvaluator vectorized() {
+    if (!VECTOR_API) {
+      throw new IllegalStateException("the jdk.incubator.vector module is not available");
+    }
+
+    // the kernel is compiled apart with the module and only loaded here, so the module isn't required otherwise
+    try {
+      Kernel kernel = (Kernel) Class.forName(VECTOR_KERNEL).getDeclaredConstructor().newInstance();
+      return new EarthingEvaluator(kernel, true);
+    } catch (ReflectiveOperationException e) {
+      throw new IllegalStateException("the Vector API kernel couldn't be loaded", e);
+    }
+  }
+
+  /**
+   * @return whether the Vector API can be used by this JVM.
+   */
+  public static boolean isVectorApiAvailable() {
+    return VECTOR_API;
+  }
+
+  private final Kernel kernel;
+  private final boolean vectorized;
+
+  private EarthingEvaluator(Kernel kernel, boolean vectorized) {
+    this.kernel = kernel;
+    this.vectorized = vectorized;
+  }
+
+  public boolean isVectorized() {
+    return vectorized;
+  }
+
+  /**
+   * Evaluates a batch of earthing designs. The inputs of the i-th design are the i-th elements of the input
+   * arrays, and its results are written to the i-th elements of the output arrays.
+   *
+   * @param soilResistivity the resistivity of the soil (Ω·m).
+   * @param maxResistance   the maximum allowed resistance (Ω).
+   * @param maxMeshLength   the maximum mesh length allowed (m).
+   * @param rodLength       the standard rod length used (m).
+   * @param rods            the output amount of rods.
+   * @param meshLength      the output length of the mesh (m).
+   * @param resistance      the output earthing resistance (Ω).
+   * @throws IllegalArgumentException if the arrays don't have the same length.
+   */
+  public void evaluate(double[] soilResistivity,
+                       double[] maxResistance,
+                       double[] maxMeshLength,
+                       double[] rodLength,
+                       double[] rods,
+                       double[] meshLength,
+                       double[] resistance) {
+    int length = soilResistivity.length;
+
+    if (maxResistance.length != length
+      || maxMeshLength.length != length
+      || rodLength.length != length
+      || rods.length != length
+      || meshLength.length != length
+      || resistance.length != length) {
+      throw new IllegalArgumentException("every array must have the same length");
+    }
+
+    kernel.evaluate(soilResistivity, maxResistance, maxMeshLength, rodLength, rods, meshLength, resistance, 0, length);
+    EVALUATIONS.add(length);
+  }
+
+  /**
+   * Evaluates the designs from {@code from} (inclusive) to {@code to} (exclusive) one at a time.
+   */
+  static void evaluateScalar(double[] soilResistivity,
+                             double[] maxResistance,
+                             double[] maxMeshLength,
+                             double[] rodLength,
+                             double[] rods,
+                             double[] meshLength,
+                             double[] resistance,
+                             int from,
+                             int to) {
+    for (int i = from; i < to; i++) {
+      double resistivity = soilResistivity[i];
+      double maximum = maxResistance[i];
+      double mesh = Math.min(resistivity / maximum * 2, maxMeshLength[i]);
+      double rodsLength;
+
+      if (mesh == 0) {
+        rodsLength = resistivity / maximum;
+        resistance[i] = rodsLength == 0 ? 0 : resistivity / rodsLength;
+      } else {
+        double meshResistance = 2 * resistivity / mesh;
+
+        if (meshResistance < maximum) {
+          // only rounding leaves an uncapped mesh below the maximum, and then it needs no rods
+          rodsLength = 0;
+          resistance[i] = meshResistance;
+        } else {
+          double rodsResistance = maximum * meshResistance / (meshResistance - maximum);
+          rodsLength = resistivity / rodsResistance;
+          resistance[i] = 1 / (1 / meshResistance + 1 / rodsResistance);
+        }
+      }
+
+      meshLength[i] = mesh;
+      rods[i] = Math.round(rodsLength / rodLength[i]);
+    }
+  }
+
+  @FunctionalInterface
+  interface Kernel {
+    void evaluate(double[] soilResistivity,
+                  double[] maxResistance,
+                  double[] maxMeshLength,
+                  double[] rodLength,
+                  double[] rods,
+                  double[] meshLength,
+                  double[] resistance,
+                  int from,
+                  int to);
+  }
+}
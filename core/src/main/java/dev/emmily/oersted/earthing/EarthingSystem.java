@@ -1,6 +1,10 @@
 package dev.emmily.oersted.earthing;
 
 import dev.emmily.oersted.calculator.ResistorCalculator;
+import dev.emmily.oersted.jfr.EarthingCalculationEvent;
+import dev.emmily.oersted.metrics.Counter;
+import dev.emmily.oersted.metrics.LatencyHistogram;
+import dev.emmily.oersted.metrics.Metrics;
 
 /**
  * Represents an earthing system of an electrical installation.
@@ -16,6 +20,9 @@ import dev.emmily.oersted.calculator.ResistorCalculator;
  * @see <a href="https://www.ute.com.uy/sites/default/files/files-cuerpo-paginas/C-23.pdf">UTE RBT C-23</a>
  */
 public class EarthingSystem {
+  private static final Counter EVALUATIONS = Metrics.global().counter("earthing.evaluations");
+  private static final LatencyHistogram EVALUATION_LATENCY = Metrics.global().histogram("earthing.evaluation.latency");
+
   public static EarthingSystem create(double maxResistance,
                                       double soilResistivity,
                                       double maxMeshLength,
@@ -97,14 +104,39 @@ public class EarthingSystem {
    * @return the total earthing resistance (Ω)
    */
   public double calculateEarthingResistance() {
+    EarthingCalculationEvent event = new EarthingCalculationEvent();
+    event.begin();
+    long start = EVALUATION_LATENCY.start();
+    EVALUATIONS.increment();
+
     totalMeshLength = calculateIdealMeshLength();
     totalMeshLength = capMeshLength(totalMeshLength);
 
-    if (isMeshUnused(totalMeshLength)) {
-      return calculateResistanceWithRodsOnly();
+    double resistance = isMeshUnused(totalMeshLength)
+      ? calculateResistanceWithRodsOnly()
+      : calculateCombinedResistance();
+
+    EVALUATION_LATENCY.stop(start);
+
+    if (event.shouldCommit()) {
+      event.soilResistivity = soilResistivity;
+      event.maxResistance = maxResistance;
+      event.resistance = resistance;
+      event.rods = totalRods;
+      event.commit();
     }
 
-    return calculateCombinedResistance();
+    return resistance;
+  }
+
+  /**
+   * Calculates the earthing resistance and returns it along with the resulting mesh length and rods.
+   *
+   * @return the design of this earthing system.
+   */
+  public EarthingDesign design() {
+    double resistance = calculateEarthingResistance();
+    return new EarthingDesign(resistance, totalMeshLength, totalRods);
   }
 
   private double calculateIdealMeshLength() {
@@ -127,6 +159,13 @@ public class EarthingSystem {
 
   private double calculateCombinedResistance() {
     double meshResistance = calculateMeshResistance(totalMeshLength);
+
+    if (meshResistance < maxResistance) {
+      // only rounding leaves an uncapped mesh below the maximum, and then it needs no rods
+      totalRods = 0;
+      return meshResistance;
+    }
+
     double rodsResistance = (maxResistance * meshResistance) / (meshResistance - maxResistance);
     double rodsLength = soilResistivity / rodsResistance;
     totalRods = Math.round(rodsLength / rodLengthModel);
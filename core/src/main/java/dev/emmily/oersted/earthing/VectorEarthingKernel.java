@@ -0,0 +1,72 @@
+package dev.emmily.oersted.earthing;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * The Vector API kernel of {@link EarthingEvaluator}. Both branches of the model are computed for every lane
+ * and blended by masks, and the designs that don't fill a whole vector are left to the scalar loop.
+ * <p>
+ * This class is compiled on its own with the {@code jdk.incubator.vector} module, and must only be loaded when
+ * the module is available.
+ */
+final class VectorEarthingKernel implements EarthingEvaluator.Kernel {
+  private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+  private static final DoubleVector ONE = DoubleVector.broadcast(SPECIES, 1);
+
+  @Override
+  public void evaluate(double[] soilResistivity,
+                       double[] maxResistance,
+                       double[] maxMeshLength,
+                       double[] rodLength,
+                       double[] rods,
+                       double[] meshLength,
+                       double[] resistance,
+                       int from,
+                       int to) {
+    int i = from;
+    int bound = from + SPECIES.loopBound(to - from);
+
+    for (; i < bound; i += SPECIES.length()) {
+      DoubleVector resistivity = DoubleVector.fromArray(SPECIES, soilResistivity, i);
+      DoubleVector maximum = DoubleVector.fromArray(SPECIES, maxResistance, i);
+      DoubleVector rodsOnlyLength = resistivity.div(maximum);
+      DoubleVector mesh = rodsOnlyLength.mul(2).min(DoubleVector.fromArray(SPECIES, maxMeshLength, i));
+      VectorMask<Double> meshUnused = mesh.compare(VectorOperators.EQ, 0);
+
+      // lanes without mesh divide by zero here, which is harmless since they are blended away below
+      DoubleVector meshResistance = resistivity.mul(2).div(mesh);
+      DoubleVector rodsResistance = maximum.mul(meshResistance).div(meshResistance.sub(maximum));
+      DoubleVector combinedLength = resistivity.div(rodsResistance);
+      DoubleVector combined = ONE.div(ONE.div(meshResistance).add(ONE.div(rodsResistance)));
+      DoubleVector rodsOnly = resistivity.div(rodsOnlyLength)
+        .blend(0, rodsOnlyLength.compare(VectorOperators.EQ, 0));
+
+      VectorMask<Double> meshSuffices = meshResistance.compare(VectorOperators.LT, maximum);
+      DoubleVector rodsLength = combinedLength.blend(0, meshSuffices).blend(rodsOnlyLength, meshUnused);
+      // rod lengths are never negative, so truncating after adding a half rounds like Math.round
+      DoubleVector rodCount = (DoubleVector) rodsLength.div(DoubleVector.fromArray(SPECIES, rodLength, i))
+        .add(0.5)
+        .convert(VectorOperators.D2L, 0)
+        .convert(VectorOperators.L2D, 0);
+
+      combined.blend(meshResistance, meshSuffices).blend(rodsOnly, meshUnused).intoArray(resistance, i);
+      mesh.intoArray(meshLength, i);
+      rodCount.intoArray(rods, i);
+    }
+
+    EarthingEvaluator.evaluateScalar(
+      soilResistivity,
+      maxResistance,
+      maxMeshLength,
+      rodLength,
+      rods,
+      meshLength,
+      resistance,
+      i,
+      to
+    );
+  }
+}
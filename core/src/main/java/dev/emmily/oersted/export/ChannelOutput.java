@@ -0,0 +1,183 @@
+package dev.emmily.oersted.export;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A direct buffer in front of a {@link FileChannel}, encoding text and primitive columns straight into the
+ * buffer, which is written to the channel whenever it fills up.
+ */
+final class ChannelOutput implements Closeable {
+  private static final int BUFFER_SIZE = 256 * 1024;
+  private static final long[] POWERS_OF_TEN = {1, 10, 100, 1_000, 10_000, 100_000, 1_000_000};
+  // values from here on would overflow the scaled long, they are written by the JDK instead
+  private static final double MAX_FIXED = 1e12;
+
+  private final FileChannel channel;
+  private final byte[] digits = new byte[20];
+  private ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+  private long position;
+
+  ChannelOutput(FileChannel channel) {
+    this.channel = channel;
+  }
+
+  /**
+   * @return the amount of bytes written so far, including the buffered ones.
+   */
+  long position() {
+    return position + buffer.position();
+  }
+
+  /**
+   * Makes sure the given amount of bytes can be put into the buffer without flushing it.
+   */
+  ByteBuffer reserve(int bytes) throws IOException {
+    if (buffer.remaining() < bytes) {
+      flush();
+
+      if (buffer.capacity() < bytes) {
+        buffer = ByteBuffer.allocateDirect(bytes);
+      }
+    }
+
+    return buffer;
+  }
+
+  void putByte(int value) throws IOException {
+    reserve(1).put((byte) value);
+  }
+
+  void putInt(int value) throws IOException {
+    reserve(Integer.BYTES).putInt(value);
+  }
+
+  /**
+   * Puts the first elements of a float column in bulk.
+   */
+  void putFloats(float[] values, int length) throws IOException {
+    int offset = 0;
+
+    while (offset < length) {
+      int count = Math.min(length - offset, reserve(Float.BYTES).remaining() / Float.BYTES);
+      buffer.asFloatBuffer().put(values, offset, count);
+      buffer.position(buffer.position() + count * Float.BYTES);
+      offset += count;
+    }
+  }
+
+  /**
+   * Puts the first elements of an int column in bulk.
+   */
+  void putInts(int[] values, int length) throws IOException {
+    int offset = 0;
+
+    while (offset < length) {
+      int count = Math.min(length - offset, reserve(Integer.BYTES).remaining() / Integer.BYTES);
+      buffer.asIntBuffer().put(values, offset, count);
+      buffer.position(buffer.position() + count * Integer.BYTES);
+      offset += count;
+    }
+  }
+
+  /**
+   * Puts a string as UTF-8, copying ASCII characters one by one so only other strings are encoded by the JDK.
+   */
+  void putUtf8(String value) throws IOException {
+    int length = value.length();
+    ByteBuffer target = reserve(length);
+
+    for (int i = 0; i < length; i++) {
+      char character = value.charAt(i);
+
+      if (character >= 0x80) {
+        target.position(target.position() - i);
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        reserve(bytes.length).put(bytes);
+        return;
+      }
+
+      target.put((byte) character);
+    }
+  }
+
+  /**
+   * Returns the amount of bytes {@link #putUtf8(String)} puts for a string, computed with the same encoder so
+   * malformed strings, like lone surrogates, are counted as they are written.
+   */
+  static int utf8Length(String value) {
+    int length = value.length();
+
+    for (int i = 0; i < length; i++) {
+      if (value.charAt(i) >= 0x80) {
+        return value.getBytes(StandardCharsets.UTF_8).length;
+      }
+    }
+
+    return length;
+  }
+
+  /**
+   * Puts a number as ASCII with a fixed amount of decimals, {@code NaN} is put as nothing.
+   */
+  void putDecimal(double value, int decimals) throws IOException {
+    if (Double.isNaN(value)) {
+      return;
+    }
+
+    if (Double.isInfinite(value) || Math.abs(value) >= MAX_FIXED) {
+      putUtf8(Double.toString(value));
+      return;
+    }
+
+    long scale = POWERS_OF_TEN[decimals];
+    long scaled = Math.round(Math.abs(value) * scale);
+
+    if (value < 0 && scaled != 0) {
+      putByte('-');
+    }
+
+    putLong(scaled / scale);
+
+    if (decimals > 0) {
+      ByteBuffer target = reserve(decimals + 1).put((byte) '.');
+      long fraction = scaled % scale;
+
+      for (long digit = scale / 10; digit > 0; digit /= 10) {
+        target.put((byte) ('0' + fraction / digit % 10));
+      }
+    }
+  }
+
+  /**
+   * Puts a non-negative number as ASCII.
+   */
+  void putLong(long value) throws IOException {
+    int count = 0;
+
+    do {
+      digits[digits.length - ++count] = (byte) ('0' + value % 10);
+      value /= 10;
+    } while (value > 0);
+
+    reserve(count).put(digits, digits.length - count, count);
+  }
+
+  void flush() throws IOException {
+    buffer.flip();
+
+    while (buffer.hasRemaining()) {
+      position += channel.write(buffer);
+    }
+
+    buffer.clear();
+  }
+
+  @Override
+  public void close() throws IOException {
+    flush();
+  }
+}
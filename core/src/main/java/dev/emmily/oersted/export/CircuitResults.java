@@ -0,0 +1,176 @@
+package dev.emmily.oersted.export;
+
+import dev.emmily.oersted.calculator.conductor.ConductorSizing;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * A batch of per-circuit calculation results kept in one primitive array per column, the unit the result
+ * writers export. Large exports reuse a batch, writing and {@link #clear() clearing} it every few thousand rows.
+ * <p>
+ * Unknown values are {@link Float#NaN}, and circuits without a thermal-magnetic breaker have a breaker rating
+ * of 0. Batches aren't thread-safe.
+ */
+public final class CircuitResults {
+  private static final int DEFAULT_CAPACITY = 1024;
+
+  public static CircuitResults create() {
+    return create(DEFAULT_CAPACITY);
+  }
+
+  /**
+   * @param capacity the amount of rows the batch holds before growing.
+   */
+  public static CircuitResults create(int capacity) {
+    return new CircuitResults(Math.max(capacity, 1));
+  }
+
+  String[] circuits;
+  float[] designCurrent;
+  float[] phase;
+  float[] neutral;
+  float[] earth;
+  float[] voltageDrop;
+  int[] breaker;
+  float[] faultCurrent;
+  int size;
+
+  private CircuitResults(int capacity) {
+    this.circuits = new String[capacity];
+    this.designCurrent = new float[capacity];
+    this.phase = new float[capacity];
+    this.neutral = new float[capacity];
+    this.earth = new float[capacity];
+    this.voltageDrop = new float[capacity];
+    this.breaker = new int[capacity];
+    this.faultCurrent = new float[capacity];
+  }
+
+  /**
+   * Adds the results of a circuit.
+   *
+   * @param circuit       the identifier of the circuit.
+   * @param designCurrent the design current (A).
+   * @param phase         the cross-section of the phase conductors (mm²).
+   * @param neutral       the cross-section of the neutral conductor (mm²).
+   * @param earth         the cross-section of the protective earth conductor (mm²).
+   * @param voltageDrop   the voltage drop, as a fraction of the supply voltage.
+   * @param breaker       the nominal current of the thermal-magnetic breaker (A).
+   * @param faultCurrent  the earth fault current (A).
+   * @throws IllegalArgumentException if the identifier of the circuit is null, the writers couldn't tell it
+   *                                  apart from an empty one.
+   */
+  public void add(String circuit,
+                  float designCurrent,
+                  float phase,
+                  float neutral,
+                  float earth,
+                  float voltageDrop,
+                  int breaker,
+                  float faultCurrent) {
+    if (circuit == null) {
+      throw new IllegalArgumentException("the results of a circuit need its identifier.");
+    }
+
+    if (size == circuits.length) {
+      resize(circuits.length * 2);
+    }
+
+    this.circuits[size] = circuit;
+    this.designCurrent[size] = designCurrent;
+    this.phase[size] = phase;
+    this.neutral[size] = neutral;
+    this.earth[size] = earth;
+    this.voltageDrop[size] = voltageDrop;
+    this.breaker[size] = breaker;
+    this.faultCurrent[size] = faultCurrent;
+    size++;
+  }
+
+  /**
+   * Adds the results of a sized circuit.
+   *
+   * @param sizing       the cross-sections of the circuit.
+   * @param voltageDrop  the voltage drop, as a fraction of the supply voltage.
+   * @param breaker      the nominal current of the thermal-magnetic breaker (A).
+   * @param faultCurrent the earth fault current (A).
+   * @throws IllegalArgumentException if the sizing has no circuit identifier.
+   */
+  public void add(ConductorSizing sizing, float voltageDrop, int breaker, float faultCurrent) {
+    add(
+      sizing.circuit(),
+      sizing.designCurrent(),
+      sizing.phase(),
+      sizing.neutral(),
+      sizing.earth(),
+      voltageDrop,
+      breaker,
+      faultCurrent
+    );
+  }
+
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Removes every row, keeping the arrays for the next ones.
+   */
+  public void clear() {
+    Arrays.fill(circuits, 0, size, null);
+    size = 0;
+  }
+
+  public String circuit(int row) {
+    return circuits[Objects.checkIndex(row, size)];
+  }
+
+  public float designCurrent(int row) {
+    return designCurrent[Objects.checkIndex(row, size)];
+  }
+
+  public float phase(int row) {
+    return phase[Objects.checkIndex(row, size)];
+  }
+
+  public float neutral(int row) {
+    return neutral[Objects.checkIndex(row, size)];
+  }
+
+  public float earth(int row) {
+    return earth[Objects.checkIndex(row, size)];
+  }
+
+  public float voltageDrop(int row) {
+    return voltageDrop[Objects.checkIndex(row, size)];
+  }
+
+  public int breaker(int row) {
+    return breaker[Objects.checkIndex(row, size)];
+  }
+
+  public float faultCurrent(int row) {
+    return faultCurrent[Objects.checkIndex(row, size)];
+  }
+
+  /**
+   * Makes room for the given amount of rows, used by the reader to fill whole columns at once.
+   */
+  void ensureCapacity(int capacity) {
+    if (capacity > circuits.length) {
+      resize(Math.max(capacity, circuits.length * 2));
+    }
+  }
+
+  private void resize(int capacity) {
+    circuits = Arrays.copyOf(circuits, capacity);
+    designCurrent = Arrays.copyOf(designCurrent, capacity);
+    phase = Arrays.copyOf(phase, capacity);
+    neutral = Arrays.copyOf(neutral, capacity);
+    earth = Arrays.copyOf(earth, capacity);
+    voltageDrop = Arrays.copyOf(voltageDrop, capacity);
+    breaker = Arrays.copyOf(breaker, capacity);
+    faultCurrent = Arrays.copyOf(faultCurrent, capacity);
+  }
+}
@@ -0,0 +1,45 @@
+package dev.emmily.oersted.export;
+
+/**
+ * Describes the layout of the binary columnar result format.
+ * <p>
+ * A file is a fixed-size header followed by one block per written batch, and every block stores each column
+ * contiguously, so a reader can load a whole column with a single bulk copy:
+ * <pre>
+ *   header          32 bytes
+ *   block
+ *     rows          int
+ *     id bytes      int
+ *     id offsets    (rows + 1) ints into the id data
+ *     id data       the UTF-8 identifiers of the circuits
+ *     columns       rows floats or ints per column, in {@link CircuitResults} order
+ * </pre>
+ * The total amount of rows and blocks is written to the header when the writer is closed. All values are
+ * big-endian.
+ */
+final class ColumnarResultFormat {
+  static final int MAGIC = 0x4F455252; // "OERR"
+  static final short VERSION = 1;
+  static final short COLUMNS = 7;
+
+  // Header
+  static final int HEADER_SIZE = 32;
+  static final int HEADER_MAGIC = 0;
+  static final int HEADER_VERSION = 4;
+  static final int HEADER_COLUMNS = 6;
+  static final int HEADER_ROWS = 8;
+  static final int HEADER_BLOCKS = 16;
+
+  // Block
+  static final int BLOCK_HEADER_SIZE = 8;
+
+  private ColumnarResultFormat() {
+  }
+
+  /**
+   * Returns the size of a block after its header.
+   */
+  static long blockSize(int rows, int idBytes) {
+    return (long) (rows + 1) * Integer.BYTES + idBytes + (long) rows * COLUMNS * Float.BYTES;
+  }
+}
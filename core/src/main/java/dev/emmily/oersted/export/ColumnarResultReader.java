@@ -0,0 +1,126 @@
+package dev.emmily.oersted.export;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+
+import static dev.emmily.oersted.export.ColumnarResultFormat.*;
+
+/**
+ * Reads files written by a {@link ColumnarResultWriter}, mapping one block at a time and bulk-copying its
+ * columns into a {@link CircuitResults} batch.
+ *
+ * @see ColumnarResultFormat
+ */
+public final class ColumnarResultReader {
+  private ColumnarResultReader() {
+  }
+
+  /**
+   * Reads every row of a file into a single batch.
+   *
+   * @param file the source file.
+   * @return the results of the file.
+   * @throws IOException if the file can't be read or isn't a columnar result file.
+   */
+  public static CircuitResults read(Path file) throws IOException {
+    CircuitResults results = CircuitResults.create();
+    read(file, results, null);
+    return results;
+  }
+
+  /**
+   * Streams the blocks of a file, one batch per block. The same batch is refilled for every block, so it must
+   * not be kept by the consumer.
+   *
+   * @param file   the source file.
+   * @param blocks the consumer of the blocks.
+   * @throws IOException if the file can't be read or isn't a columnar result file.
+   */
+  public static void read(Path file, Consumer<CircuitResults> blocks) throws IOException {
+    read(file, CircuitResults.create(), blocks);
+  }
+
+  /**
+   * Reads the blocks of a file into the batch, which is handed to the consumer after every block, or
+   * accumulates every block if there is no consumer.
+   */
+  private static void read(Path file, CircuitResults results, Consumer<CircuitResults> blocks) throws IOException {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+
+      if (header.getInt(HEADER_MAGIC) != MAGIC) {
+        throw new IOException("not a columnar result file");
+      }
+
+      short version = header.getShort(HEADER_VERSION);
+
+      if (version != VERSION) {
+        throw new IOException("unsupported columnar result version " + version);
+      }
+
+      int blockCount = header.getInt(HEADER_BLOCKS);
+      long position = HEADER_SIZE;
+
+      for (int block = 0; block < blockCount; block++) {
+        ByteBuffer blockHeader = channel.map(FileChannel.MapMode.READ_ONLY, position, BLOCK_HEADER_SIZE);
+        int rows = blockHeader.getInt(0);
+        int idBytes = blockHeader.getInt(Integer.BYTES);
+        long size = blockSize(rows, idBytes);
+        position += BLOCK_HEADER_SIZE;
+
+        if (size > Integer.MAX_VALUE) {
+          throw new IOException("blocks larger than 2 GiB are not supported: " + file);
+        }
+
+        if (blocks != null) {
+          results.clear();
+        }
+
+        readBlock(channel.map(FileChannel.MapMode.READ_ONLY, position, size), rows, idBytes, results);
+        position += size;
+
+        if (blocks != null) {
+          blocks.accept(results);
+        }
+      }
+    }
+  }
+
+  private static void readBlock(ByteBuffer block, int rows, int idBytes, CircuitResults results) {
+    int first = results.size;
+    results.ensureCapacity(first + rows);
+
+    int[] idOffsets = new int[rows + 1];
+    block.asIntBuffer().get(idOffsets);
+    block.position((rows + 1) * Integer.BYTES);
+
+    byte[] ids = new byte[idBytes];
+    block.get(ids);
+
+    for (int row = 0; row < rows; row++) {
+      int start = idOffsets[row];
+      results.circuits[first + row] = new String(ids, start, idOffsets[row + 1] - start, StandardCharsets.UTF_8);
+    }
+
+    getFloats(block, results.designCurrent, first, rows);
+    getFloats(block, results.phase, first, rows);
+    getFloats(block, results.neutral, first, rows);
+    getFloats(block, results.earth, first, rows);
+    getFloats(block, results.voltageDrop, first, rows);
+    block.asIntBuffer().get(results.breaker, first, rows);
+    block.position(block.position() + rows * Integer.BYTES);
+    getFloats(block, results.faultCurrent, first, rows);
+
+    results.size = first + rows;
+  }
+
+  private static void getFloats(ByteBuffer block, float[] column, int offset, int rows) {
+    block.asFloatBuffer().get(column, offset, rows);
+    block.position(block.position() + rows * Float.BYTES);
+  }
+}
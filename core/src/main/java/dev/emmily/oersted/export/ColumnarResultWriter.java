@@ -0,0 +1,138 @@
+package dev.emmily.oersted.export;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static dev.emmily.oersted.export.ColumnarResultFormat.*;
+
+/**
+ * Streams {@link CircuitResults} to a file in the binary columnar result format, one block per batch.
+ * <p>
+ * The columns of a batch are bulk-copied into a direct buffer written to the file channel, so exports run at
+ * the speed of the disk. Only the header is written when the writer is closed.
+ *
+ * @see ColumnarResultFormat
+ * @see ColumnarResultReader
+ */
+public class ColumnarResultWriter implements Closeable {
+  /**
+   * Writes a batch to the given file, replacing it if it already exists.
+   *
+   * @param file    the target file.
+   * @param results the results to be written.
+   * @throws IOException if the file can't be written.
+   */
+  public static void write(Path file, CircuitResults results) throws IOException {
+    try (ColumnarResultWriter writer = new ColumnarResultWriter(file)) {
+      writer.write(results);
+    }
+  }
+
+  private final FileChannel channel;
+  private final ChannelOutput output;
+  private int[] idOffsets = new int[1025];
+  private long rows;
+  private int blocks;
+  private boolean closed;
+
+  /**
+   * Opens a writer over the given file, replacing it if it already exists.
+   *
+   * @param file the target file.
+   * @throws IOException if the file can't be opened.
+   */
+  public ColumnarResultWriter(Path file) throws IOException {
+    this.channel = FileChannel.open(
+      file,
+      StandardOpenOption.CREATE,
+      StandardOpenOption.WRITE,
+      StandardOpenOption.TRUNCATE_EXISTING
+    );
+    this.output = new ChannelOutput(channel);
+    // the header is written on close
+    output.reserve(HEADER_SIZE).put(new byte[HEADER_SIZE]);
+  }
+
+  /**
+   * Writes a batch as a block, the batch can be cleared and reused afterwards.
+   *
+   * @param results the results to be written.
+   * @throws IOException if the file can't be written.
+   */
+  public void write(CircuitResults results) throws IOException {
+    int size = results.size;
+
+    if (size == 0) {
+      return;
+    }
+
+    if (idOffsets.length < size + 1) {
+      idOffsets = new int[Math.max(size + 1, idOffsets.length * 2)];
+    }
+
+    int idBytes = 0;
+
+    for (int row = 0; row < size; row++) {
+      idOffsets[row] = idBytes;
+      idBytes += ChannelOutput.utf8Length(results.circuits[row]);
+    }
+
+    idOffsets[size] = idBytes;
+
+    output.putInt(size);
+    output.putInt(idBytes);
+    output.putInts(idOffsets, size + 1);
+
+    for (int row = 0; row < size; row++) {
+      output.putUtf8(results.circuits[row]);
+    }
+
+    output.putFloats(results.designCurrent, size);
+    output.putFloats(results.phase, size);
+    output.putFloats(results.neutral, size);
+    output.putFloats(results.earth, size);
+    output.putFloats(results.voltageDrop, size);
+    output.putInts(results.breaker, size);
+    output.putFloats(results.faultCurrent, size);
+
+    rows += size;
+    blocks++;
+  }
+
+  /**
+   * @return the amount of rows written so far.
+   */
+  public long count() {
+    return rows;
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (closed) {
+      return;
+    }
+
+    closed = true;
+
+    try {
+      output.close();
+
+      ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE)
+        .putInt(HEADER_MAGIC, MAGIC)
+        .putShort(HEADER_VERSION, VERSION)
+        .putShort(HEADER_COLUMNS, COLUMNS)
+        .putLong(HEADER_ROWS, rows)
+        .putInt(HEADER_BLOCKS, blocks);
+
+      for (long position = 0; header.hasRemaining(); ) {
+        position += channel.write(header, position);
+      }
+    } finally {
+      channel.close();
+    }
+  }
+}
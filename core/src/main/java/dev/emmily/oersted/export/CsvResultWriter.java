@@ -0,0 +1,118 @@
+package dev.emmily.oersted.export;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Streams {@link CircuitResults} to a CSV file with the columns {@code circuit}, {@code design current} (A),
+ * {@code phase}, {@code neutral} and {@code earth} (mm²), {@code voltage drop} (fraction of the supply voltage),
+ * {@code breaker} (A) and {@code fault current} (A).
+ * <p>
+ * Rows are encoded straight from the columns of the batch into a direct buffer written to the file channel,
+ * without building a string per row. Numbers are written with a fixed amount of decimals, and unknown values
+ * are left empty.
+ */
+public class CsvResultWriter implements Closeable {
+  private static final String HEADER = "circuit,design current,phase,neutral,earth,voltage drop,breaker,fault current\n";
+
+  /**
+   * Writes a batch to the given file, replacing it if it already exists.
+   *
+   * @param file    the target file.
+   * @param results the results to be written.
+   * @throws IOException if the file can't be written.
+   */
+  public static void write(Path file, CircuitResults results) throws IOException {
+    try (CsvResultWriter writer = new CsvResultWriter(file)) {
+      writer.write(results);
+    }
+  }
+
+  private final FileChannel channel;
+  private final ChannelOutput output;
+  private long count;
+
+  /**
+   * Opens a writer over the given file, replacing it if it already exists, and writes the header.
+   *
+   * @param file the target file.
+   * @throws IOException if the file can't be opened.
+   */
+  public CsvResultWriter(Path file) throws IOException {
+    this.channel = FileChannel.open(
+      file,
+      StandardOpenOption.CREATE,
+      StandardOpenOption.WRITE,
+      StandardOpenOption.TRUNCATE_EXISTING
+    );
+    this.output = new ChannelOutput(channel);
+    output.putUtf8(HEADER);
+  }
+
+  /**
+   * Writes every row of a batch, which can be cleared and reused afterwards.
+   *
+   * @param results the results to be written.
+   * @throws IOException if the file can't be written.
+   */
+  public void write(CircuitResults results) throws IOException {
+    for (int row = 0; row < results.size; row++) {
+      putCircuit(results.circuits[row]);
+      output.putByte(',');
+      output.putDecimal(results.designCurrent[row], 2);
+      output.putByte(',');
+      output.putDecimal(results.phase[row], 2);
+      output.putByte(',');
+      output.putDecimal(results.neutral[row], 2);
+      output.putByte(',');
+      output.putDecimal(results.earth[row], 2);
+      output.putByte(',');
+      output.putDecimal(results.voltageDrop[row], 5);
+      output.putByte(',');
+
+      if (results.breaker[row] > 0) {
+        output.putLong(results.breaker[row]);
+      }
+
+      output.putByte(',');
+      output.putDecimal(results.faultCurrent[row], 2);
+      output.putByte('\n');
+    }
+
+    count += results.size;
+  }
+
+  /**
+   * @return the amount of rows written so far.
+   */
+  public long count() {
+    return count;
+  }
+
+  private void putCircuit(String circuit) throws IOException {
+    for (int i = 0; i < circuit.length(); i++) {
+      char character = circuit.charAt(i);
+
+      if (character == ',' || character == '"' || character == '\n' || character == '\r') {
+        output.putByte('"');
+        output.putUtf8(circuit.replace("\"", "\"\""));
+        output.putByte('"');
+        return;
+      }
+    }
+
+    output.putUtf8(circuit);
+  }
+
+  @Override
+  public void close() throws IOException {
+    try {
+      output.close();
+    } finally {
+      channel.close();
+    }
+  }
+}
@@ -0,0 +1,157 @@
+package dev.emmily.oersted.hierarchy;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A snapshot of hierarchical elements indexed into dense ordinals with contiguous sibling ranges, so the tree
+ * can be walked and split into fork/join tasks without touching maps.
+ * <p>
+ * Elements keep the ordinal of their position in the given array. A virtual root, with the last ordinal, holds
+ * the elements whose parent is {@link Hierarchical#PARENT}, themselves or isn't part of the forest. Elements
+ * whose parents form a cycle aren't reachable from the root.
+ *
+ * @param <T> the type of the elements of the forest.
+ */
+public final class HierarchicalForest<T extends Hierarchical> {
+  private final T[] elements;
+  private final Map<String, Integer> ordinals;
+  private final int root;
+  private final int[] parents;
+  private final int[] childStart;
+  private final int[] children;
+  private final int[] subtreeSizes;
+  private final long[] weights;
+
+  /**
+   * @param elements the elements of the forest, the array is kept and must not be modified afterwards.
+   */
+  public HierarchicalForest(T[] elements) {
+    this.elements = elements;
+    this.root = elements.length;
+    this.ordinals = new HashMap<>((int) (elements.length / 0.75f) + 1);
+
+    for (int i = 0; i < elements.length; i++) {
+      ordinals.put(elements[i].id(), i);
+    }
+
+    this.parents = new int[elements.length];
+    this.childStart = new int[elements.length + 3];
+
+    for (int i = 0; i < elements.length; i++) {
+      String parentId = elements[i].parent();
+      Integer parent = ordinals.get(parentId);
+      parents[i] = parent == null || parent == i || Hierarchical.PARENT.equals(parentId) ? root : parent;
+      childStart[parents[i] + 2]++;
+    }
+
+    for (int i = 2; i < childStart.length; i++) {
+      childStart[i] += childStart[i - 1];
+    }
+
+    this.children = new int[elements.length];
+
+    for (int i = 0; i < elements.length; i++) {
+      children[childStart[parents[i] + 1]++] = i;
+    }
+
+    this.subtreeSizes = computeSubtreeSizes();
+    this.weights = new long[children.length + 1];
+
+    for (int i = 0; i < children.length; i++) {
+      weights[i + 1] = weights[i] + subtreeSizes[children[i]];
+    }
+  }
+
+  public T[] elements() {
+    return elements;
+  }
+
+  public T element(int ordinal) {
+    return elements[ordinal];
+  }
+
+  /**
+   * @return the ordinal of an element, or {@code -1} if it isn't part of the forest.
+   */
+  public int ordinal(String id) {
+    Integer ordinal = ordinals.get(id);
+    return ordinal == null ? -1 : ordinal;
+  }
+
+  /**
+   * @return the ordinals of the elements by id, without the virtual root.
+   */
+  public Map<String, Integer> ordinals() {
+    return Collections.unmodifiableMap(ordinals);
+  }
+
+  public int root() {
+    return root;
+  }
+
+  /**
+   * @return the ordinal of the parent of every element.
+   */
+  public int[] parents() {
+    return parents;
+  }
+
+  /**
+   * @return the start of the children of every node in {@link #children()}, the children of a node end where
+   * the ones of the next node start.
+   */
+  public int[] childStart() {
+    return childStart;
+  }
+
+  public int[] children() {
+    return children;
+  }
+
+  public boolean isLeaf(int node) {
+    return childStart[node] == childStart[node + 1];
+  }
+
+  /**
+   * @return the amount of elements under every node, including itself, or {@code 0} for elements that
+   * aren't reachable from the root.
+   */
+  public int[] subtreeSizes() {
+    return subtreeSizes;
+  }
+
+  /**
+   * @return the amount of elements under a range of siblings of {@link #children()}, including themselves.
+   */
+  public long weight(int from, int to) {
+    return weights[to] - weights[from];
+  }
+
+  private int[] computeSubtreeSizes() {
+    int[] order = new int[elements.length + 1];
+    int[] sizes = new int[elements.length + 1];
+    int size = 0;
+    order[size++] = root;
+
+    for (int i = 0; i < size; i++) {
+      int node = order[i];
+
+      for (int child = childStart[node]; child < childStart[node + 1]; child++) {
+        order[size++] = children[child];
+      }
+    }
+
+    for (int i = size - 1; i >= 0; i--) {
+      int node = order[i];
+      sizes[node] = 1;
+
+      for (int child = childStart[node]; child < childStart[node + 1]; child++) {
+        sizes[node] += sizes[children[child]];
+      }
+    }
+
+    return sizes;
+  }
+}
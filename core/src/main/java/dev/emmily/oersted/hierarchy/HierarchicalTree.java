@@ -1,5 +1,10 @@
 package dev.emmily.oersted.hierarchy;
 
+import dev.emmily.oersted.jfr.TreeTraversalEvent;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -75,6 +80,15 @@ public class HierarchicalTree<T extends Hierarchical> {
     return object;
   }
 
+  /**
+   * Returns every element of the hierarchy.
+   *
+   * @return an unmodifiable view of the elements.
+   */
+  public Collection<T> elements() {
+    return Collections.unmodifiableCollection(tree.values());
+  }
+
   /**
    * Retrieves the parent element of a given element by its ID.
    * If the element is the root (i.e., it has no parent), the element itself is returned.
@@ -118,11 +132,23 @@ public class HierarchicalTree<T extends Hierarchical> {
    * @return a list of child elements.
    */
   public List<T> getChildren(String id) {
-    return tree
+    TreeTraversalEvent event = new TreeTraversalEvent();
+    event.begin();
+
+    List<T> children = tree
       .values()
       .stream()
       .filter(object -> object.parent().equals(id))
       .toList();
+
+    if (event.shouldCommit()) {
+      event.operation = "getChildren";
+      event.element = id;
+      event.visited = tree.size();
+      event.commit();
+    }
+
+    return children;
   }
 
   /**
@@ -134,4 +160,30 @@ public class HierarchicalTree<T extends Hierarchical> {
   public List<T> getChildren(T object) {
     return this.getChildren(object.id());
   }
+
+  /**
+   * Groups every element of the hierarchy by the identifier of its parent in a single pass.
+   * Prefer this over repeated calls to {@link #getChildren(String)}, which scan the whole tree each time.
+   * Root elements are grouped under {@link Hierarchical#PARENT}.
+   *
+   * @return a map from parent identifiers to their children, leaves have no entry.
+   */
+  public Map<String, List<T>> groupByParent() {
+    TreeTraversalEvent event = new TreeTraversalEvent();
+    event.begin();
+
+    Map<String, List<T>> children = new HashMap<>();
+
+    for (T object : tree.values()) {
+      children.computeIfAbsent(object.parent(), parent -> new ArrayList<>()).add(object);
+    }
+
+    if (event.shouldCommit()) {
+      event.operation = "groupByParent";
+      event.visited = tree.size();
+      event.commit();
+    }
+
+    return children;
+  }
 }
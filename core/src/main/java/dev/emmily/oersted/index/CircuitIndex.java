@@ -0,0 +1,449 @@
+package dev.emmily.oersted.index;
+
+import dev.emmily.oersted.circuit.Circuit;
+import dev.emmily.oersted.circuit.conductor.Conductor;
+import dev.emmily.oersted.circuit.conduit.Conduit;
+import dev.emmily.oersted.circuit.protection.CircuitBreaker;
+import dev.emmily.oersted.circuit.protection.ResidualCurrentCircuitBreaker;
+import dev.emmily.oersted.circuit.protection.ThermalMagneticCircuitBreaker;
+import dev.emmily.oersted.hierarchy.HierarchicalForest;
+import dev.emmily.oersted.hierarchy.HierarchicalTree;
+import dev.emmily.oersted.installation.ElectricalInstallation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Secondary indexes over the circuits of a {@link HierarchicalTree}, answering queries such as
+ * "every lighting circuit in a pipe with aluminium PVC conductors under board X" without scanning the tree.
+ * <p>
+ * Circuits are addressed by dense ordinals, and every indexed attribute keeps one {@link BitSet} per value,
+ * so a query is the intersection of a handful of bitsets. Ordinals are laid out in depth-first order, which
+ * makes every subtree a contiguous range of ordinals; the layout is rebuilt lazily by the first subtree query
+ * after the hierarchy changes, while attribute-only queries never need it.
+ * <p>
+ * The tree must be edited through {@link #put(Circuit)} and {@link #remove(String)} to keep the indexes
+ * current. This class is not thread-safe.
+ */
+public class CircuitIndex {
+  private static final Circuit.CircuitType[] CIRCUIT_TYPES = Circuit.CircuitType.values();
+  private static final Conduit.Type[] CONDUIT_TYPES = Conduit.Type.values();
+  private static final Conductor.Material[] MATERIALS = Conductor.Material.values();
+  private static final ThermalMagneticCircuitBreaker.TripCurve[] TRIP_CURVES =
+    ThermalMagneticCircuitBreaker.TripCurve.values();
+  private static final ResidualCurrentCircuitBreaker.Type[] RESIDUAL_TYPES =
+    ResidualCurrentCircuitBreaker.Type.values();
+
+  /**
+   * Indexes the circuits of an installation. Edits made through the index are applied to its circuit tree.
+   *
+   * @param installation the installation to be indexed.
+   * @return the index of the circuits of the installation.
+   */
+  public static CircuitIndex of(ElectricalInstallation installation) {
+    return new CircuitIndex(new HierarchicalTree<>(installation.circuitTree()));
+  }
+
+  private final HierarchicalTree<Circuit> tree;
+  private final Map<String, Integer> ordinals = new HashMap<>();
+  private Circuit[] circuits = new Circuit[16];
+  private int[] subtreeEnd = new int[16];
+  private int size;
+  private boolean laidOut;
+
+  private final BitSet live = new BitSet();
+  private final BitSet[] circuitTypes = bitsets(CIRCUIT_TYPES.length);
+  private final BitSet[] conduitTypes = bitsets(CONDUIT_TYPES.length);
+  private final BitSet[] conductors = bitsets(MATERIALS.length);
+  private final BitSet[] insulators = bitsets(MATERIALS.length);
+  private final BitSet[] tripCurves = bitsets(TRIP_CURVES.length);
+  private final BitSet[] residualTypes = bitsets(RESIDUAL_TYPES.length);
+  private final Map<Class<? extends CircuitBreaker>, BitSet> breakers = new HashMap<>();
+
+  /**
+   * Indexes every circuit of the given tree.
+   *
+   * @param tree the tree to be indexed, which must only be edited through this index from now on.
+   */
+  public CircuitIndex(HierarchicalTree<Circuit> tree) {
+    this.tree = tree;
+    layOut(tree.elements().toArray(new Circuit[0]));
+  }
+
+  private static BitSet[] bitsets(int length) {
+    BitSet[] bitsets = new BitSet[length];
+    Arrays.setAll(bitsets, i -> new BitSet());
+    return bitsets;
+  }
+
+  public HierarchicalTree<Circuit> tree() {
+    return tree;
+  }
+
+  /**
+   * @return the amount of indexed circuits.
+   */
+  public int size() {
+    return ordinals.size();
+  }
+
+  /**
+   * Adds or replaces a circuit. Replacing a circuit without moving it to another parent keeps the layout.
+   *
+   * @param circuit the circuit to be added or replaced.
+   */
+  public void put(Circuit circuit) {
+    Integer ordinal = ordinals.get(circuit.id());
+    tree.add(circuit);
+
+    if (ordinal != null) {
+      Circuit previous = circuits[ordinal];
+      unindex(ordinal, previous);
+      circuits[ordinal] = circuit;
+      index(ordinal, circuit);
+      laidOut &= previous.parent().equals(circuit.parent());
+      return;
+    }
+
+    if (size == circuits.length) {
+      circuits = Arrays.copyOf(circuits, size * 2);
+      subtreeEnd = Arrays.copyOf(subtreeEnd, size * 2);
+    }
+
+    circuits[size] = circuit;
+    ordinals.put(circuit.id(), size);
+    index(size++, circuit);
+    laidOut = false;
+  }
+
+  /**
+   * Removes a circuit. Its children become roots.
+   *
+   * @param id the identifier of the circuit to be removed.
+   */
+  public void remove(String id) {
+    Integer ordinal = ordinals.remove(id);
+
+    if (ordinal == null) {
+      return;
+    }
+
+    tree.remove(id);
+    unindex(ordinal, circuits[ordinal]);
+    circuits[ordinal] = null;
+
+    // removing a leaf keeps every other subtree contiguous
+    laidOut &= subtreeEnd[ordinal] == ordinal + 1;
+  }
+
+  private void index(int ordinal, Circuit circuit) {
+    set(ordinal, circuit, true);
+  }
+
+  private void unindex(int ordinal, Circuit circuit) {
+    set(ordinal, circuit, false);
+  }
+
+  private void set(int ordinal, Circuit circuit, boolean value) {
+    live.set(ordinal, value);
+
+    if (circuit.circuitType() != null) {
+      circuitTypes[circuit.circuitType().ordinal()].set(ordinal, value);
+    }
+
+    if (circuit.conduit() != null && circuit.conduit().type() != null) {
+      conduitTypes[circuit.conduit().type().ordinal()].set(ordinal, value);
+    }
+
+    Conductor phase = circuit.phaseConductors();
+
+    if (phase != null) {
+      if (phase.conductor() != null) {
+        conductors[phase.conductor().ordinal()].set(ordinal, value);
+      }
+
+      if (phase.insulator() != null) {
+        insulators[phase.insulator().ordinal()].set(ordinal, value);
+      }
+    }
+
+    if (circuit.circuitBreakerTree() == null) {
+      return;
+    }
+
+    for (CircuitBreaker breaker : circuit.circuitBreakerTree().values()) {
+      breakers.computeIfAbsent(breaker.getClass(), type -> new BitSet()).set(ordinal, value);
+
+      if (breaker instanceof ThermalMagneticCircuitBreaker thermalMagnetic && thermalMagnetic.tripCurve() != null) {
+        tripCurves[thermalMagnetic.tripCurve().ordinal()].set(ordinal, value);
+      } else if (breaker instanceof ResidualCurrentCircuitBreaker residual && residual.type() != null) {
+        residualTypes[residual.type().ordinal()].set(ordinal, value);
+      }
+    }
+  }
+
+  /**
+   * Renumbers the circuits in depth-first order and rebuilds every bitset, compacting the ordinals of removed
+   * circuits.
+   */
+  private void layOut(Circuit[] elements) {
+    int count = elements.length;
+    HierarchicalForest<Circuit> forest = new HierarchicalForest<>(elements);
+    int root = forest.root();
+    int[] childStart = forest.childStart();
+    int[] children = forest.children();
+
+    circuits = new Circuit[Math.max(16, count)];
+    subtreeEnd = new int[circuits.length];
+    ordinals.clear();
+    size = 0;
+
+    // iterative pre-order, so deep feeders don't overflow the stack
+    int[] stack = new int[count + 1];
+    int[] stackOrdinal = new int[count + 1];
+    int[] next = new int[count + 1];
+    int depth = 0;
+    stack[0] = root;
+    next[0] = childStart[root];
+
+    while (depth >= 0) {
+      int element = stack[depth];
+
+      if (next[depth] == childStart[element + 1]) {
+        if (element != root) {
+          subtreeEnd[stackOrdinal[depth]] = size;
+        }
+
+        depth--;
+        continue;
+      }
+
+      int child = children[next[depth]++];
+      circuits[size] = elements[child];
+      ordinals.put(elements[child].id(), size);
+      depth++;
+      stack[depth] = child;
+      stackOrdinal[depth] = size++;
+      next[depth] = childStart[child];
+    }
+
+    // circuits whose parents form a cycle aren't reachable from any root, they are kept as leaves
+    for (int i = 0; size < count && i < count; i++) {
+      if (!ordinals.containsKey(elements[i].id())) {
+        circuits[size] = elements[i];
+        ordinals.put(elements[i].id(), size);
+        subtreeEnd[size] = ++size;
+      }
+    }
+
+    live.clear();
+    clear(circuitTypes);
+    clear(conduitTypes);
+    clear(conductors);
+    clear(insulators);
+    clear(tripCurves);
+    clear(residualTypes);
+    breakers.clear();
+
+    for (int ordinal = 0; ordinal < size; ordinal++) {
+      index(ordinal, circuits[ordinal]);
+    }
+
+    laidOut = true;
+  }
+
+  private static void clear(BitSet[] bitsets) {
+    for (BitSet bitset : bitsets) {
+      bitset.clear();
+    }
+  }
+
+  private void ensureLaidOut() {
+    if (!laidOut) {
+      List<Circuit> elements = new ArrayList<>(ordinals.size());
+
+      for (int ordinal = 0; ordinal < size; ordinal++) {
+        if (circuits[ordinal] != null) {
+          elements.add(circuits[ordinal]);
+        }
+      }
+
+      layOut(elements.toArray(new Circuit[0]));
+    }
+  }
+
+  /**
+   * Starts a query over every indexed circuit.
+   *
+   * @return a query matching every circuit until it is narrowed down.
+   */
+  public Query query() {
+    return new Query();
+  }
+
+  /**
+   * A conjunction of criteria. Several values given to the same criterion match any of them.
+   */
+  public final class Query {
+    private final List<Supplier<BitSet>> criteria = new ArrayList<>();
+    private String under;
+
+    private Query() {}
+
+    public Query circuitType(Circuit.CircuitType... types) {
+      return criterion(circuitTypes, types);
+    }
+
+    public Query conduitType(Conduit.Type... types) {
+      return criterion(conduitTypes, types);
+    }
+
+    /**
+     * Matches the circuits whose phase conductors are made of any of the given materials.
+     */
+    public Query conductor(Conductor.Material... materials) {
+      return criterion(conductors, materials);
+    }
+
+    /**
+     * Matches the circuits whose phase conductors are insulated with any of the given materials.
+     */
+    public Query insulator(Conductor.Material... materials) {
+      return criterion(insulators, materials);
+    }
+
+    /**
+     * Matches the circuits protected by a thermal-magnetic circuit breaker with any of the given curves.
+     */
+    public Query tripCurve(ThermalMagneticCircuitBreaker.TripCurve... curves) {
+      return criterion(tripCurves, curves);
+    }
+
+    /**
+     * Matches the circuits protected by a residual current circuit breaker of any of the given types.
+     */
+    public Query residualCurrentType(ResidualCurrentCircuitBreaker.Type... types) {
+      return criterion(residualTypes, types);
+    }
+
+    /**
+     * Matches the circuits protected by a circuit breaker of any of the given classes.
+     */
+    @SafeVarargs
+    public final Query breaker(Class<? extends CircuitBreaker>... types) {
+      List<Class<? extends CircuitBreaker>> requested = new ArrayList<>(types.length);
+
+      for (Class<? extends CircuitBreaker> type : types) {
+        requested.add(type);
+      }
+
+      criteria.add(() -> {
+        BitSet union = new BitSet();
+
+        for (Class<? extends CircuitBreaker> type : requested) {
+          BitSet bitset = breakers.get(type);
+
+          if (bitset != null) {
+            union.or(bitset);
+          }
+        }
+
+        return union;
+      });
+      return this;
+    }
+
+    /**
+     * Only matches the descendants of the given circuit, not the circuit itself.
+     *
+     * @param id the identifier of the circuit.
+     * @throws IllegalArgumentException if the circuit is not part of the tree.
+     */
+    public Query under(String id) {
+      if (!ordinals.containsKey(id)) {
+        throw new IllegalArgumentException("the element " + id + " is not part of the tree.");
+      }
+
+      this.under = id;
+      return this;
+    }
+
+    /**
+     * Records the requested values, their bitsets are only looked up by {@link #evaluate()}, once the layout
+     * they are numbered by is final.
+     */
+    private Query criterion(BitSet[] bitsets, Enum<?>[] values) {
+      Enum<?>[] requested = values.clone();
+
+      criteria.add(() -> {
+        if (requested.length == 1) {
+          return bitsets[requested[0].ordinal()];
+        }
+
+        BitSet union = new BitSet();
+
+        for (Enum<?> value : requested) {
+          union.or(bitsets[value.ordinal()]);
+        }
+
+        return union;
+      });
+      return this;
+    }
+
+    /**
+     * Evaluates the query. The bitsets are sliced to the subtree range first, so queries under a board
+     * only touch the words of that range.
+     *
+     * @return the matching ordinals, relative to the returned offset.
+     */
+    private Matches evaluate() {
+      int from = 0;
+      int to = size;
+
+      if (under != null) {
+        ensureLaidOut();
+        from = ordinals.get(under) + 1;
+        to = subtreeEnd[from - 1];
+      }
+
+      BitSet matches = live.get(from, to);
+
+      for (Supplier<BitSet> criterion : criteria) {
+        matches.and(criterion.get().get(from, to));
+      }
+
+      return new Matches(matches, from);
+    }
+
+    public int count() {
+      return evaluate().bits().cardinality();
+    }
+
+    public void forEach(Consumer<Circuit> action) {
+      Matches matches = evaluate();
+      BitSet bits = matches.bits();
+
+      for (int i = bits.nextSetBit(0); i >= 0; i = bits.nextSetBit(i + 1)) {
+        action.accept(circuits[matches.offset() + i]);
+      }
+    }
+
+    /**
+     * @return the matching circuits, in depth-first order when the index is laid out.
+     */
+    public List<Circuit> list() {
+      List<Circuit> list = new ArrayList<>();
+      forEach(list::add);
+      return list;
+    }
+  }
+
+  private record Matches(BitSet bits, int offset) {}
+}
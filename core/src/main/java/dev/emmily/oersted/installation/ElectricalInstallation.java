@@ -1,6 +1,7 @@
 package dev.emmily.oersted.installation;
 
 import dev.emmily.oersted.circuit.Circuit;
+import dev.emmily.oersted.hierarchy.Hierarchical;
 import dev.emmily.oersted.system.ElectricalSystem;
 
 import java.util.Map;
@@ -10,7 +11,7 @@ public record ElectricalInstallation(ElectricalSystem supplyingSystem,
   public Circuit getParent(Circuit circuit) {
     String parent = circuit.parent();
 
-    if (parent.equals(Circuit.PARENT_CIRCUIT)) {
+    if (Hierarchical.PARENT.equals(parent)) {
       return circuit;
     }
 
@@ -0,0 +1,199 @@
+package dev.emmily.oersted.installation.binary;
+
+import dev.emmily.oersted.circuit.protection.CircuitBreaker;
+import dev.emmily.oersted.circuit.protection.ResidualCurrentCircuitBreaker;
+import dev.emmily.oersted.circuit.protection.ThermalMagneticCircuitBreaker;
+import dev.emmily.oersted.circuit.protection.TransientVoltageCircuitBreaker;
+import dev.emmily.oersted.system.ElectricalSystem;
+import dev.emmily.oersted.system.singlephase.SinglePhaseElectricalSystem;
+import dev.emmily.oersted.system.threephase.ThreePhaseElectricalSystem;
+
+/**
+ * Describes the layout of the binary installation format.
+ * <p>
+ * A file is made of a fixed-size header followed by fixed-width sections, so any record can be
+ * located with plain arithmetic and read straight from a memory-mapped buffer:
+ * <pre>
+ *   header      64 bytes
+ *   circuits    {@link #CIRCUIT_SIZE} bytes per circuit, in insertion order
+ *   breakers    {@link #BREAKER_SIZE} bytes per circuit breaker, grouped by circuit
+ *   systems     {@link #SYSTEM_SIZE} bytes per electrical system
+ *   strings     (count + 1) int offsets followed by the UTF-8 data
+ *   index       one int per circuit, the circuit record indices sorted by id
+ * </pre>
+ * Strings (ids, parents, descriptions) are stored once in the string table and referenced by
+ * their index, enums are stored as ordinals and {@code -1} stands for {@code null} in both cases.
+ * All values are big-endian.
+ * <p>
+ * The encoding of enums, circuit breakers and electrical systems is public, so other formats storing the same
+ * values, like the installation journal, stay in sync with this one.
+ */
+public final class BinaryInstallationFormat {
+  static final int MAGIC = 0x4F455253; // "OERS"
+  static final short VERSION = 1;
+
+  public static final int NULL = -1;
+
+  // Header
+  static final int HEADER_SIZE = 64;
+  static final int HEADER_MAGIC = 0;
+  static final int HEADER_VERSION = 4;
+  static final int HEADER_CIRCUIT_COUNT = 8;
+  static final int HEADER_BREAKER_COUNT = 12;
+  static final int HEADER_SYSTEM_COUNT = 16;
+  static final int HEADER_STRING_COUNT = 20;
+  static final int HEADER_SUPPLYING_SYSTEM = 24;
+  static final int HEADER_BREAKERS_OFFSET = 32;
+  static final int HEADER_SYSTEMS_OFFSET = 40;
+  static final int HEADER_STRINGS_OFFSET = 48;
+  static final int HEADER_INDEX_OFFSET = 56;
+
+  // Circuit record
+  static final int CIRCUIT_SIZE = 80;
+  static final int CIRCUIT_ID = 0;
+  static final int CIRCUIT_PARENT = 4;
+  static final int CIRCUIT_DESCRIPTION = 8;
+  static final int CIRCUIT_SYSTEM = 12;
+  static final int CIRCUIT_TYPE = 16;
+  static final int CIRCUIT_SYSTEM_TYPE = 17;
+  static final int CIRCUIT_CONDUIT_MATERIAL = 18;
+  static final int CIRCUIT_CONDUIT_TYPE = 19;
+  static final int CIRCUIT_APPARENT_POWER = 20;
+  static final int CIRCUIT_CONDUIT_DIAMETER = 24;
+  static final int CIRCUIT_PHASE_CONDUCTORS = 32;
+  static final int CIRCUIT_NEUTRAL_CONDUCTOR = 44;
+  static final int CIRCUIT_EARTH_CONDUCTOR = 56;
+  static final int CIRCUIT_BREAKER_START = 68;
+  static final int CIRCUIT_BREAKER_COUNT = 72;
+  static final int CIRCUIT_FLAGS = 76;
+
+  static final int FLAG_CONDUIT = 1;
+  static final int FLAG_BREAKER_TREE = 1 << 1;
+
+  // Conductor, embedded in the circuit record
+  static final int CONDUCTOR_MATERIAL = 0;
+  static final int CONDUCTOR_INSULATOR = 1;
+  static final int CONDUCTOR_PRESENT = 2;
+  static final int CONDUCTOR_LENGTH = 4;
+  static final int CONDUCTOR_CROSS_SECTION = 8;
+
+  // Circuit breaker record
+  static final int BREAKER_SIZE = 28;
+  static final int BREAKER_KIND = 0;
+  static final int BREAKER_VARIANT = 1;
+  static final int BREAKER_POLES = 2;
+  static final int BREAKER_KEY = 4;
+  static final int BREAKER_ID = 8;
+  static final int BREAKER_PARENT = 12;
+  static final int BREAKER_NOMINAL_CURRENT = 16;
+  static final int BREAKER_FREQUENCY = 20;
+  static final int BREAKER_RATING = 24;
+
+  public static final byte KIND_THERMAL_MAGNETIC = 0;
+  public static final byte KIND_RESIDUAL_CURRENT = 1;
+  public static final byte KIND_TRANSIENT_VOLTAGE = 2;
+
+  // Electrical system record
+  static final int SYSTEM_SIZE = 24;
+  static final int SYSTEM_ID = 0;
+  static final int SYSTEM_TYPE = 4;
+  static final int SYSTEM_DISTRIBUTION = 5;
+  static final int SYSTEM_FREQUENCY = 8;
+  static final int SYSTEM_PHASE_VOLTAGE = 12;
+  static final int SYSTEM_LINE_VOLTAGE = 16;
+
+  private BinaryInstallationFormat() {
+  }
+
+  public static byte ordinal(Enum<?> value) {
+    return value == null ? NULL : (byte) value.ordinal();
+  }
+
+  public static <E extends Enum<E>> E fromOrdinal(E[] values, byte ordinal) {
+    return ordinal == NULL ? null : values[ordinal];
+  }
+
+  /**
+   * Returns the stored kind of a circuit breaker, one of the {@code KIND_*} constants.
+   *
+   * @throws IllegalArgumentException if the circuit breaker can't be stored.
+   */
+  public static byte breakerKind(CircuitBreaker breaker) {
+    if (breaker instanceof ThermalMagneticCircuitBreaker) {
+      return KIND_THERMAL_MAGNETIC;
+    } else if (breaker instanceof ResidualCurrentCircuitBreaker) {
+      return KIND_RESIDUAL_CURRENT;
+    } else if (breaker instanceof TransientVoltageCircuitBreaker) {
+      return KIND_TRANSIENT_VOLTAGE;
+    }
+
+    throw new IllegalArgumentException("unsupported circuit breaker " + breaker.getClass().getName());
+  }
+
+  /**
+   * Returns the ordinal of the trip curve or type of a circuit breaker, {@link #NULL} if it has none.
+   */
+  public static byte breakerVariant(CircuitBreaker breaker) {
+    if (breaker instanceof ThermalMagneticCircuitBreaker thermalMagnetic) {
+      return ordinal(thermalMagnetic.tripCurve());
+    } else if (breaker instanceof ResidualCurrentCircuitBreaker residualCurrent) {
+      return ordinal(residualCurrent.type());
+    }
+
+    return NULL;
+  }
+
+  /**
+   * Returns the short-circuit current or the sensitivity of a circuit breaker, {@code 0} if it has none.
+   */
+  public static int breakerRating(CircuitBreaker breaker) {
+    if (breaker instanceof ThermalMagneticCircuitBreaker thermalMagnetic) {
+      return thermalMagnetic.shortCircuitCurrent();
+    } else if (breaker instanceof ResidualCurrentCircuitBreaker residualCurrent) {
+      return residualCurrent.sensitivity();
+    }
+
+    return 0;
+  }
+
+  /**
+   * Creates a circuit breaker of the stored kind.
+   *
+   * @throws IllegalArgumentException if the kind is unknown.
+   */
+  public static CircuitBreaker createBreaker(byte kind,
+                                             byte variant,
+                                             String id,
+                                             String parent,
+                                             int nominalCurrent,
+                                             int frequency,
+                                             int poles,
+                                             int rating) {
+    return switch (kind) {
+      case KIND_THERMAL_MAGNETIC -> ThermalMagneticCircuitBreaker.create(
+        id, parent, nominalCurrent, frequency, poles, rating,
+        fromOrdinal(ThermalMagneticCircuitBreaker.TripCurve.values(), variant)
+      );
+      case KIND_RESIDUAL_CURRENT -> ResidualCurrentCircuitBreaker.create(
+        id, parent, nominalCurrent, frequency, poles, rating,
+        fromOrdinal(ResidualCurrentCircuitBreaker.Type.values(), variant)
+      );
+      case KIND_TRANSIENT_VOLTAGE -> new TransientVoltageCircuitBreaker(id, parent, nominalCurrent, frequency, poles);
+      default -> throw new IllegalArgumentException("unknown circuit breaker kind " + kind);
+    };
+  }
+
+  /**
+   * Creates the electrical system of the stored type, three-phase if the type is unknown.
+   */
+  public static ElectricalSystem createSystem(ElectricalSystem.SystemType type,
+                                              String id,
+                                              ElectricalSystem.DistributionSystem distributionSystem,
+                                              int frequency,
+                                              int phaseVoltage,
+                                              int lineVoltage) {
+    return type == ElectricalSystem.SystemType.SINGLE_PHASE
+      ? new SinglePhaseElectricalSystem(id, distributionSystem, frequency, phaseVoltage, lineVoltage)
+      : new ThreePhaseElectricalSystem(id, distributionSystem, frequency, phaseVoltage, lineVoltage);
+  }
+}
@@ -0,0 +1,271 @@
+package dev.emmily.oersted.installation.binary;
+
+import dev.emmily.oersted.circuit.Circuit;
+import dev.emmily.oersted.circuit.conductor.Conductor;
+import dev.emmily.oersted.circuit.conduit.Conduit;
+import dev.emmily.oersted.circuit.protection.CircuitBreaker;
+import dev.emmily.oersted.installation.ElectricalInstallation;
+import dev.emmily.oersted.system.ElectricalSystem;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static dev.emmily.oersted.installation.binary.BinaryInstallationFormat.*;
+
+/**
+ * Reads installations written by {@link BinaryInstallationWriter}.
+ * <p>
+ * The file is memory-mapped and decoded lazily: opening a reader only validates the header
+ * and the electrical systems, while circuits and strings are decoded on demand. Single circuits
+ * can be fetched by position or by id without touching the rest of the file.
+ * <p>
+ * Readers are safe to share between threads, since they only perform absolute reads on the mapping.
+ *
+ * @see BinaryInstallationFormat
+ */
+public class BinaryInstallationReader {
+  /**
+   * Opens the given file.
+   *
+   * @param file the file to be read.
+   * @return a reader over the file.
+   * @throws IOException if the file can't be mapped or isn't a binary installation.
+   */
+  public static BinaryInstallationReader open(Path file) throws IOException {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      if (channel.size() > Integer.MAX_VALUE) {
+        throw new IOException("files larger than 2 GiB are not supported: " + file);
+      }
+
+      return new BinaryInstallationReader(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+    }
+  }
+
+  private final ByteBuffer buffer;
+  private final int circuitCount;
+  private final int breakersOffset;
+  private final int stringsOffset;
+  private final int stringDataOffset;
+  private final int indexOffset;
+  private final String[] strings;
+  private final ElectricalSystem[] systems;
+  private final ElectricalSystem supplyingSystem;
+
+  private BinaryInstallationReader(ByteBuffer buffer) throws IOException {
+    if (buffer.capacity() < HEADER_SIZE || buffer.getInt(HEADER_MAGIC) != MAGIC) {
+      throw new IOException("not a binary installation file");
+    }
+
+    short version = buffer.getShort(HEADER_VERSION);
+
+    if (version != VERSION) {
+      throw new IOException("unsupported binary installation version " + version);
+    }
+
+    this.buffer = buffer;
+    this.circuitCount = buffer.getInt(HEADER_CIRCUIT_COUNT);
+    this.breakersOffset = (int) buffer.getLong(HEADER_BREAKERS_OFFSET);
+    this.stringsOffset = (int) buffer.getLong(HEADER_STRINGS_OFFSET);
+    this.indexOffset = (int) buffer.getLong(HEADER_INDEX_OFFSET);
+    this.strings = new String[buffer.getInt(HEADER_STRING_COUNT)];
+    this.stringDataOffset = stringsOffset + (strings.length + 1) * Integer.BYTES;
+    this.systems = new ElectricalSystem[buffer.getInt(HEADER_SYSTEM_COUNT)];
+
+    int systemsOffset = (int) buffer.getLong(HEADER_SYSTEMS_OFFSET);
+
+    for (int i = 0; i < systems.length; i++) {
+      systems[i] = readSystem(systemsOffset + i * SYSTEM_SIZE);
+    }
+
+    this.supplyingSystem = system(buffer.getInt(HEADER_SUPPLYING_SYSTEM));
+  }
+
+  /**
+   * Returns the system supplying the installation.
+   *
+   * @return the supplying system.
+   */
+  public ElectricalSystem supplyingSystem() {
+    return supplyingSystem;
+  }
+
+  /**
+   * Returns the amount of circuits stored in the file.
+   *
+   * @return the amount of circuits.
+   */
+  public int circuitCount() {
+    return circuitCount;
+  }
+
+  /**
+   * Decodes the circuit stored at the given position.
+   *
+   * @param index the position of the circuit, in the order they were written.
+   * @return the decoded circuit.
+   * @throws IndexOutOfBoundsException if there is no circuit at the given position.
+   */
+  public Circuit circuit(int index) {
+    if (index < 0 || index >= circuitCount) {
+      throw new IndexOutOfBoundsException("circuit " + index + " out of bounds for " + circuitCount + " circuits");
+    }
+
+    int record = HEADER_SIZE + index * CIRCUIT_SIZE;
+    int flags = buffer.getInt(record + CIRCUIT_FLAGS);
+    Conduit conduit = null;
+    Map<String, CircuitBreaker> breakers = null;
+
+    if ((flags & FLAG_CONDUIT) != 0) {
+      conduit = Conduit.create(
+        fromOrdinal(Conduit.Material.values(), buffer.get(record + CIRCUIT_CONDUIT_MATERIAL)),
+        fromOrdinal(Conduit.Type.values(), buffer.get(record + CIRCUIT_CONDUIT_TYPE)),
+        buffer.getDouble(record + CIRCUIT_CONDUIT_DIAMETER)
+      );
+    }
+
+    if ((flags & FLAG_BREAKER_TREE) != 0) {
+      int start = buffer.getInt(record + CIRCUIT_BREAKER_START);
+      int count = buffer.getInt(record + CIRCUIT_BREAKER_COUNT);
+
+      breakers = new LinkedHashMap<>();
+
+      for (int i = start; i < start + count; i++) {
+        int breaker = breakersOffset + i * BREAKER_SIZE;
+        breakers.put(string(buffer.getInt(breaker + BREAKER_KEY)), readBreaker(breaker));
+      }
+    }
+
+    return new Circuit(
+      string(buffer.getInt(record + CIRCUIT_ID)),
+      string(buffer.getInt(record + CIRCUIT_PARENT)),
+      string(buffer.getInt(record + CIRCUIT_DESCRIPTION)),
+      breakers,
+      conduit,
+      readConductor(record + CIRCUIT_PHASE_CONDUCTORS),
+      readConductor(record + CIRCUIT_NEUTRAL_CONDUCTOR),
+      readConductor(record + CIRCUIT_EARTH_CONDUCTOR),
+      fromOrdinal(Circuit.CircuitType.values(), buffer.get(record + CIRCUIT_TYPE)),
+      system(buffer.getInt(record + CIRCUIT_SYSTEM)),
+      fromOrdinal(ElectricalSystem.SystemType.values(), buffer.get(record + CIRCUIT_SYSTEM_TYPE)),
+      buffer.getInt(record + CIRCUIT_APPARENT_POWER)
+    );
+  }
+
+  /**
+   * Looks a circuit up by its id, using the sorted id index of the file.
+   *
+   * @param id the unique id of the circuit.
+   * @return the decoded circuit.
+   * @throws IllegalArgumentException if the file doesn't contain the circuit.
+   */
+  public Circuit circuit(String id) {
+    int low = 0;
+    int high = circuitCount - 1;
+
+    while (low <= high) {
+      int middle = (low + high) >>> 1;
+      int index = buffer.getInt(indexOffset + middle * Integer.BYTES);
+      int comparison = string(buffer.getInt(HEADER_SIZE + index * CIRCUIT_SIZE + CIRCUIT_ID)).compareTo(id);
+
+      if (comparison < 0) {
+        low = middle + 1;
+      } else if (comparison > 0) {
+        high = middle - 1;
+      } else {
+        return circuit(index);
+      }
+    }
+
+    throw new IllegalArgumentException("the circuit " + id + " is not part of the installation.");
+  }
+
+  /**
+   * Decodes the whole installation.
+   *
+   * @return the decoded installation, with its circuits in the order they were written.
+   */
+  public ElectricalInstallation readInstallation() {
+    Map<String, Circuit> circuitTree = new LinkedHashMap<>((int) (circuitCount / 0.75f) + 1);
+
+    for (int i = 0; i < circuitCount; i++) {
+      Circuit circuit = circuit(i);
+      circuitTree.put(circuit.id(), circuit);
+    }
+
+    return new ElectricalInstallation(supplyingSystem, circuitTree);
+  }
+
+  private Conductor readConductor(int offset) {
+    if (buffer.getShort(offset + CONDUCTOR_PRESENT) == 0) {
+      return null;
+    }
+
+    return new Conductor(
+      fromOrdinal(Conductor.Material.values(), buffer.get(offset + CONDUCTOR_MATERIAL)),
+      fromOrdinal(Conductor.Material.values(), buffer.get(offset + CONDUCTOR_INSULATOR)),
+      buffer.getFloat(offset + CONDUCTOR_LENGTH),
+      buffer.getFloat(offset + CONDUCTOR_CROSS_SECTION)
+    ).intern();
+  }
+
+  private CircuitBreaker readBreaker(int offset) {
+    String id = string(buffer.getInt(offset + BREAKER_ID));
+    String parent = string(buffer.getInt(offset + BREAKER_PARENT));
+    int nominalCurrent = buffer.getInt(offset + BREAKER_NOMINAL_CURRENT);
+    int frequency = buffer.getInt(offset + BREAKER_FREQUENCY);
+    int poles = buffer.getShort(offset + BREAKER_POLES);
+
+    return createBreaker(
+      buffer.get(offset + BREAKER_KIND),
+      buffer.get(offset + BREAKER_VARIANT),
+      id,
+      parent,
+      nominalCurrent,
+      frequency,
+      poles,
+      buffer.getInt(offset + BREAKER_RATING)
+    );
+  }
+
+  private ElectricalSystem readSystem(int offset) {
+    return createSystem(
+      fromOrdinal(ElectricalSystem.SystemType.values(), buffer.get(offset + SYSTEM_TYPE)),
+      string(buffer.getInt(offset + SYSTEM_ID)),
+      fromOrdinal(ElectricalSystem.DistributionSystem.values(), buffer.get(offset + SYSTEM_DISTRIBUTION)),
+      buffer.getInt(offset + SYSTEM_FREQUENCY),
+      buffer.getInt(offset + SYSTEM_PHASE_VOLTAGE),
+      buffer.getInt(offset + SYSTEM_LINE_VOLTAGE)
+    );
+  }
+
+  private ElectricalSystem system(int index) {
+    return index == NULL ? null : systems[index];
+  }
+
+  private String string(int index) {
+    if (index == NULL) {
+      return null;
+    }
+
+    // racing threads may decode the same string twice, which is harmless
+    String string = strings[index];
+
+    if (string == null) {
+      int start = buffer.getInt(stringsOffset + index * Integer.BYTES);
+      int end = buffer.getInt(stringsOffset + (index + 1) * Integer.BYTES);
+      byte[] bytes = new byte[end - start];
+
+      buffer.get(stringDataOffset + start, bytes);
+      string = new String(bytes, StandardCharsets.UTF_8);
+      strings[index] = string;
+    }
+
+    return string;
+  }
+}
@@ -0,0 +1,396 @@
+package dev.emmily.oersted.installation.binary;
+
+import dev.emmily.oersted.circuit.Circuit;
+import dev.emmily.oersted.circuit.conductor.Conductor;
+import dev.emmily.oersted.circuit.conduit.Conduit;
+import dev.emmily.oersted.circuit.protection.CircuitBreaker;
+import dev.emmily.oersted.installation.ElectricalInstallation;
+import dev.emmily.oersted.system.ElectricalSystem;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static dev.emmily.oersted.installation.binary.BinaryInstallationFormat.*;
+
+/**
+ * Writes an {@link ElectricalInstallation} in the binary installation format.
+ * <p>
+ * Circuits are streamed to the file as they are written, so installations don't need to be
+ * fully materialized in memory. Only the string table, the electrical systems and the id index
+ * are kept until the writer is closed, which is when the trailing sections and the header are written.
+ *
+ * @see BinaryInstallationFormat
+ * @see BinaryInstallationReader
+ */
+public class BinaryInstallationWriter implements Closeable {
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  /**
+   * Writes the whole installation to the given file, replacing it if it already exists.
+   *
+   * @param file         the target file.
+   * @param installation the installation to be written.
+   * @throws IOException if the file can't be written.
+   */
+  public static void write(Path file, ElectricalInstallation installation) throws IOException {
+    try (BinaryInstallationWriter writer = new BinaryInstallationWriter(file, installation.supplyingSystem())) {
+      for (Circuit circuit : installation.circuitTree().values()) {
+        writer.write(circuit);
+      }
+    }
+  }
+
+  private final FileChannel channel;
+  private final FileChannel breakerChannel;
+  private final ByteBuffer circuitBuffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+  private final ByteBuffer breakerBuffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+  private final Map<String, Integer> stringIndex = new HashMap<>();
+  private final List<String> strings = new ArrayList<>();
+  private final Map<ElectricalSystem, Integer> systemIndex = new IdentityHashMap<>();
+  private final List<ElectricalSystem> systems = new ArrayList<>();
+  private final int supplyingSystem;
+
+  private int[] circuitIds = new int[1024];
+  private int circuitCount;
+  private int breakerCount;
+  private boolean closed;
+
+  /**
+   * Opens a writer over the given file, replacing it if it already exists.
+   *
+   * @param file             the target file.
+   * @param supplyingSystem  the system supplying the installation.
+   * @throws IOException if the file can't be opened.
+   */
+  public BinaryInstallationWriter(Path file, ElectricalSystem supplyingSystem) throws IOException {
+    this.channel = FileChannel.open(
+      file,
+      StandardOpenOption.CREATE,
+      StandardOpenOption.TRUNCATE_EXISTING,
+      StandardOpenOption.WRITE
+    );
+    this.breakerChannel = FileChannel.open(
+      Files.createTempFile(file.toAbsolutePath().getParent(), "breakers", ".tmp"),
+      StandardOpenOption.READ,
+      StandardOpenOption.WRITE,
+      StandardOpenOption.DELETE_ON_CLOSE
+    );
+    this.supplyingSystem = systemRef(supplyingSystem);
+    this.channel.position(HEADER_SIZE);
+  }
+
+  /**
+   * Appends a circuit to the file.
+   *
+   * @param circuit the circuit to be written.
+   * @throws IOException           if the circuit can't be written.
+   * @throws IllegalStateException if the writer has already been closed.
+   */
+  public void write(Circuit circuit) throws IOException {
+    if (closed) {
+      throw new IllegalStateException("the writer has already been closed");
+    }
+
+    if (circuitBuffer.remaining() < CIRCUIT_SIZE) {
+      flush(circuitBuffer, channel);
+    }
+
+    int id = stringRef(circuit.id());
+    int record = circuitBuffer.position();
+    Map<String, CircuitBreaker> breakers = circuit.circuitBreakerTree();
+    Conduit conduit = circuit.conduit();
+    int flags = 0;
+
+    circuitBuffer
+      .putInt(record + CIRCUIT_ID, id)
+      .putInt(record + CIRCUIT_PARENT, stringRef(circuit.parent()))
+      .putInt(record + CIRCUIT_DESCRIPTION, stringRef(circuit.description()))
+      .putInt(record + CIRCUIT_SYSTEM, systemRef(circuit.electricalSystem()))
+      .put(record + CIRCUIT_TYPE, ordinal(circuit.circuitType()))
+      .put(record + CIRCUIT_SYSTEM_TYPE, ordinal(circuit.circuitSystemType()))
+      .putInt(record + CIRCUIT_APPARENT_POWER, circuit.apparentPower())
+      .putInt(record + CIRCUIT_BREAKER_START, breakerCount);
+
+    if (conduit != null) {
+      flags |= FLAG_CONDUIT;
+      circuitBuffer
+        .put(record + CIRCUIT_CONDUIT_MATERIAL, ordinal(conduit.material()))
+        .put(record + CIRCUIT_CONDUIT_TYPE, ordinal(conduit.type()))
+        .putDouble(record + CIRCUIT_CONDUIT_DIAMETER, conduit.diameter());
+    } else {
+      circuitBuffer
+        .put(record + CIRCUIT_CONDUIT_MATERIAL, (byte) NULL)
+        .put(record + CIRCUIT_CONDUIT_TYPE, (byte) NULL)
+        .putDouble(record + CIRCUIT_CONDUIT_DIAMETER, 0);
+    }
+
+    putConductor(record + CIRCUIT_PHASE_CONDUCTORS, circuit.phaseConductors());
+    putConductor(record + CIRCUIT_NEUTRAL_CONDUCTOR, circuit.neutralConductor());
+    putConductor(record + CIRCUIT_EARTH_CONDUCTOR, circuit.earthConductor());
+
+    int written = 0;
+
+    if (breakers != null) {
+      flags |= FLAG_BREAKER_TREE;
+
+      for (Map.Entry<String, CircuitBreaker> entry : breakers.entrySet()) {
+        writeBreaker(entry.getKey(), entry.getValue());
+        written++;
+      }
+    }
+
+    circuitBuffer
+      .putInt(record + CIRCUIT_BREAKER_COUNT, written)
+      .putInt(record + CIRCUIT_FLAGS, flags)
+      .position(record + CIRCUIT_SIZE);
+
+    if (circuitCount == circuitIds.length) {
+      circuitIds = Arrays.copyOf(circuitIds, circuitCount * 2);
+    }
+
+    circuitIds[circuitCount++] = id;
+  }
+
+  /**
+   * Writes the trailing sections and the header, and closes the file.
+   *
+   * @throws IOException if the file can't be completed.
+   */
+  @Override
+  public void close() throws IOException {
+    if (closed) {
+      return;
+    }
+
+    closed = true;
+
+    try (channel; breakerChannel) {
+      flush(circuitBuffer, channel);
+      flush(breakerBuffer, breakerChannel);
+
+      long breakersOffset = channel.position();
+      long size = breakerChannel.size();
+
+      for (long transferred = 0; transferred < size; ) {
+        transferred += breakerChannel.transferTo(transferred, size - transferred, channel);
+      }
+
+      channel.position(breakersOffset + size);
+
+      long systemsOffset = channel.position();
+      writeSystems();
+
+      long stringsOffset = channel.position();
+      writeStrings();
+
+      long indexOffset = channel.position();
+      writeIndex();
+
+      ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE)
+        .putInt(HEADER_MAGIC, MAGIC)
+        .putShort(HEADER_VERSION, VERSION)
+        .putInt(HEADER_CIRCUIT_COUNT, circuitCount)
+        .putInt(HEADER_BREAKER_COUNT, breakerCount)
+        .putInt(HEADER_SYSTEM_COUNT, systems.size())
+        .putInt(HEADER_STRING_COUNT, strings.size())
+        .putInt(HEADER_SUPPLYING_SYSTEM, supplyingSystem)
+        .putLong(HEADER_BREAKERS_OFFSET, breakersOffset)
+        .putLong(HEADER_SYSTEMS_OFFSET, systemsOffset)
+        .putLong(HEADER_STRINGS_OFFSET, stringsOffset)
+        .putLong(HEADER_INDEX_OFFSET, indexOffset);
+
+      while (header.hasRemaining()) {
+        channel.write(header, header.position());
+      }
+    }
+  }
+
+  private void putConductor(int offset, Conductor conductor) {
+    if (conductor == null) {
+      circuitBuffer
+        .put(offset + CONDUCTOR_MATERIAL, (byte) NULL)
+        .put(offset + CONDUCTOR_INSULATOR, (byte) NULL)
+        .putShort(offset + CONDUCTOR_PRESENT, (short) 0)
+        .putFloat(offset + CONDUCTOR_LENGTH, 0)
+        .putFloat(offset + CONDUCTOR_CROSS_SECTION, 0);
+      return;
+    }
+
+    circuitBuffer
+      .put(offset + CONDUCTOR_MATERIAL, ordinal(conductor.conductor()))
+      .put(offset + CONDUCTOR_INSULATOR, ordinal(conductor.insulator()))
+      .putShort(offset + CONDUCTOR_PRESENT, (short) 1)
+      .putFloat(offset + CONDUCTOR_LENGTH, conductor.length())
+      .putFloat(offset + CONDUCTOR_CROSS_SECTION, conductor.crossSection());
+  }
+
+  private void writeBreaker(String key, CircuitBreaker breaker) throws IOException {
+    if (breakerBuffer.remaining() < BREAKER_SIZE) {
+      flush(breakerBuffer, breakerChannel);
+    }
+
+    int record = breakerBuffer.position();
+
+    breakerBuffer
+      .put(record + BREAKER_KIND, breakerKind(breaker))
+      .put(record + BREAKER_VARIANT, breakerVariant(breaker))
+      .putShort(record + BREAKER_POLES, (short) breaker.poles())
+      .putInt(record + BREAKER_KEY, stringRef(key))
+      .putInt(record + BREAKER_ID, stringRef(breaker.id()))
+      .putInt(record + BREAKER_PARENT, stringRef(breaker.parent()))
+      .putInt(record + BREAKER_NOMINAL_CURRENT, breaker.nominalCurrent())
+      .putInt(record + BREAKER_FREQUENCY, breaker.frequency())
+      .putInt(record + BREAKER_RATING, breakerRating(breaker))
+      .position(record + BREAKER_SIZE);
+
+    breakerCount++;
+  }
+
+  private void writeSystems() throws IOException {
+    ByteBuffer buffer = ByteBuffer.allocate(systems.size() * SYSTEM_SIZE);
+
+    for (int i = 0; i < systems.size(); i++) {
+      ElectricalSystem system = systems.get(i);
+      int record = i * SYSTEM_SIZE;
+
+      buffer
+        .putInt(record + SYSTEM_ID, stringRef(system.getId()))
+        .put(record + SYSTEM_TYPE, ordinal(system.systemType()))
+        .put(record + SYSTEM_DISTRIBUTION, ordinal(system.distributionSystem()))
+        .putInt(record + SYSTEM_FREQUENCY, system.getFrequency())
+        .putInt(record + SYSTEM_PHASE_VOLTAGE, system.getPhaseVoltage())
+        .putInt(record + SYSTEM_LINE_VOLTAGE, system.getLineVoltage());
+    }
+
+    writeFully(buffer);
+  }
+
+  private void writeStrings() throws IOException {
+    ByteBuffer offsets = ByteBuffer.allocate((strings.size() + 1) * Integer.BYTES);
+    int offset = 0;
+
+    offsets.putInt(offset);
+
+    for (String string : strings) {
+      offset += utf8Length(string);
+      offsets.putInt(offset);
+    }
+
+    offsets.flip();
+    writeFully(offsets);
+
+    ByteBuffer data = circuitBuffer.clear();
+
+    for (String string : strings) {
+      byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+
+      if (data.remaining() < bytes.length) {
+        flush(data, channel);
+      }
+
+      if (bytes.length > data.capacity()) {
+        writeFully(ByteBuffer.wrap(bytes));
+      } else {
+        data.put(bytes);
+      }
+    }
+
+    flush(data, channel);
+  }
+
+  private void writeIndex() throws IOException {
+    Integer[] order = new Integer[circuitCount];
+
+    for (int i = 0; i < circuitCount; i++) {
+      order[i] = i;
+    }
+
+    Arrays.sort(order, (a, b) -> strings.get(circuitIds[a]).compareTo(strings.get(circuitIds[b])));
+
+    ByteBuffer data = circuitBuffer.clear();
+
+    for (int record : order) {
+      if (!data.hasRemaining()) {
+        flush(data, channel);
+      }
+
+      data.putInt(record);
+    }
+
+    flush(data, channel);
+  }
+
+  private int stringRef(String string) {
+    if (string == null) {
+      return NULL;
+    }
+
+    return stringIndex.computeIfAbsent(string, key -> {
+      strings.add(key);
+      return strings.size() - 1;
+    });
+  }
+
+  private int systemRef(ElectricalSystem system) {
+    if (system == null) {
+      return NULL;
+    }
+
+    return systemIndex.computeIfAbsent(system, key -> {
+      systems.add(key);
+      return systems.size() - 1;
+    });
+  }
+
+  private void writeFully(ByteBuffer buffer) throws IOException {
+    while (buffer.hasRemaining()) {
+      channel.write(buffer);
+    }
+  }
+
+  private static void flush(ByteBuffer buffer, FileChannel channel) throws IOException {
+    buffer.flip();
+
+    while (buffer.hasRemaining()) {
+      channel.write(buffer);
+    }
+
+    buffer.clear();
+  }
+
+  private static int utf8Length(String string) {
+    int length = 0;
+
+    for (int i = 0; i < string.length(); i++) {
+      char c = string.charAt(i);
+
+      if (c < 0x80) {
+        length++;
+      } else if (c < 0x800) {
+        length += 2;
+      } else if (Character.isHighSurrogate(c) && i + 1 < string.length() && Character.isLowSurrogate(string.charAt(i + 1))) {
+        length += 4;
+        i++;
+      } else if (Character.isSurrogate(c)) {
+        length++; // unpaired surrogates are encoded as '?'
+      } else {
+        length += 3;
+      }
+    }
+
+    return length;
+  }
+}
@@ -0,0 +1,97 @@
+package dev.emmily.oersted.installation.columnar;
+
+import dev.emmily.oersted.circuit.Circuit;
+import dev.emmily.oersted.circuit.conductor.Conductor;
+import dev.emmily.oersted.circuit.conduit.Conduit;
+import dev.emmily.oersted.hierarchy.Hierarchical;
+import dev.emmily.oersted.system.ElectricalSystem;
+
+/**
+ * A reusable flyweight over one circuit of a {@link ColumnarCircuitStore}, reading its fields straight from
+ * the columns. Moving the view to another circuit allocates nothing.
+ */
+public final class CircuitView implements Hierarchical {
+  private final ColumnarCircuitStore store;
+  private int index;
+
+  CircuitView(ColumnarCircuitStore store) {
+    this.store = store;
+  }
+
+  /**
+   * Moves the view to another circuit.
+   *
+   * @param index the index of the circuit.
+   * @return this view.
+   * @throws IndexOutOfBoundsException if the index isn't part of the store.
+   */
+  public CircuitView moveTo(int index) {
+    if (index < 0 || index >= store.size()) {
+      throw new IndexOutOfBoundsException("the index " + index + " is not part of the store.");
+    }
+
+    this.index = index;
+    return this;
+  }
+
+  public int index() {
+    return index;
+  }
+
+  @Override
+  public String id() {
+    return store.id(index);
+  }
+
+  @Override
+  public String parent() {
+    return store.parentId(index);
+  }
+
+  public int parentIndex() {
+    return store.parent(index);
+  }
+
+  public Circuit.CircuitType circuitType() {
+    return store.circuitType(index);
+  }
+
+  public ElectricalSystem electricalSystem() {
+    return store.electricalSystem(index);
+  }
+
+  public ElectricalSystem.SystemType circuitSystemType() {
+    return store.circuitSystemType(index);
+  }
+
+  public int apparentPower() {
+    return store.apparentPower(index);
+  }
+
+  public Conduit.Type conduitType() {
+    return store.conduitType(index);
+  }
+
+  public Conductor.Material material(ColumnarCircuitStore.Role role) {
+    return store.material(index, role);
+  }
+
+  public Conductor.Material insulator(ColumnarCircuitStore.Role role) {
+    return store.insulator(index, role);
+  }
+
+  public float length(ColumnarCircuitStore.Role role) {
+    return store.length(index, role);
+  }
+
+  public float crossSection(ColumnarCircuitStore.Role role) {
+    return store.crossSection(index, role);
+  }
+
+  /**
+   * Materializes the circuit the view is positioned on.
+   */
+  public Circuit toCircuit() {
+    return store.toCircuit(index);
+  }
+}
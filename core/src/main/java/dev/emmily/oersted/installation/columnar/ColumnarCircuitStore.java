@@ -0,0 +1,639 @@
+package dev.emmily.oersted.installation.columnar;
+
+import dev.emmily.oersted.circuit.Circuit;
+import dev.emmily.oersted.circuit.conductor.Conductor;
+import dev.emmily.oersted.circuit.conduit.Conduit;
+import dev.emmily.oersted.circuit.protection.CircuitBreaker;
+import dev.emmily.oersted.circuit.protection.ResidualCurrentCircuitBreaker;
+import dev.emmily.oersted.circuit.protection.ThermalMagneticCircuitBreaker;
+import dev.emmily.oersted.hierarchy.Hierarchical;
+import dev.emmily.oersted.installation.ElectricalInstallation;
+import dev.emmily.oersted.system.ElectricalSystem;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Stores circuits as a struct of arrays, keeping their numeric and enum fields off-heap in one direct
+ * {@link ByteBuffer} column per field, for models too large to keep as millions of small objects.
+ * <p>
+ * Circuits are addressed by their insertion index. Enums are stored as ordinals, with {@code -1} standing
+ * for {@code null}, and parents as the index of the parent circuit, with {@code -1} for roots. Only the ids,
+ * descriptions and the few electrical systems stay on-heap. Breaker trees following the conventions of
+ * {@link dev.emmily.oersted.installation.generator.InstallationGenerator} (a thermal-magnetic breaker
+ * {@code <circuit>-tm} and optionally a residual current breaker {@code <circuit>-rc} below it) are stored in
+ * columns too; any other tree is kept aside as is.
+ * <p>
+ * Calculators can scan the read-only column views, such as {@link #apparentPowerColumn()}, or the indexed
+ * accessors, and {@link #view()} gives a reusable flyweight over a single circuit. {@link #toCircuit(int)}
+ * materializes a circuit back. This class is not thread-safe for writes; concurrent reads are safe once every
+ * circuit has been added.
+ */
+public class ColumnarCircuitStore {
+  private static final Circuit.CircuitType[] CIRCUIT_TYPES = Circuit.CircuitType.values();
+  private static final ElectricalSystem.SystemType[] SYSTEM_TYPES = ElectricalSystem.SystemType.values();
+  private static final Conduit.Material[] CONDUIT_MATERIALS = Conduit.Material.values();
+  private static final Conduit.Type[] CONDUIT_TYPES = Conduit.Type.values();
+  private static final Conductor.Material[] MATERIALS = Conductor.Material.values();
+  private static final ThermalMagneticCircuitBreaker.TripCurve[] TRIP_CURVES =
+    ThermalMagneticCircuitBreaker.TripCurve.values();
+  private static final ResidualCurrentCircuitBreaker.Type[] RESIDUAL_TYPES =
+    ResidualCurrentCircuitBreaker.Type.values();
+
+  private static final byte NULL = -1;
+
+  // Columns
+  private static final int PARENT = 0;
+  private static final int SYSTEM = 1;
+  private static final int APPARENT_POWER = 2;
+  private static final int CIRCUIT_TYPE = 3;
+  private static final int SYSTEM_TYPE = 4;
+  private static final int FLAGS = 5;
+  private static final int CONDUIT_MATERIAL = 6;
+  private static final int CONDUIT_TYPE = 7;
+  private static final int CONDUIT_DIAMETER = 8;
+  private static final int MATERIAL = 9;
+  private static final int INSULATOR = 12;
+  private static final int LENGTH = 15;
+  private static final int CROSS_SECTION = 18;
+  private static final int POLES = 21;
+  private static final int FREQUENCY = 22;
+  private static final int TRIP_CURVE = 23;
+  private static final int NOMINAL_CURRENT = 24;
+  private static final int SHORT_CIRCUIT_CURRENT = 25;
+  private static final int RESIDUAL_TYPE = 26;
+  private static final int RESIDUAL_NOMINAL_CURRENT = 27;
+  private static final int SENSITIVITY = 28;
+
+  private static final int[] WIDTHS = {
+    Integer.BYTES, Integer.BYTES, Integer.BYTES, 1, 1, 1, 1, 1, Double.BYTES,
+    1, 1, 1,
+    1, 1, 1,
+    Float.BYTES, Float.BYTES, Float.BYTES,
+    Float.BYTES, Float.BYTES, Float.BYTES,
+    1, Integer.BYTES, 1, Integer.BYTES, Integer.BYTES, 1, Integer.BYTES, Integer.BYTES
+  };
+
+  // Flags
+  private static final int FLAG_CONDUIT = 1;
+  private static final int FLAG_BREAKER_TREE = 1 << 1;
+  private static final int FLAG_THERMAL_MAGNETIC = 1 << 2;
+  private static final int FLAG_RESIDUAL_CURRENT = 1 << 3;
+  private static final int FLAG_OTHER_BREAKERS = 1 << 4;
+  private static final int FLAG_CONDUCTOR = 1 << 5;
+
+  /**
+   * The conductors of a circuit.
+   */
+  public enum Role {
+    PHASE,
+    NEUTRAL,
+    EARTH
+  }
+
+  /**
+   * Copies the circuits of an installation into a new store.
+   *
+   * @param installation the installation to be stored.
+   * @return the store of the circuits of the installation.
+   */
+  public static ColumnarCircuitStore of(ElectricalInstallation installation) {
+    ColumnarCircuitStore store = new ColumnarCircuitStore(installation.circuitTree().size());
+
+    for (Circuit circuit : installation.circuitTree().values()) {
+      store.add(circuit);
+    }
+
+    return store;
+  }
+
+  private final ByteBuffer[] columns = new ByteBuffer[WIDTHS.length];
+  private int capacity;
+  private int size;
+  private String[] ids;
+  private String[] parentIds;
+  private String[] descriptions;
+
+  private final Map<String, Integer> indexes = new HashMap<>();
+  private final Map<String, List<Integer>> orphans = new HashMap<>();
+  private final Map<ElectricalSystem, Integer> systemIndexes = new IdentityHashMap<>();
+  private final List<ElectricalSystem> systems = new ArrayList<>();
+  private final Map<Integer, Map<String, CircuitBreaker>> otherBreakers = new HashMap<>();
+
+  /**
+   * @param capacity the amount of circuits to allocate room for, the columns grow as needed.
+   */
+  public ColumnarCircuitStore(int capacity) {
+    this.capacity = Math.max(16, capacity);
+    this.ids = new String[this.capacity];
+    this.parentIds = new String[this.capacity];
+    this.descriptions = new String[this.capacity];
+
+    for (int column = 0; column < columns.length; column++) {
+      columns[column] = ByteBuffer.allocateDirect(WIDTHS[column] * this.capacity).order(ByteOrder.nativeOrder());
+    }
+  }
+
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Returns the off-heap footprint of the columns.
+   *
+   * @return the amount of bytes allocated for the columns.
+   */
+  public long offHeapBytes() {
+    long bytes = 0;
+
+    for (ByteBuffer column : columns) {
+      bytes += column.capacity();
+    }
+
+    return bytes;
+  }
+
+  /**
+   * Returns the index of a circuit.
+   *
+   * @param id the identifier of the circuit.
+   * @return the index of the circuit, or -1 if it isn't stored.
+   */
+  public int indexOf(String id) {
+    Integer index = indexes.get(id);
+    return index == null ? -1 : index;
+  }
+
+  /**
+   * Adds a circuit. Circuits can be added in any order, the parent index of a circuit is resolved once its
+   * parent is added.
+   *
+   * @param circuit the circuit to be added.
+   * @return the index of the circuit.
+   * @throws IllegalArgumentException if a circuit with the same id is already stored.
+   */
+  public int add(Circuit circuit) {
+    if (indexes.containsKey(circuit.id())) {
+      throw new IllegalArgumentException("the circuit " + circuit.id() + " is already stored");
+    }
+
+    if (size == capacity) {
+      grow();
+    }
+
+    int index = size++;
+    indexes.put(circuit.id(), index);
+    ids[index] = circuit.id();
+    parentIds[index] = circuit.parent();
+    descriptions[index] = circuit.description();
+    linkParent(index, circuit.id(), circuit.parent());
+
+    putInt(SYSTEM, index, systemIndex(circuit.electricalSystem()));
+    putInt(APPARENT_POWER, index, circuit.apparentPower());
+    columns[CIRCUIT_TYPE].put(index, ordinal(circuit.circuitType()));
+    columns[SYSTEM_TYPE].put(index, ordinal(circuit.circuitSystemType()));
+
+    int flags = 0;
+    Conduit conduit = circuit.conduit();
+
+    if (conduit != null) {
+      flags |= FLAG_CONDUIT;
+      columns[CONDUIT_MATERIAL].put(index, ordinal(conduit.material()));
+      columns[CONDUIT_TYPE].put(index, ordinal(conduit.type()));
+      columns[CONDUIT_DIAMETER].putDouble(index * Double.BYTES, conduit.diameter());
+    }
+
+    flags |= putConductor(index, Role.PHASE, circuit.phaseConductors());
+    flags |= putConductor(index, Role.NEUTRAL, circuit.neutralConductor());
+    flags |= putConductor(index, Role.EARTH, circuit.earthConductor());
+
+    if (circuit.circuitBreakerTree() != null) {
+      flags |= FLAG_BREAKER_TREE | putBreakers(index, circuit.id(), circuit.circuitBreakerTree());
+    }
+
+    columns[FLAGS].put(index, (byte) flags);
+    return index;
+  }
+
+  private void linkParent(int index, String id, String parentId) {
+    boolean root = parentId == null || parentId.equals(Hierarchical.PARENT) || parentId.equals(id);
+    Integer parentIndex = root ? null : indexes.get(parentId);
+    putInt(PARENT, index, parentIndex == null ? -1 : parentIndex);
+
+    if (!root && parentIndex == null) {
+      orphans.computeIfAbsent(parentId, key -> new ArrayList<>()).add(index);
+    }
+
+    List<Integer> children = orphans.remove(id);
+
+    if (children != null) {
+      for (int child : children) {
+        putInt(PARENT, child, index);
+      }
+    }
+  }
+
+  private void grow() {
+    int grown = capacity * 2;
+
+    for (int column = 0; column < columns.length; column++) {
+      ByteBuffer buffer = ByteBuffer.allocateDirect(WIDTHS[column] * grown).order(ByteOrder.nativeOrder());
+      buffer.put(columns[column].duplicate().clear());
+      columns[column] = buffer;
+    }
+
+    capacity = grown;
+    ids = Arrays.copyOf(ids, grown);
+    parentIds = Arrays.copyOf(parentIds, grown);
+    descriptions = Arrays.copyOf(descriptions, grown);
+  }
+
+  private int systemIndex(ElectricalSystem electricalSystem) {
+    if (electricalSystem == null) {
+      return -1;
+    }
+
+    return systemIndexes.computeIfAbsent(electricalSystem, key -> {
+      systems.add(key);
+      return systems.size() - 1;
+    });
+  }
+
+  private static byte ordinal(Enum<?> value) {
+    return value == null ? NULL : (byte) value.ordinal();
+  }
+
+  private static <E> E value(E[] values, byte ordinal) {
+    return ordinal == NULL ? null : values[ordinal];
+  }
+
+  private void putInt(int column, int index, int value) {
+    columns[column].putInt(index * Integer.BYTES, value);
+  }
+
+  private int getInt(int column, int index) {
+    return columns[column].getInt(index * Integer.BYTES);
+  }
+
+  private int putConductor(int index, Role role, Conductor conductor) {
+    if (conductor == null) {
+      columns[MATERIAL + role.ordinal()].put(index, NULL);
+      return 0;
+    }
+
+    columns[MATERIAL + role.ordinal()].put(index, ordinal(conductor.conductor()));
+    columns[INSULATOR + role.ordinal()].put(index, ordinal(conductor.insulator()));
+    columns[LENGTH + role.ordinal()].putFloat(index * Float.BYTES, conductor.length());
+    columns[CROSS_SECTION + role.ordinal()].putFloat(index * Float.BYTES, conductor.crossSection());
+    return FLAG_CONDUCTOR << role.ordinal();
+  }
+
+  private int putBreakers(int index, String id, Map<String, CircuitBreaker> breakers) {
+    CircuitBreaker tm = breakers.get(id + "-tm");
+    CircuitBreaker rc = breakers.get(id + "-rc");
+    boolean conventional = tm instanceof ThermalMagneticCircuitBreaker
+      && tm.parent().equals(Hierarchical.PARENT)
+      && breakers.size() == (rc == null ? 1 : 2)
+      && (rc == null || rc instanceof ResidualCurrentCircuitBreaker
+      && rc.parent().equals(tm.id())
+      && rc.poles() == tm.poles()
+      && rc.frequency() == tm.frequency());
+
+    if (!conventional) {
+      if (breakers.isEmpty()) {
+        return 0;
+      }
+
+      otherBreakers.put(index, Collections.unmodifiableMap(new LinkedHashMap<>(breakers)));
+      return FLAG_OTHER_BREAKERS;
+    }
+
+    ThermalMagneticCircuitBreaker thermalMagnetic = (ThermalMagneticCircuitBreaker) tm;
+    columns[POLES].put(index, (byte) thermalMagnetic.poles());
+    putInt(FREQUENCY, index, thermalMagnetic.frequency());
+    columns[TRIP_CURVE].put(index, ordinal(thermalMagnetic.tripCurve()));
+    putInt(NOMINAL_CURRENT, index, thermalMagnetic.nominalCurrent());
+    putInt(SHORT_CIRCUIT_CURRENT, index, thermalMagnetic.shortCircuitCurrent());
+
+    if (rc == null) {
+      return FLAG_THERMAL_MAGNETIC;
+    }
+
+    ResidualCurrentCircuitBreaker residualCurrent = (ResidualCurrentCircuitBreaker) rc;
+    columns[RESIDUAL_TYPE].put(index, ordinal(residualCurrent.type()));
+    putInt(RESIDUAL_NOMINAL_CURRENT, index, residualCurrent.nominalCurrent());
+    putInt(SENSITIVITY, index, residualCurrent.sensitivity());
+    return FLAG_THERMAL_MAGNETIC | FLAG_RESIDUAL_CURRENT;
+  }
+
+  private int flags(int index) {
+    return columns[FLAGS].get(index);
+  }
+
+  public String id(int index) {
+    return ids[index];
+  }
+
+  /**
+   * Returns the identifier of the parent of a circuit, as it was added.
+   */
+  public String parentId(int index) {
+    return parentIds[index];
+  }
+
+  /**
+   * Returns the index of the parent of a circuit.
+   *
+   * @return the index of the parent, or -1 if the circuit is a root or its parent isn't stored.
+   */
+  public int parent(int index) {
+    return getInt(PARENT, index);
+  }
+
+  public String description(int index) {
+    return descriptions[index];
+  }
+
+  /**
+   * Returns the index of the electrical system of a circuit within {@link #electricalSystems()}, so that
+   * scans can precompute whatever they need per system.
+   *
+   * @return the index of the system, or -1 if the circuit has none.
+   */
+  public int systemIndex(int index) {
+    return getInt(SYSTEM, index);
+  }
+
+  /**
+   * @return the electrical systems of the stored circuits, in the order of their indexes.
+   */
+  public List<ElectricalSystem> electricalSystems() {
+    return Collections.unmodifiableList(systems);
+  }
+
+  public ElectricalSystem electricalSystem(int index) {
+    int system = systemIndex(index);
+    return system == -1 ? null : systems.get(system);
+  }
+
+  public int apparentPower(int index) {
+    return getInt(APPARENT_POWER, index);
+  }
+
+  public Circuit.CircuitType circuitType(int index) {
+    return value(CIRCUIT_TYPES, columns[CIRCUIT_TYPE].get(index));
+  }
+
+  /**
+   * @return the ordinal of the type of the circuit, or -1 if it has none.
+   */
+  public int circuitTypeOrdinal(int index) {
+    return columns[CIRCUIT_TYPE].get(index);
+  }
+
+  public ElectricalSystem.SystemType circuitSystemType(int index) {
+    return value(SYSTEM_TYPES, columns[SYSTEM_TYPE].get(index));
+  }
+
+  /**
+   * @return the ordinal of the system type of the circuit, or -1 if it has none.
+   */
+  public int circuitSystemTypeOrdinal(int index) {
+    return columns[SYSTEM_TYPE].get(index);
+  }
+
+  public boolean hasConduit(int index) {
+    return (flags(index) & FLAG_CONDUIT) != 0;
+  }
+
+  public Conduit.Material conduitMaterial(int index) {
+    return hasConduit(index) ? value(CONDUIT_MATERIALS, columns[CONDUIT_MATERIAL].get(index)) : null;
+  }
+
+  public Conduit.Type conduitType(int index) {
+    return hasConduit(index) ? value(CONDUIT_TYPES, columns[CONDUIT_TYPE].get(index)) : null;
+  }
+
+  public double conduitDiameter(int index) {
+    return columns[CONDUIT_DIAMETER].getDouble(index * Double.BYTES);
+  }
+
+  public boolean hasConductor(int index, Role role) {
+    return (flags(index) & FLAG_CONDUCTOR << role.ordinal()) != 0;
+  }
+
+  public Conductor.Material material(int index, Role role) {
+    return hasConductor(index, role) ? value(MATERIALS, columns[MATERIAL + role.ordinal()].get(index)) : null;
+  }
+
+  /**
+   * @return the ordinal of the material of the conductor, or -1 if the circuit has no such conductor.
+   */
+  public int materialOrdinal(int index, Role role) {
+    return columns[MATERIAL + role.ordinal()].get(index);
+  }
+
+  public Conductor.Material insulator(int index, Role role) {
+    return hasConductor(index, role) ? value(MATERIALS, columns[INSULATOR + role.ordinal()].get(index)) : null;
+  }
+
+  public float length(int index, Role role) {
+    return columns[LENGTH + role.ordinal()].getFloat(index * Float.BYTES);
+  }
+
+  public float crossSection(int index, Role role) {
+    return columns[CROSS_SECTION + role.ordinal()].getFloat(index * Float.BYTES);
+  }
+
+  /**
+   * Returns the nominal current of the thermal-magnetic breaker of a circuit, if it is stored in the columns.
+   *
+   * @return the nominal current (A), or 0 if the circuit has no conventional breaker tree.
+   */
+  public int nominalCurrent(int index) {
+    return (flags(index) & FLAG_THERMAL_MAGNETIC) != 0 ? getInt(NOMINAL_CURRENT, index) : 0;
+  }
+
+  /**
+   * Returns a read-only view of a column, limited to the stored circuits. Views are meant for scans: they
+   * don't see circuits added afterwards, and are detached from the store once it grows.
+   */
+  private ByteBuffer column(int column) {
+    return columns[column]
+      .asReadOnlyBuffer()
+      .limit(size * WIDTHS[column])
+      .slice()
+      .order(ByteOrder.nativeOrder());
+  }
+
+  /**
+   * @return the apparent power (VA) of every circuit, by index.
+   * @see #column(int)
+   */
+  public IntBuffer apparentPowerColumn() {
+    return column(APPARENT_POWER).asIntBuffer();
+  }
+
+  /**
+   * @return the parent index of every circuit, -1 for roots.
+   * @see #column(int)
+   */
+  public IntBuffer parentColumn() {
+    return column(PARENT).asIntBuffer();
+  }
+
+  /**
+   * @return the index of the electrical system of every circuit within {@link #electricalSystems()}, -1 for none.
+   * @see #column(int)
+   */
+  public IntBuffer systemColumn() {
+    return column(SYSTEM).asIntBuffer();
+  }
+
+  /**
+   * @return the ordinal of the type of every circuit, -1 for none.
+   * @see #column(int)
+   */
+  public ByteBuffer circuitTypeColumn() {
+    return column(CIRCUIT_TYPE);
+  }
+
+  /**
+   * @return the ordinal of the system type of every circuit, -1 for none.
+   * @see #column(int)
+   */
+  public ByteBuffer circuitSystemTypeColumn() {
+    return column(SYSTEM_TYPE);
+  }
+
+  /**
+   * @return the ordinal of the material of a conductor of every circuit, -1 if it has no such conductor.
+   * @see #column(int)
+   */
+  public ByteBuffer materialColumn(Role role) {
+    return column(MATERIAL + role.ordinal());
+  }
+
+  /**
+   * @return the length (m) of a conductor of every circuit.
+   * @see #column(int)
+   */
+  public FloatBuffer lengthColumn(Role role) {
+    return column(LENGTH + role.ordinal()).asFloatBuffer();
+  }
+
+  /**
+   * @return the cross-section (mm²) of a conductor of every circuit.
+   * @see #column(int)
+   */
+  public FloatBuffer crossSectionColumn(Role role) {
+    return column(CROSS_SECTION + role.ordinal()).asFloatBuffer();
+  }
+
+  /**
+   * Materializes the breaker tree of a circuit. Trees that don't follow the {@code <circuit>-tm} and
+   * {@code <circuit>-rc} layout are copied when stored and handed out unmodifiable.
+   *
+   * @return the breaker tree, or {@code null} if the circuit had none.
+   */
+  public Map<String, CircuitBreaker> circuitBreakerTree(int index) {
+    int flags = flags(index);
+
+    if ((flags & FLAG_BREAKER_TREE) == 0) {
+      return null;
+    }
+
+    if ((flags & FLAG_OTHER_BREAKERS) != 0) {
+      return otherBreakers.get(index);
+    }
+
+    Map<String, CircuitBreaker> breakers = new HashMap<>(4);
+
+    if ((flags & FLAG_THERMAL_MAGNETIC) == 0) {
+      return breakers;
+    }
+
+    int poles = columns[POLES].get(index);
+    int frequency = getInt(FREQUENCY, index);
+    ThermalMagneticCircuitBreaker thermalMagnetic = new ThermalMagneticCircuitBreaker(
+      ids[index] + "-tm",
+      Hierarchical.PARENT,
+      getInt(NOMINAL_CURRENT, index),
+      frequency,
+      poles,
+      getInt(SHORT_CIRCUIT_CURRENT, index),
+      value(TRIP_CURVES, columns[TRIP_CURVE].get(index))
+    );
+    breakers.put(thermalMagnetic.id(), thermalMagnetic);
+
+    if ((flags & FLAG_RESIDUAL_CURRENT) != 0) {
+      ResidualCurrentCircuitBreaker residualCurrent = new ResidualCurrentCircuitBreaker(
+        ids[index] + "-rc",
+        thermalMagnetic.id(),
+        getInt(RESIDUAL_NOMINAL_CURRENT, index),
+        frequency,
+        poles,
+        getInt(SENSITIVITY, index),
+        value(RESIDUAL_TYPES, columns[RESIDUAL_TYPE].get(index))
+      );
+      breakers.put(residualCurrent.id(), residualCurrent);
+    }
+
+    return breakers;
+  }
+
+  private Conductor conductor(int index, Role role) {
+    if (!hasConductor(index, role)) {
+      return null;
+    }
+
+    return new Conductor(
+      material(index, role),
+      insulator(index, role),
+      length(index, role),
+      crossSection(index, role)
+    ).intern();
+  }
+
+  /**
+   * Materializes a circuit.
+   *
+   * @param index the index of the circuit.
+   * @return a circuit equal to the added one, but for the map implementation of its breaker tree.
+   */
+  public Circuit toCircuit(int index) {
+    return new Circuit(
+      ids[index],
+      parentIds[index],
+      descriptions[index],
+      circuitBreakerTree(index),
+      hasConduit(index) ? Conduit.create(conduitMaterial(index), conduitType(index), conduitDiameter(index)) : null,
+      conductor(index, Role.PHASE),
+      conductor(index, Role.NEUTRAL),
+      conductor(index, Role.EARTH),
+      circuitType(index),
+      electricalSystem(index),
+      circuitSystemType(index),
+      apparentPower(index)
+    );
+  }
+
+  /**
+   * Creates a flyweight view, positioned on the first circuit.
+   *
+   * @return a new view over this store.
+   */
+  public CircuitView view() {
+    return new CircuitView(this);
+  }
+}
@@ -0,0 +1,340 @@
+package dev.emmily.oersted.installation.generator;
+
+import dev.emmily.oersted.circuit.Circuit;
+import dev.emmily.oersted.circuit.conductor.Conductor;
+import dev.emmily.oersted.circuit.conduit.Conduit;
+import dev.emmily.oersted.circuit.protection.CircuitBreaker;
+import dev.emmily.oersted.circuit.protection.ResidualCurrentCircuitBreaker;
+import dev.emmily.oersted.circuit.protection.ThermalMagneticCircuitBreaker;
+import dev.emmily.oersted.hierarchy.Hierarchical;
+import dev.emmily.oersted.hierarchy.HierarchicalTree;
+import dev.emmily.oersted.installation.ElectricalInstallation;
+import dev.emmily.oersted.installation.binary.BinaryInstallationWriter;
+import dev.emmily.oersted.system.ElectricalSystem;
+import dev.emmily.oersted.system.threephase.ThreePhaseElectricalSystem;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.function.Consumer;
+
+/**
+ * Generates reproducible synthetic installations for load, scale and stress testing.
+ * <p>
+ * The generated installation is a tree of distribution boards: a main supply line at the root, three-phase
+ * power feeders at the inner levels and a mix of lighting, power and control final circuits at the leaves.
+ * Every circuit gets conductors, a conduit and a breaker tree consistent with its type and load, and
+ * boards carry the sum of the apparent power of their children.
+ * <p>
+ * Circuits are produced depth-first, children before their board, so only the boards on the current path
+ * are kept in memory and installations of millions of circuits can be streamed straight into a
+ * {@link HierarchicalTree}, a map or a {@link BinaryInstallationWriter}. The same seed and settings always
+ * produce the same installation, with circuit ids {@code c0} (the root), {@code c1}, ... in pre-order.
+ */
+public class InstallationGenerator {
+  private static final int[] NOMINAL_CURRENTS = {6, 10, 16, 20, 25, 32, 40, 50, 63, 80, 100, 125, 160, 200, 250, 400, 630};
+  private static final float[] FINAL_SECTIONS = {1.5f, 2.5f, 4, 6};
+  private static final float[] FEEDER_SECTIONS = {10, 16, 25, 35, 50, 70, 95, 120};
+  private static final int[] CONDUIT_DIAMETERS = {16, 20, 25, 32, 40, 50};
+  private static final Conduit.Material[] CONDUIT_MATERIALS = {
+    Conduit.Material.PVC, Conduit.Material.GALVANIZED_IRON, Conduit.Material.POLYPROPYLENE
+  };
+  private static final Conduit.Type[] CONDUIT_TYPES = Conduit.Type.values();
+
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  private final long seed;
+  private final int depth;
+  private final int minFanOut;
+  private final int maxFanOut;
+  private final int maxCircuits;
+  private final ElectricalSystem supply;
+
+  private InstallationGenerator(long seed,
+                                int depth,
+                                int minFanOut,
+                                int maxFanOut,
+                                int maxCircuits,
+                                ElectricalSystem supply) {
+    this.seed = seed;
+    this.depth = depth;
+    this.minFanOut = minFanOut;
+    this.maxFanOut = maxFanOut;
+    this.maxCircuits = maxCircuits;
+    this.supply = supply;
+  }
+
+  public ElectricalSystem supply() {
+    return supply;
+  }
+
+  /**
+   * Generates the installation into a map.
+   *
+   * @return the generated installation.
+   */
+  public ElectricalInstallation generate() {
+    Map<String, Circuit> circuitTree = new LinkedHashMap<>();
+    generate(circuit -> circuitTree.put(circuit.id(), circuit));
+    return new ElectricalInstallation(supply, circuitTree);
+  }
+
+  /**
+   * Generates the installation into the given tree.
+   *
+   * @param tree the tree the circuits are added to.
+   */
+  public void generate(HierarchicalTree<Circuit> tree) {
+    generate(tree::add);
+  }
+
+  /**
+   * Streams the installation into a binary installation file.
+   *
+   * @param file the target file, replaced if it already exists.
+   * @throws IOException if the file can't be written.
+   */
+  public void generate(Path file) throws IOException {
+    try (BinaryInstallationWriter writer = new BinaryInstallationWriter(file, supply)) {
+      generate(circuit -> {
+        try {
+          writer.write(circuit);
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      });
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+  }
+
+  /**
+   * Streams every circuit of the installation to the given consumer, children before their board.
+   *
+   * @param sink the consumer of the circuits.
+   */
+  public void generate(Consumer<Circuit> sink) {
+    SplittableRandom random = new SplittableRandom(seed);
+    ArrayDeque<Node> path = new ArrayDeque<>();
+    int created = 1;
+
+    path.push(new Node("c0", Hierarchical.PARENT, 0, fanOut(random, 0)));
+
+    while (!path.isEmpty()) {
+      Node node = path.peek();
+
+      if (node.remainingChildren > 0 && created < maxCircuits) {
+        node.remainingChildren--;
+        node.children++;
+
+        int level = node.level + 1;
+        path.push(new Node("c" + created++, node.id, level, fanOut(random, level)));
+        continue;
+      }
+
+      path.pop();
+
+      Circuit circuit = node.children == 0
+        ? finalCircuit(node, random)
+        : board(node, random);
+
+      if (!path.isEmpty()) {
+        path.peek().apparentPower += circuit.apparentPower();
+      }
+
+      sink.accept(circuit);
+    }
+  }
+
+  private int fanOut(SplittableRandom random, int level) {
+    return level >= depth ? 0 : minFanOut + random.nextInt(maxFanOut - minFanOut + 1);
+  }
+
+  private Circuit board(Node node, SplittableRandom random) {
+    Circuit.CircuitType type = node.level == 0 ? Circuit.CircuitType.MAIN_SUPPLY_LINE : Circuit.CircuitType.POWER;
+    Conductor.Material conductor = random.nextInt(4) == 0 ? Conductor.Material.ALUMINUM : Conductor.Material.COPPER;
+    float length = 5 + random.nextInt(146);
+    float section = FEEDER_SECTIONS[random.nextInt(FEEDER_SECTIONS.length)];
+
+    int apparentPower = (int) Math.min(Integer.MAX_VALUE, node.apparentPower);
+
+    return circuit(node, type, ElectricalSystem.SystemType.THREE_PHASE, conductor, length, section, apparentPower, random);
+  }
+
+  private Circuit finalCircuit(Node node, SplittableRandom random) {
+    int draw = random.nextInt(10);
+    Circuit.CircuitType type = draw < 4
+      ? Circuit.CircuitType.LIGHTING
+      : draw < 8 ? Circuit.CircuitType.POWER : Circuit.CircuitType.CONTROL;
+    int apparentPower = switch (type) {
+      case LIGHTING -> 200 + random.nextInt(1801);
+      case CONTROL -> 50 + random.nextInt(451);
+      default -> 500 + random.nextInt(6501);
+    };
+    ElectricalSystem.SystemType systemType = random.nextInt(5) == 0
+      ? ElectricalSystem.SystemType.THREE_PHASE
+      : ElectricalSystem.SystemType.SINGLE_PHASE;
+    float length = 2 + random.nextInt(59);
+    float section = FINAL_SECTIONS[random.nextInt(FINAL_SECTIONS.length)];
+
+    return circuit(node, type, systemType, Conductor.Material.COPPER, length, section, apparentPower, random);
+  }
+
+  private Circuit circuit(Node node,
+                          Circuit.CircuitType type,
+                          ElectricalSystem.SystemType systemType,
+                          Conductor.Material conductor,
+                          float length,
+                          float section,
+                          int apparentPower,
+                          SplittableRandom random) {
+    Conductor.Material insulator = random.nextInt(10) < 7 ? Conductor.Material.PVC : Conductor.Material.XLPE;
+    Conductor phase = new Conductor(conductor, insulator, length, section).intern();
+    Conductor earth = new Conductor(Conductor.Material.COPPER, insulator, length, Math.min(section, 16)).intern();
+    Conduit conduit = Conduit.create(
+      CONDUIT_MATERIALS[random.nextInt(CONDUIT_MATERIALS.length)],
+      CONDUIT_TYPES[random.nextInt(CONDUIT_TYPES.length)],
+      CONDUIT_DIAMETERS[random.nextInt(CONDUIT_DIAMETERS.length)]
+    );
+
+    return new Circuit(
+      node.id,
+      node.parent,
+      type.name().toLowerCase() + " circuit " + node.id,
+      breakers(node.id, type, systemType, apparentPower, random),
+      conduit,
+      phase,
+      phase,
+      earth,
+      type,
+      supply,
+      systemType,
+      apparentPower
+    );
+  }
+
+  private Map<String, CircuitBreaker> breakers(String circuit,
+                                               Circuit.CircuitType type,
+                                               ElectricalSystem.SystemType systemType,
+                                               int apparentPower,
+                                               SplittableRandom random) {
+    boolean threePhase = systemType == ElectricalSystem.SystemType.THREE_PHASE;
+    double current = threePhase
+      ? apparentPower / (ElectricalSystem.SQRT_3 * supply.getLineVoltage())
+      : (double) apparentPower / supply.getPhaseVoltage();
+    int poles = threePhase ? 4 : 2;
+    ThermalMagneticCircuitBreaker.TripCurve curve = switch (type) {
+      case LIGHTING -> ThermalMagneticCircuitBreaker.TripCurve.B;
+      case POWER -> random.nextInt(10) == 0 ? ThermalMagneticCircuitBreaker.TripCurve.D : ThermalMagneticCircuitBreaker.TripCurve.C;
+      default -> ThermalMagneticCircuitBreaker.TripCurve.C;
+    };
+    Map<String, CircuitBreaker> breakers = new HashMap<>(4);
+
+    // breaker ids are unique per circuit, so there is nothing to intern
+    ThermalMagneticCircuitBreaker thermalMagnetic = new ThermalMagneticCircuitBreaker(
+      circuit + "-tm",
+      Hierarchical.PARENT,
+      nominalCurrent(current),
+      supply.getFrequency(),
+      poles,
+      current > 100 ? 25 : 6,
+      curve
+    );
+    breakers.put(thermalMagnetic.id(), thermalMagnetic);
+
+    if (type != Circuit.CircuitType.MAIN_SUPPLY_LINE && random.nextInt(3) != 0) {
+      ResidualCurrentCircuitBreaker residualCurrent = new ResidualCurrentCircuitBreaker(
+        circuit + "-rc",
+        thermalMagnetic.id(),
+        Math.max(25, thermalMagnetic.nominalCurrent()),
+        supply.getFrequency(),
+        poles,
+        type == Circuit.CircuitType.POWER && current > 32 ? 300 : 30,
+        random.nextInt(4) == 0 ? ResidualCurrentCircuitBreaker.Type.AC : ResidualCurrentCircuitBreaker.Type.A
+      );
+      breakers.put(residualCurrent.id(), residualCurrent);
+    }
+
+    return breakers;
+  }
+
+  private static int nominalCurrent(double current) {
+    for (int nominalCurrent : NOMINAL_CURRENTS) {
+      if (nominalCurrent >= current) {
+        return nominalCurrent;
+      }
+    }
+
+    return NOMINAL_CURRENTS[NOMINAL_CURRENTS.length - 1];
+  }
+
+  private static final class Node {
+    private final String id;
+    private final String parent;
+    private final int level;
+    private int remainingChildren;
+    private int children;
+    private long apparentPower;
+
+    private Node(String id, String parent, int level, int remainingChildren) {
+      this.id = id;
+      this.parent = parent;
+      this.level = level;
+      this.remainingChildren = remainingChildren;
+    }
+  }
+
+  public static class Builder {
+    private long seed;
+    private int depth = 3;
+    private int minFanOut = 2;
+    private int maxFanOut = 12;
+    private int maxCircuits = Integer.MAX_VALUE;
+    private ElectricalSystem supply;
+
+    public Builder seed(long seed) {
+      this.seed = seed;
+      return this;
+    }
+
+    public Builder depth(int depth) {
+      this.depth = depth;
+      return this;
+    }
+
+    public Builder fanOut(int minFanOut, int maxFanOut) {
+      this.minFanOut = minFanOut;
+      this.maxFanOut = maxFanOut;
+      return this;
+    }
+
+    public Builder maxCircuits(int maxCircuits) {
+      this.maxCircuits = maxCircuits;
+      return this;
+    }
+
+    public Builder supply(ElectricalSystem supply) {
+      this.supply = supply;
+      return this;
+    }
+
+    public InstallationGenerator build() {
+      if (depth < 0 || minFanOut < 1 || maxFanOut < minFanOut || maxCircuits < 1) {
+        throw new IllegalArgumentException("invalid generator settings");
+      }
+
+      ElectricalSystem supply = this.supply == null
+        ? new ThreePhaseElectricalSystem("supply", ElectricalSystem.DistributionSystem.TT, 50, 230, 400)
+        : this.supply;
+
+      return new InstallationGenerator(seed, depth, minFanOut, maxFanOut, maxCircuits, supply);
+    }
+  }
+}
@@ -0,0 +1,284 @@
+package dev.emmily.oersted.installation.journal;
+
+import dev.emmily.oersted.circuit.Circuit;
+import dev.emmily.oersted.circuit.conductor.Conductor;
+import dev.emmily.oersted.circuit.conduit.Conduit;
+import dev.emmily.oersted.circuit.protection.CircuitBreaker;
+import dev.emmily.oersted.installation.binary.BinaryInstallationFormat;
+import dev.emmily.oersted.system.ElectricalSystem;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+import static dev.emmily.oersted.installation.binary.BinaryInstallationFormat.breakerKind;
+import static dev.emmily.oersted.installation.binary.BinaryInstallationFormat.breakerRating;
+import static dev.emmily.oersted.installation.binary.BinaryInstallationFormat.breakerVariant;
+import static dev.emmily.oersted.installation.binary.BinaryInstallationFormat.createBreaker;
+import static dev.emmily.oersted.installation.binary.BinaryInstallationFormat.createSystem;
+import static dev.emmily.oersted.installation.binary.BinaryInstallationFormat.fromOrdinal;
+import static dev.emmily.oersted.installation.binary.BinaryInstallationFormat.ordinal;
+
+/**
+ * Encodes single circuits for the journal. Every record holds the whole state of a circuit, electrical system
+ * included, so it can be decoded without any other record. Enums, circuit breakers and electrical systems are
+ * encoded like in the {@link BinaryInstallationFormat binary installation format}, and {@code -1} stands for
+ * {@code null}.
+ */
+final class CircuitCodec {
+  private static final byte NULL = -1;
+  private static final byte PRESENT = 1;
+
+  private final Map<String, ElectricalSystem> systems;
+  private ByteBuffer output = ByteBuffer.allocate(1024);
+
+  /**
+   * @param systems the known electrical systems by id. Decoded circuits share these instances while their
+   *                values match the record, otherwise the decoded system replaces the known one.
+   */
+  CircuitCodec(Map<String, ElectricalSystem> systems) {
+    this.systems = systems;
+  }
+
+  /**
+   * Encodes a circuit.
+   *
+   * @return a buffer holding the encoded circuit between its position and limit, valid until the next call.
+   */
+  ByteBuffer encode(Circuit circuit) {
+    while (true) {
+      try {
+        output.clear();
+        write(circuit);
+        return output.flip();
+      } catch (BufferOverflowException e) {
+        output = ByteBuffer.allocate(output.capacity() * 2);
+      }
+    }
+  }
+
+  /**
+   * Encodes the identifier of a removed circuit.
+   */
+  ByteBuffer encode(String id) {
+    while (true) {
+      try {
+        output.clear();
+        putString(id);
+        return output.flip();
+      } catch (BufferOverflowException e) {
+        output = ByteBuffer.allocate(output.capacity() * 2);
+      }
+    }
+  }
+
+  private void write(Circuit circuit) {
+    putString(circuit.id());
+    putString(circuit.parent());
+    putString(circuit.description());
+    putSystem(circuit.electricalSystem());
+    output.put(ordinal(circuit.circuitType()));
+    output.put(ordinal(circuit.circuitSystemType()));
+    output.putInt(circuit.apparentPower());
+
+    Conduit conduit = circuit.conduit();
+
+    if (conduit == null) {
+      output.put(NULL);
+    } else {
+      output
+        .put(PRESENT)
+        .put(ordinal(conduit.material()))
+        .put(ordinal(conduit.type()))
+        .putDouble(conduit.diameter());
+    }
+
+    putConductor(circuit.phaseConductors());
+    putConductor(circuit.neutralConductor());
+    putConductor(circuit.earthConductor());
+
+    Map<String, CircuitBreaker> breakers = circuit.circuitBreakerTree();
+
+    if (breakers == null) {
+      output.putInt(-1);
+      return;
+    }
+
+    output.putInt(breakers.size());
+
+    for (Map.Entry<String, CircuitBreaker> entry : breakers.entrySet()) {
+      putString(entry.getKey());
+      putBreaker(entry.getValue());
+    }
+  }
+
+  private void putSystem(ElectricalSystem system) {
+    if (system == null) {
+      output.put(NULL);
+      return;
+    }
+
+    output.put(PRESENT);
+    putString(system.getId());
+    output
+      .put(ordinal(system.systemType()))
+      .put(ordinal(system.distributionSystem()))
+      .putInt(system.getFrequency())
+      .putInt(system.getPhaseVoltage())
+      .putInt(system.getLineVoltage());
+  }
+
+  private void putConductor(Conductor conductor) {
+    if (conductor == null) {
+      output.put(NULL);
+      return;
+    }
+
+    output
+      .put(PRESENT)
+      .put(ordinal(conductor.conductor()))
+      .put(ordinal(conductor.insulator()))
+      .putFloat(conductor.length())
+      .putFloat(conductor.crossSection());
+  }
+
+  private void putBreaker(CircuitBreaker breaker) {
+    output.put(breakerKind(breaker)).put(breakerVariant(breaker)).putShort((short) breaker.poles());
+    putString(breaker.id());
+    putString(breaker.parent());
+    output.putInt(breaker.nominalCurrent()).putInt(breaker.frequency()).putInt(breakerRating(breaker));
+  }
+
+  private void putString(String string) {
+    if (string == null) {
+      output.putInt(-1);
+      return;
+    }
+
+    byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+    output.putInt(bytes.length).put(bytes);
+  }
+
+  Circuit decodeCircuit(ByteBuffer buffer) {
+    String id = getString(buffer);
+    String parent = getString(buffer);
+    String description = getString(buffer);
+    ElectricalSystem system = getSystem(buffer);
+    Circuit.CircuitType circuitType = fromOrdinal(Circuit.CircuitType.values(), buffer.get());
+    ElectricalSystem.SystemType systemType = fromOrdinal(ElectricalSystem.SystemType.values(), buffer.get());
+    int apparentPower = buffer.getInt();
+
+    Conduit conduit = null;
+
+    if (buffer.get() != NULL) {
+      conduit = Conduit.create(
+        fromOrdinal(Conduit.Material.values(), buffer.get()),
+        fromOrdinal(Conduit.Type.values(), buffer.get()),
+        buffer.getDouble()
+      );
+    }
+
+    Conductor phase = getConductor(buffer);
+    Conductor neutral = getConductor(buffer);
+    Conductor earth = getConductor(buffer);
+
+    Map<String, CircuitBreaker> breakers = null;
+    int count = buffer.getInt();
+
+    if (count >= 0) {
+      breakers = new HashMap<>(Math.max(4, count * 2));
+
+      for (int i = 0; i < count; i++) {
+        String key = getString(buffer);
+        breakers.put(key, getBreaker(buffer));
+      }
+    }
+
+    return new Circuit(
+      id,
+      parent,
+      description,
+      breakers,
+      conduit,
+      phase,
+      neutral,
+      earth,
+      circuitType,
+      system,
+      systemType,
+      apparentPower
+    );
+  }
+
+  String decodeId(ByteBuffer buffer) {
+    return getString(buffer);
+  }
+
+  private ElectricalSystem getSystem(ByteBuffer buffer) {
+    if (buffer.get() == NULL) {
+      return null;
+    }
+
+    String id = getString(buffer);
+    ElectricalSystem.SystemType type = fromOrdinal(ElectricalSystem.SystemType.values(), buffer.get());
+    ElectricalSystem.DistributionSystem distributionSystem =
+      fromOrdinal(ElectricalSystem.DistributionSystem.values(), buffer.get());
+    int frequency = buffer.getInt();
+    int phaseVoltage = buffer.getInt();
+    int lineVoltage = buffer.getInt();
+    ElectricalSystem known = systems.get(id);
+
+    if (known != null
+      && known.systemType() == type
+      && known.distributionSystem() == distributionSystem
+      && known.getFrequency() == frequency
+      && known.getPhaseVoltage() == phaseVoltage
+      && known.getLineVoltage() == lineVoltage) {
+      return known;
+    }
+
+    ElectricalSystem system = createSystem(type, id, distributionSystem, frequency, phaseVoltage, lineVoltage);
+    systems.put(id, system);
+    return system;
+  }
+
+  private static Conductor getConductor(ByteBuffer buffer) {
+    if (buffer.get() == NULL) {
+      return null;
+    }
+
+    return new Conductor(
+      fromOrdinal(Conductor.Material.values(), buffer.get()),
+      fromOrdinal(Conductor.Material.values(), buffer.get()),
+      buffer.getFloat(),
+      buffer.getFloat()
+    ).intern();
+  }
+
+  private static CircuitBreaker getBreaker(ByteBuffer buffer) {
+    byte kind = buffer.get();
+    byte variant = buffer.get();
+    short poles = buffer.getShort();
+    String id = getString(buffer);
+    String parent = getString(buffer);
+    int nominalCurrent = buffer.getInt();
+    int frequency = buffer.getInt();
+    int rating = buffer.getInt();
+
+    return createBreaker(kind, variant, id, parent, nominalCurrent, frequency, poles, rating);
+  }
+
+  private static String getString(ByteBuffer buffer) {
+    int length = buffer.getInt();
+
+    if (length == -1) {
+      return null;
+    }
+
+    String string = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+    buffer.position(buffer.position() + length);
+    return string;
+  }
+}
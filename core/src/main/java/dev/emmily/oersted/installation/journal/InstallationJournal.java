@@ -0,0 +1,453 @@
+package dev.emmily.oersted.installation.journal;
+
+import dev.emmily.oersted.circuit.Circuit;
+import dev.emmily.oersted.hierarchy.Hierarchical;
+import dev.emmily.oersted.hierarchy.HierarchicalTree;
+import dev.emmily.oersted.installation.ElectricalInstallation;
+import dev.emmily.oersted.installation.binary.BinaryInstallationReader;
+import dev.emmily.oersted.installation.binary.BinaryInstallationWriter;
+import dev.emmily.oersted.system.ElectricalSystem;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * An append-only journal of the edits made to an {@link ElectricalInstallation}, kept in a directory next to a
+ * compacted snapshot of it.
+ * <p>
+ * The snapshot ({@code snapshot.bin}) is written in the binary installation format, and every circuit added,
+ * modified or removed afterwards is appended to the memory-mapped journal ({@code journal.log}), so saving an
+ * edit costs as much as the edited circuit and not as much as the whole installation. Opening a journal loads
+ * the snapshot and replays the journal over it.
+ * <p>
+ * Each record is laid out as its length, its operation, the encoded circuit (or just its id for removals) and
+ * the CRC32 of the operation and the payload. Replay stops at the first empty or corrupted record, so a record
+ * torn by a crash is discarded and overwritten by the next edit. Records hold the whole state of the circuit,
+ * so replaying a record that is already part of the snapshot is harmless.
+ * <p>
+ * Once the journal grows past the compaction threshold the installation is written to a new snapshot and the
+ * journal is emptied. Both files are replaced by atomic moves, so a crash during compaction leaves either the
+ * old or the new state behind.
+ * <p>
+ * Journals aren't thread-safe.
+ */
+public class InstallationJournal implements Closeable {
+  private static final String SNAPSHOT = "snapshot.bin";
+  private static final String JOURNAL = "journal.log";
+
+  private static final int MAGIC = 0x4F454A4C; // OEJL
+  private static final short VERSION = 2;
+  private static final int HEADER_SIZE = 16;
+  private static final int RECORD_OVERHEAD = Integer.BYTES + Byte.BYTES + Integer.BYTES;
+  private static final long INITIAL_MAPPING = 1 << 20;
+
+  private static final byte ADD = 1;
+  private static final byte MODIFY = 2;
+  private static final byte REMOVE = 3;
+
+  public static Builder builder(Path directory) {
+    return new Builder(directory);
+  }
+
+  private final Path directory;
+  private final long compactionThreshold;
+  private final boolean sync;
+  private final Map<String, ElectricalSystem> systems = new HashMap<>();
+  private final CircuitCodec codec = new CircuitCodec(systems);
+  private final CRC32 crc = new CRC32();
+
+  private ElectricalInstallation installation;
+  private HierarchicalTree<Circuit> tree;
+  private FileChannel channel;
+  private MappedByteBuffer mapping;
+  private int records;
+  private boolean closed;
+
+  private InstallationJournal(Builder builder) throws IOException {
+    this.directory = builder.directory;
+    this.compactionThreshold = builder.compactionThreshold;
+    this.sync = builder.sync;
+
+    Files.createDirectories(directory);
+
+    Path snapshot = directory.resolve(SNAPSHOT);
+
+    if (Files.exists(snapshot)) {
+      this.installation = BinaryInstallationReader.open(snapshot).readInstallation();
+    } else if (builder.supplyingSystem != null) {
+      this.installation = new ElectricalInstallation(builder.supplyingSystem, new LinkedHashMap<>());
+      // an empty snapshot keeps the supplying system, so the directory can be reopened on its own
+      writeSnapshot();
+    } else {
+      throw new IllegalArgumentException("the directory " + directory + " holds no snapshot and no supplying system was given");
+    }
+
+    register(installation.supplyingSystem());
+
+    for (Circuit circuit : installation.circuitTree().values()) {
+      register(circuit.electricalSystem());
+    }
+
+    openJournal();
+    replay();
+    this.tree = new HierarchicalTree<>(installation.circuitTree());
+  }
+
+  /**
+   * @return the current state of the installation, which must only be edited through the journal.
+   */
+  public ElectricalInstallation installation() {
+    return installation;
+  }
+
+  /**
+   * @return the circuit tree of the current state of the installation.
+   */
+  public HierarchicalTree<Circuit> tree() {
+    return tree;
+  }
+
+  /**
+   * @return the amount of records appended since the last compaction.
+   */
+  public int records() {
+    return records;
+  }
+
+  /**
+   * @return the size of the journal since the last compaction (bytes).
+   */
+  public long size() {
+    return mapping.position();
+  }
+
+  /**
+   * Adds a circuit to the installation.
+   *
+   * @param circuit the circuit to be added.
+   * @throws IllegalArgumentException if the installation already has a circuit with the same id, or if the
+   *                                  circuit would be one of its own ancestors.
+   * @throws IOException              if the record can't be appended.
+   */
+  public void add(Circuit circuit) throws IOException {
+    if (installation.circuitTree().containsKey(circuit.id())) {
+      throw new IllegalArgumentException("the element " + circuit.id() + " is already part of the tree.");
+    }
+
+    validateParent(circuit);
+    append(ADD, codec.encode(circuit));
+    tree.add(circuit);
+    compactIfNeeded();
+  }
+
+  /**
+   * Replaces a circuit of the installation.
+   *
+   * @param circuit the new state of the circuit.
+   * @throws IllegalArgumentException if the installation has no circuit with the same id, or if the circuit is
+   *                                  moved under its own subtree.
+   * @throws IOException              if the record can't be appended.
+   */
+  public void modify(Circuit circuit) throws IOException {
+    if (!installation.circuitTree().containsKey(circuit.id())) {
+      throw new IllegalArgumentException("the element " + circuit.id() + " is not part of the tree.");
+    }
+
+    validateParent(circuit);
+    append(MODIFY, codec.encode(circuit));
+    tree.add(circuit);
+    compactIfNeeded();
+  }
+
+  /**
+   * Removes a circuit from the installation. Its children, if any, are kept.
+   *
+   * @param id the id of the circuit to be removed.
+   * @throws IllegalArgumentException if the installation has no such circuit.
+   * @throws IOException              if the record can't be appended.
+   */
+  public void remove(String id) throws IOException {
+    Circuit circuit = installation.circuitTree().get(id);
+
+    if (circuit == null) {
+      throw new IllegalArgumentException("the element " + id + " is not part of the tree.");
+    }
+
+    append(REMOVE, codec.encode(id));
+    tree.remove(circuit);
+    compactIfNeeded();
+  }
+
+  /**
+   * Writes the current state of the installation to a new snapshot and empties the journal.
+   *
+   * @throws IOException if the snapshot or the journal can't be written.
+   */
+  public void compact() throws IOException {
+    ensureOpen();
+    writeSnapshot();
+
+    Path journal = directory.resolve(JOURNAL);
+    Path temp = directory.resolve(JOURNAL + ".tmp");
+
+    try (FileChannel empty = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+      ByteBuffer header = header();
+
+      while (header.hasRemaining()) {
+        empty.write(header);
+      }
+    }
+
+    channel.close();
+    Files.move(temp, journal, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    openJournal();
+    records = 0;
+  }
+
+  /**
+   * Forces the appended records to the storage device.
+   */
+  public void flush() {
+    ensureOpen();
+    mapping.force();
+  }
+
+  /**
+   * Flushes the journal and truncates the file to its written size.
+   *
+   * @throws IOException if the journal can't be truncated.
+   */
+  @Override
+  public void close() throws IOException {
+    if (closed) {
+      return;
+    }
+
+    closed = true;
+    mapping.force();
+
+    long written = mapping.position();
+    mapping = null;
+
+    try {
+      channel.truncate(written);
+    } finally {
+      channel.close();
+    }
+  }
+
+  /**
+   * Checks that the edit leaves a tree behind before its record is appended, so rejected edits never reach the
+   * journal. Parents may be added after their children, but a circuit can't end up among its own ancestors.
+   */
+  private void validateParent(Circuit circuit) {
+    Map<String, Circuit> circuits = installation.circuitTree();
+    String parent = circuit.parent();
+
+    // bounded, in case the snapshot already holds a cycle of parents
+    for (int i = 0; parent != null && !Hierarchical.PARENT.equals(parent) && i <= circuits.size(); i++) {
+      if (parent.equals(circuit.id())) {
+        throw new IllegalArgumentException("the element " + circuit.id() + " can't be one of its own ancestors.");
+      }
+
+      Circuit ancestor = circuits.get(parent);
+      parent = ancestor == null ? null : ancestor.parent();
+    }
+  }
+
+  private void writeSnapshot() throws IOException {
+    Path snapshot = directory.resolve(SNAPSHOT);
+    Path temp = directory.resolve(SNAPSHOT + ".tmp");
+
+    BinaryInstallationWriter.write(temp, installation);
+    Files.move(temp, snapshot, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  private void openJournal() throws IOException {
+    channel = FileChannel.open(
+      directory.resolve(JOURNAL),
+      StandardOpenOption.CREATE,
+      StandardOpenOption.READ,
+      StandardOpenOption.WRITE
+    );
+
+    boolean empty = channel.size() == 0;
+
+    map(Math.max(INITIAL_MAPPING, channel.size()));
+
+    if (empty) {
+      mapping.put(header());
+      return;
+    }
+
+    if (mapping.getInt(0) != MAGIC) {
+      throw new IOException("not an installation journal: " + directory.resolve(JOURNAL));
+    }
+
+    short version = mapping.getShort(Integer.BYTES);
+
+    if (version != VERSION) {
+      throw new IOException("unsupported installation journal version " + version);
+    }
+
+    mapping.position(HEADER_SIZE);
+  }
+
+  private void replay() {
+    Map<String, Circuit> circuits = installation.circuitTree();
+
+    while (mapping.remaining() >= RECORD_OVERHEAD) {
+      int start = mapping.position();
+      int length = mapping.getInt(start);
+
+      if (length <= 0 || length > mapping.limit() - start - RECORD_OVERHEAD) {
+        break;
+      }
+
+      int end = start + Integer.BYTES + Byte.BYTES + length;
+
+      crc.reset();
+      crc.update(mapping.slice(start + Integer.BYTES, Byte.BYTES + length));
+
+      if ((int) crc.getValue() != mapping.getInt(end)) {
+        break;
+      }
+
+      byte operation = mapping.get(start + Integer.BYTES);
+      ByteBuffer payload = ByteBuffer.allocate(length);
+
+      payload.put(0, mapping, start + Integer.BYTES + Byte.BYTES, length);
+
+      switch (operation) {
+        case ADD, MODIFY -> {
+          Circuit circuit = codec.decodeCircuit(payload);
+          circuits.put(circuit.id(), circuit);
+        }
+        case REMOVE -> circuits.remove(codec.decodeId(payload));
+        default -> throw new IllegalStateException("unknown journal operation " + operation + " at offset " + start);
+      }
+
+      mapping.position(end + Integer.BYTES);
+      records++;
+    }
+  }
+
+  private void append(byte operation, ByteBuffer payload) throws IOException {
+    ensureOpen();
+
+    int length = payload.remaining();
+
+    if (mapping.remaining() < RECORD_OVERHEAD + length + Integer.BYTES) {
+      int position = mapping.position();
+      map(Math.max(mapping.capacity() * 2L, position + RECORD_OVERHEAD + length + Integer.BYTES));
+      mapping.position(position);
+    }
+
+    int start = mapping.position();
+
+    mapping.putInt(0).put(operation).put(payload);
+    crc.reset();
+    crc.update(mapping.slice(start + Integer.BYTES, Byte.BYTES + length));
+    mapping.putInt((int) crc.getValue());
+
+    // the record doesn't count until its length is set, and the next one reads as the end of the journal
+    mapping.putInt(mapping.position(), 0);
+    mapping.putInt(start, length);
+    records++;
+
+    if (sync) {
+      mapping.force();
+    }
+  }
+
+  private void map(long size) throws IOException {
+    if (size > Integer.MAX_VALUE) {
+      throw new IOException("journals larger than 2 GiB are not supported, compact it first");
+    }
+
+    mapping = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+  }
+
+  private void compactIfNeeded() throws IOException {
+    if (mapping.position() >= compactionThreshold) {
+      compact();
+    }
+  }
+
+  private void register(ElectricalSystem system) {
+    if (system != null) {
+      systems.putIfAbsent(system.getId(), system);
+    }
+  }
+
+  private void ensureOpen() {
+    if (closed) {
+      throw new IllegalStateException("the journal has already been closed");
+    }
+  }
+
+  private static ByteBuffer header() {
+    return ByteBuffer.allocate(HEADER_SIZE)
+      .putInt(MAGIC)
+      .putShort(VERSION)
+      .position(HEADER_SIZE)
+      .flip();
+  }
+
+  public static class Builder {
+    private final Path directory;
+    private ElectricalSystem supplyingSystem;
+    private long compactionThreshold = 64L << 20;
+    private boolean sync;
+
+    private Builder(Path directory) {
+      this.directory = directory;
+    }
+
+    /**
+     * @param supplyingSystem the system supplying the installation, only used to create the journal if the
+     *                        directory holds no snapshot yet.
+     */
+    public Builder supplyingSystem(ElectricalSystem supplyingSystem) {
+      this.supplyingSystem = supplyingSystem;
+      return this;
+    }
+
+    /**
+     * @param compactionThreshold the size past which the journal is compacted (bytes), 64 MiB by default.
+     */
+    public Builder compactionThreshold(long compactionThreshold) {
+      this.compactionThreshold = compactionThreshold;
+      return this;
+    }
+
+    /**
+     * @param sync whether every record is forced to the storage device as it is appended, {@code false} by
+     *             default.
+     */
+    public Builder sync(boolean sync) {
+      this.sync = sync;
+      return this;
+    }
+
+    /**
+     * Opens the journal, replaying it over the snapshot.
+     *
+     * @throws IOException if the snapshot or the journal can't be read.
+     */
+    public InstallationJournal build() throws IOException {
+      return new InstallationJournal(this);
+    }
+  }
+}
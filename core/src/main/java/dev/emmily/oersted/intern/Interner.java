@@ -0,0 +1,93 @@
+package dev.emmily.oersted.intern;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.WeakHashMap;
+
+/**
+ * Canonicalizes equal immutable values, so that large installations share a single instance of
+ * every distinct conductor or conduit instead of allocating one per circuit.
+ * <p>
+ * Canonical instances are only weakly referenced, hence values that are no longer used by any
+ * circuit can still be garbage collected. The pool is split into independently locked stripes so
+ * that concurrent builders rarely contend with each other.
+ *
+ * @param <T> the type of the interned values, which must be immutable and implement
+ *            {@code equals} and {@code hashCode} consistently (e.g. records).
+ */
+public final class Interner<T> {
+  private static final int STRIPES = 16;
+
+  /**
+   * Creates a new interner that weakly references its canonical values.
+   *
+   * @param <T> the type of the interned values.
+   * @return a new, empty interner.
+   */
+  public static <T> Interner<T> weak() {
+    return new Interner<>();
+  }
+
+  private final List<WeakHashMap<T, WeakReference<T>>> stripes;
+
+  private Interner() {
+    List<WeakHashMap<T, WeakReference<T>>> stripes = new ArrayList<>(STRIPES);
+
+    for (int i = 0; i < STRIPES; i++) {
+      stripes.add(new WeakHashMap<>());
+    }
+
+    this.stripes = List.copyOf(stripes);
+  }
+
+  /**
+   * Returns the canonical instance equal to the given value, registering the value itself
+   * as canonical if no equal instance is currently alive.
+   *
+   * @param value the value to be interned, may be {@code null}.
+   * @return the canonical instance, or {@code null} if the value is {@code null}.
+   */
+  public T intern(T value) {
+    if (value == null) {
+      return null;
+    }
+
+    WeakHashMap<T, WeakReference<T>> stripe = stripe(value);
+
+    synchronized (stripe) {
+      WeakReference<T> reference = stripe.get(value);
+      T canonical = reference == null ? null : reference.get();
+
+      if (canonical != null) {
+        return canonical;
+      }
+
+      stripe.put(value, new WeakReference<>(value));
+      return value;
+    }
+  }
+
+  /**
+   * Returns the amount of canonical values currently held by this interner.
+   * Values that have been collected but not yet expunged may still be counted.
+   *
+   * @return the amount of canonical values.
+   */
+  public int size() {
+    int size = 0;
+
+    for (WeakHashMap<T, WeakReference<T>> stripe : stripes) {
+      synchronized (stripe) {
+        size += stripe.size();
+      }
+    }
+
+    return size;
+  }
+
+  private WeakHashMap<T, WeakReference<T>> stripe(T value) {
+    int hash = value.hashCode();
+    return stripes.get((hash ^ (hash >>> 16)) & (STRIPES - 1));
+  }
+}
@@ -0,0 +1,27 @@
+package dev.emmily.oersted.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Emitted when a batch of circuits is sized.
+ */
+@Name("dev.emmily.oersted.ConductorSizing")
+@Label("Conductor Sizing")
+@Description("Calculation of the cross-sections of a batch of circuits")
+@Category({"Oersted", "Calculation"})
+@StackTrace(false)
+public class ConductorSizingEvent extends Event {
+  @Label("Circuits")
+  public int circuits;
+
+  @Label("First Circuit")
+  public String firstCircuit;
+
+  @Label("Last Circuit")
+  public String lastCircuit;
+}
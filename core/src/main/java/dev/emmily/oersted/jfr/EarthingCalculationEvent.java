@@ -0,0 +1,30 @@
+package dev.emmily.oersted.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Emitted when the resistance of an earthing system is calculated.
+ */
+@Name("dev.emmily.oersted.EarthingCalculation")
+@Label("Earthing Calculation")
+@Description("Calculation of the resistance of an earthing system")
+@Category({"Oersted", "Calculation"})
+@StackTrace(false)
+public class EarthingCalculationEvent extends Event {
+  @Label("Soil Resistivity (Ω·m)")
+  public double soilResistivity;
+
+  @Label("Maximum Resistance (Ω)")
+  public double maxResistance;
+
+  @Label("Resistance (Ω)")
+  public double resistance;
+
+  @Label("Rods")
+  public double rods;
+}
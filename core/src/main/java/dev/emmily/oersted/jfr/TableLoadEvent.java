@@ -0,0 +1,27 @@
+package dev.emmily.oersted.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Emitted when a table is parsed from its CSV file.
+ */
+@Name("dev.emmily.oersted.TableLoad")
+@Label("Table Load")
+@Description("Parsing of a maximum admissible current table")
+@Category({"Oersted", "Tables"})
+@StackTrace(false)
+public class TableLoadEvent extends Event {
+  @Label("Table")
+  public String table;
+
+  @Label("Source")
+  public String source;
+
+  @Label("Rows")
+  public int rows;
+}
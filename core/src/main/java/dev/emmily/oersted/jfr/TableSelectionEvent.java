@@ -0,0 +1,28 @@
+package dev.emmily.oersted.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Emitted when the table applicable to a circuit is selected.
+ * Disabled by default since it's emitted once per circuit, it can be enabled in the recording settings
+ * or with {@link jdk.jfr.Recording#enable(Class)}.
+ */
+@Name("dev.emmily.oersted.TableSelection")
+@Label("Table Selection")
+@Description("Selection of the table applicable to a circuit")
+@Category({"Oersted", "Tables"})
+@StackTrace(false)
+@Enabled(false)
+public class TableSelectionEvent extends Event {
+  @Label("Circuit")
+  public String circuit;
+
+  @Label("Table")
+  public String table;
+}
@@ -0,0 +1,27 @@
+package dev.emmily.oersted.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Emitted when a hierarchical tree is scanned, e.g. to find the children of an element.
+ */
+@Name("dev.emmily.oersted.TreeTraversal")
+@Label("Tree Traversal")
+@Description("Scan of a hierarchical tree")
+@Category({"Oersted", "Hierarchy"})
+@StackTrace(false)
+public class TreeTraversalEvent extends Event {
+  @Label("Operation")
+  public String operation;
+
+  @Label("Element")
+  public String element;
+
+  @Label("Visited Elements")
+  public int visited;
+}
@@ -0,0 +1,151 @@
+package dev.emmily.oersted.merkle;
+
+import dev.emmily.oersted.circuit.Circuit;
+import dev.emmily.oersted.circuit.conductor.Conductor;
+import dev.emmily.oersted.circuit.conduit.Conduit;
+import dev.emmily.oersted.circuit.protection.CircuitBreaker;
+import dev.emmily.oersted.circuit.protection.ResidualCurrentCircuitBreaker;
+import dev.emmily.oersted.circuit.protection.ThermalMagneticCircuitBreaker;
+import dev.emmily.oersted.system.ElectricalSystem;
+import dev.emmily.oersted.system.ElectricalSystemView;
+
+/**
+ * 64-bit content hashes that are stable across runs and JVMs: strings are hashed char by char, enums by
+ * name and floating-point values by their bits, never through {@link Object#hashCode()}.
+ */
+public final class Hashing {
+  private static final long SEED = 0x9E3779B97F4A7C15L;
+  private static final long PRIME = 0x100000001B3L;
+
+  private Hashing() {
+  }
+
+  /**
+   * Scrambles a value so that every input bit affects every output bit (MurmurHash3's finalizer).
+   */
+  public static long mix(long value) {
+    value ^= value >>> 33;
+    value *= 0xFF51AFD7ED558CCDL;
+    value ^= value >>> 33;
+    value *= 0xC4CEB93FE53D8D4BL;
+    value ^= value >>> 33;
+    return value;
+  }
+
+  public static long combine(long hash, long value) {
+    return mix(hash * PRIME + value);
+  }
+
+  public static long combine(long hash, String value) {
+    if (value == null) {
+      return combine(hash, 0);
+    }
+
+    long string = SEED;
+
+    for (int i = 0; i < value.length(); i++) {
+      string = (string ^ value.charAt(i)) * PRIME;
+    }
+
+    return combine(hash, string + value.length());
+  }
+
+  public static long combine(long hash, Enum<?> value) {
+    return combine(hash, value == null ? null : value.name());
+  }
+
+  public static long combine(long hash, double value) {
+    return combine(hash, Double.doubleToLongBits(value));
+  }
+
+  /**
+   * Hashes every field of a circuit, including its parent, conductors, conduit, breaker tree and
+   * electrical system. The breakers are combined regardless of the iteration order of the tree.
+   *
+   * @param circuit the circuit to be hashed.
+   * @return the content hash of the circuit.
+   */
+  public static long circuit(Circuit circuit) {
+    long hash = SEED;
+    hash = combine(hash, circuit.id());
+    hash = combine(hash, circuit.parent());
+    hash = combine(hash, circuit.description());
+    hash = combine(hash, breakers(circuit));
+    hash = combine(hash, conduit(circuit.conduit()));
+    hash = combine(hash, conductor(circuit.phaseConductors()));
+    hash = combine(hash, conductor(circuit.neutralConductor()));
+    hash = combine(hash, conductor(circuit.earthConductor()));
+    hash = combine(hash, circuit.circuitType());
+    hash = combine(hash, system(circuit.electricalSystem()));
+    hash = combine(hash, circuit.circuitSystemType());
+    return combine(hash, circuit.apparentPower());
+  }
+
+  private static long breakers(Circuit circuit) {
+    if (circuit.circuitBreakerTree() == null) {
+      return 0;
+    }
+
+    long sum = 0;
+
+    for (CircuitBreaker breaker : circuit.circuitBreakerTree().values()) {
+      sum += breaker(breaker);
+    }
+
+    return sum;
+  }
+
+  private static long breaker(CircuitBreaker breaker) {
+    long hash = SEED;
+    hash = combine(hash, breaker.id());
+    hash = combine(hash, breaker.parent());
+    hash = combine(hash, breaker.nominalCurrent());
+    hash = combine(hash, breaker.frequency());
+    hash = combine(hash, breaker.poles());
+
+    if (breaker instanceof ThermalMagneticCircuitBreaker thermalMagnetic) {
+      hash = combine(hash, thermalMagnetic.shortCircuitCurrent());
+      hash = combine(hash, thermalMagnetic.tripCurve());
+    } else if (breaker instanceof ResidualCurrentCircuitBreaker residualCurrent) {
+      hash = combine(hash, residualCurrent.sensitivity());
+      hash = combine(hash, residualCurrent.type());
+    }
+
+    return combine(hash, breaker.getClass().getSimpleName());
+  }
+
+  private static long conduit(Conduit conduit) {
+    if (conduit == null) {
+      return 0;
+    }
+
+    long hash = combine(SEED, conduit.material());
+    hash = combine(hash, conduit.type());
+    return combine(hash, conduit.diameter());
+  }
+
+  private static long conductor(Conductor conductor) {
+    if (conductor == null) {
+      return 0;
+    }
+
+    long hash = combine(SEED, conductor.conductor());
+    hash = combine(hash, conductor.insulator());
+    hash = combine(hash, conductor.length());
+    return combine(hash, conductor.crossSection());
+  }
+
+  private static long system(ElectricalSystem system) {
+    if (system == null) {
+      return 0;
+    }
+
+    ElectricalSystemView snapshot = system.snapshot();
+    long hash = combine(SEED, snapshot.getId());
+    hash = combine(hash, snapshot.systemType());
+    hash = combine(hash, snapshot.distributionSystem());
+    hash = combine(hash, snapshot.getFrequency());
+    hash = combine(hash, snapshot.getPhaseVoltage());
+    return combine(hash, snapshot.getLineVoltage());
+  }
+}
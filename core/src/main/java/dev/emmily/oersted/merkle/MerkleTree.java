@@ -0,0 +1,349 @@
+package dev.emmily.oersted.merkle;
+
+import dev.emmily.oersted.circuit.Circuit;
+import dev.emmily.oersted.hierarchy.Hierarchical;
+import dev.emmily.oersted.hierarchy.HierarchicalTree;
+import dev.emmily.oersted.installation.ElectricalInstallation;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.ToLongFunction;
+
+/**
+ * Maintains Merkle hashes over a {@link HierarchicalTree}: every element has a content hash, and a subtree
+ * hash combining its content hash with the subtree hashes of its children.
+ * <p>
+ * Children are combined by summing their subtree hashes, so the hash of a subtree doesn't depend on the
+ * iteration order of the underlying map, and a change is propagated to the ancestors by subtracting the old
+ * hash and adding the new one, in O(depth). Two revisions can then be diffed in O(changed): subtrees with equal
+ * hashes are skipped without being visited.
+ * <p>
+ * Elements whose parent isn't part of the tree are considered roots. The tree must be edited through
+ * {@link #put(Hierarchical)} and {@link #remove(String)} to keep the hashes current.
+ *
+ * @param <T> the type of the elements of the hierarchy.
+ */
+public class MerkleTree<T extends Hierarchical> {
+  /**
+   * Hashes the circuits of an installation.
+   *
+   * @param installation the installation to be hashed.
+   * @return the Merkle tree of the circuits, backed by a copy of the circuit tree.
+   */
+  public static MerkleTree<Circuit> of(ElectricalInstallation installation) {
+    return new MerkleTree<>(new HierarchicalTree<>(new HashMap<>(installation.circuitTree())), Hashing::circuit);
+  }
+
+  private final HierarchicalTree<T> tree;
+  private final ToLongFunction<T> contentHash;
+  private final Map<String, Node> nodes = new HashMap<>();
+  private final Map<String, Set<String>> children = new HashMap<>();
+  private final Set<String> roots = new HashSet<>();
+  private long rootSum;
+
+  /**
+   * Hashes every element of the given tree.
+   *
+   * @param tree        the tree to be hashed, which must only be edited through this Merkle tree from now on.
+   * @param contentHash the function hashing the content of an element.
+   */
+  public MerkleTree(HierarchicalTree<T> tree, ToLongFunction<T> contentHash) {
+    this.tree = tree;
+    this.contentHash = contentHash;
+
+    Collection<T> elements = tree.elements();
+
+    for (T element : elements) {
+      nodes.put(element.id(), new Node(element.parent(), contentHash.applyAsLong(element)));
+      link(element.id(), element.parent());
+    }
+
+    for (T element : elements) {
+      if (isRoot(element.id(), element.parent())) {
+        roots.add(element.id());
+      }
+    }
+
+    hashSubtrees();
+  }
+
+  private void link(String id, String parent) {
+    if (!parent.equals(id)) {
+      children.computeIfAbsent(parent, key -> new HashSet<>()).add(id);
+    }
+  }
+
+  private boolean isRoot(String id, String parent) {
+    return parent.equals(Hierarchical.PARENT) || parent.equals(id) || !nodes.containsKey(parent);
+  }
+
+  /**
+   * Computes every subtree hash bottom-up, visiting the tree breadth-first from the roots
+   * so that deep hierarchies don't overflow the stack.
+   */
+  private void hashSubtrees() {
+    List<String> order = new ArrayList<>(nodes.size());
+    order.addAll(roots);
+
+    for (int i = 0; i < order.size(); i++) {
+      order.addAll(childrenOf(order.get(i)));
+    }
+
+    for (int i = order.size() - 1; i >= 0; i--) {
+      String id = order.get(i);
+      Node node = nodes.get(id);
+      node.childSum = 0;
+
+      for (String child : childrenOf(id)) {
+        node.childSum += nodes.get(child).subtree;
+      }
+
+      node.rehash();
+    }
+
+    rootSum = 0;
+
+    for (String root : roots) {
+      rootSum += nodes.get(root).subtree;
+    }
+  }
+
+  private Set<String> childrenOf(String id) {
+    return children.getOrDefault(id, Set.of());
+  }
+
+  public HierarchicalTree<T> tree() {
+    return tree;
+  }
+
+  /**
+   * Returns the hash of the whole hierarchy.
+   *
+   * @return the hash of the hierarchy.
+   */
+  public long rootHash() {
+    return Hashing.mix(rootSum);
+  }
+
+  /**
+   * Returns the subtree hash of an element, which can be used as the key of results cached across revisions.
+   *
+   * @param id the identifier of the element.
+   * @return the hash of the element and all its descendants.
+   * @throws IllegalArgumentException if the element is not part of the tree.
+   */
+  public long subtreeHash(String id) {
+    return node(id).subtree;
+  }
+
+  /**
+   * Returns the content hash of an element.
+   *
+   * @param id the identifier of the element.
+   * @return the hash of the element alone.
+   * @throws IllegalArgumentException if the element is not part of the tree.
+   */
+  public long contentHash(String id) {
+    return node(id).content;
+  }
+
+  private Node node(String id) {
+    Node node = nodes.get(id);
+
+    if (node == null) {
+      throw new IllegalArgumentException("the element " + id + " is not part of the tree.");
+    }
+
+    return node;
+  }
+
+  /**
+   * Adds or replaces an element, updating the hashes of its ancestors.
+   *
+   * @param element the element to be added or replaced.
+   */
+  public void put(T element) {
+    String id = element.id();
+    Node previous = nodes.get(id);
+
+    if (previous != null && !previous.parent.equals(element.parent())) {
+      remove(id);
+      previous = null;
+    }
+
+    tree.add(element);
+
+    if (previous != null) {
+      long old = previous.subtree;
+      previous.content = contentHash.applyAsLong(element);
+      previous.rehash();
+      propagate(id, previous.subtree - old);
+      return;
+    }
+
+    Node node = new Node(element.parent(), contentHash.applyAsLong(element));
+    nodes.put(id, node);
+    link(id, element.parent());
+
+    // roots hanging from the new element become its children
+    for (String child : childrenOf(id)) {
+      if (roots.remove(child)) {
+        long subtree = nodes.get(child).subtree;
+        rootSum -= subtree;
+        node.childSum += subtree;
+      }
+    }
+
+    node.rehash();
+
+    if (isRoot(id, element.parent())) {
+      roots.add(id);
+      rootSum += node.subtree;
+    } else {
+      propagate(element.parent(), nodes.get(element.parent()).addChild(node.subtree));
+    }
+  }
+
+  /**
+   * Removes an element, updating the hashes of its ancestors. Its children become roots.
+   *
+   * @param id the identifier of the element to be removed.
+   */
+  public void remove(String id) {
+    Node node = nodes.remove(id);
+
+    if (node == null) {
+      return;
+    }
+
+    tree.remove(id);
+    Set<String> siblings = children.get(node.parent);
+
+    if (siblings != null && siblings.remove(id) && siblings.isEmpty()) {
+      children.remove(node.parent);
+    }
+
+    if (roots.remove(id)) {
+      rootSum -= node.subtree;
+    } else {
+      propagate(node.parent, nodes.get(node.parent).addChild(-node.subtree));
+    }
+
+    for (String child : childrenOf(id)) {
+      roots.add(child);
+      rootSum += nodes.get(child).subtree;
+    }
+  }
+
+  /**
+   * Applies the change of the subtree hash of an element to its ancestors.
+   *
+   * @param id    the element whose subtree hash changed.
+   * @param delta the difference between the new and the old subtree hash.
+   */
+  private void propagate(String id, long delta) {
+    int steps = nodes.size();
+
+    while (delta != 0) {
+      if (roots.contains(id) || steps-- == 0) {
+        rootSum += delta;
+        return;
+      }
+
+      Node node = nodes.get(id);
+      id = node.parent;
+      delta = nodes.get(id).addChild(delta);
+    }
+  }
+
+  /**
+   * Diffs this revision against an older one, only visiting the subtrees whose hashes differ.
+   *
+   * @param previous the older revision.
+   * @return the differences from the older revision to this one.
+   */
+  public TreeDiff diff(MerkleTree<T> previous) {
+    TreeDiff diff = new TreeDiff(new HashSet<>(), new HashSet<>(), new HashSet<>(), new HashSet<>());
+
+    if (rootHash() == previous.rootHash()) {
+      return diff;
+    }
+
+    ArrayDeque<Siblings> pending = new ArrayDeque<>();
+    pending.push(new Siblings(roots, previous.roots));
+
+    while (!pending.isEmpty()) {
+      Siblings siblings = pending.pop();
+
+      for (String id : siblings.current()) {
+        Node current = nodes.get(id);
+        Node old = previous.nodes.get(id);
+
+        if (old != null && old.subtree == current.subtree) {
+          continue;
+        }
+
+        diff.stale().add(id);
+
+        if (old == null) {
+          diff.added().add(id);
+        } else if (old.content != current.content) {
+          diff.changed().add(id);
+        }
+
+        pending.push(new Siblings(childrenOf(id), old == null ? Set.of() : previous.childrenOf(id)));
+      }
+
+      for (String id : siblings.previous()) {
+        if (nodes.containsKey(id)) {
+          // still present, it is visited wherever it hangs now
+          continue;
+        }
+
+        diff.removed().add(id);
+        pending.push(new Siblings(Set.of(), previous.childrenOf(id)));
+      }
+    }
+
+    return diff;
+  }
+
+  /**
+   * The children of the same element in both revisions.
+   */
+  private record Siblings(Set<String> current, Set<String> previous) {}
+
+  private static final class Node {
+    private final String parent;
+    private long content;
+    private long childSum;
+    private long subtree;
+
+    private Node(String parent, long content) {
+      this.parent = parent;
+      this.content = content;
+    }
+
+    private void rehash() {
+      subtree = Hashing.combine(content, childSum);
+    }
+
+    /**
+     * Adds a difference to the sum of the subtree hashes of the children.
+     *
+     * @return the difference of the subtree hash of this node.
+     */
+    private long addChild(long delta) {
+      long old = subtree;
+      childSum += delta;
+      rehash();
+      return subtree - old;
+    }
+  }
+}
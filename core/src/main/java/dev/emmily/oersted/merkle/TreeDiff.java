@@ -0,0 +1,22 @@
+package dev.emmily.oersted.merkle;
+
+import java.util.Set;
+
+/**
+ * The differences between two revisions of a hierarchy.
+ *
+ * @param added   the elements only present in the newer revision.
+ * @param removed the elements only present in the older revision.
+ * @param changed the elements present in both revisions whose content, including their parent, differs.
+ * @param stale   the elements of the newer revision whose subtree differs from the older revision, i.e.
+ *                every result aggregated over their subtree must be recomputed. Includes the added and
+ *                changed elements and all their ancestors.
+ */
+public record TreeDiff(Set<String> added,
+                       Set<String> removed,
+                       Set<String> changed,
+                       Set<String> stale) {
+  public boolean isEmpty() {
+    return added.isEmpty() && removed.isEmpty() && changed.isEmpty();
+  }
+}
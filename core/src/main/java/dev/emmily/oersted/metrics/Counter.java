@@ -0,0 +1,42 @@
+package dev.emmily.oersted.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Monotonic counter backed by a {@link LongAdder}, so that concurrent increments don't contend.
+ * Increments are dropped while the owning {@link Metrics} registry is disabled.
+ */
+public final class Counter {
+  private final String name;
+  private final Metrics metrics;
+  private final LongAdder adder = new LongAdder();
+
+  Counter(String name, Metrics metrics) {
+    this.name = name;
+    this.metrics = metrics;
+  }
+
+  public String name() {
+    return name;
+  }
+
+  public void increment() {
+    if (metrics.enabled()) {
+      adder.increment();
+    }
+  }
+
+  public void add(long amount) {
+    if (metrics.enabled()) {
+      adder.add(amount);
+    }
+  }
+
+  public long count() {
+    return adder.sum();
+  }
+
+  public void reset() {
+    adder.reset();
+  }
+}
@@ -0,0 +1,139 @@
+package dev.emmily.oersted.metrics;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+import java.lang.management.ManagementFactory;
+
+/**
+ * Exposes a {@link Metrics} registry through JMX, with one MXBean per metric under the
+ * {@code dev.emmily.oersted} domain and a control bean to enable or disable the registry.
+ * Metrics created after the registration aren't exposed until {@link #register(Metrics)} is called again.
+ */
+public final class JmxMetrics {
+  private static final String DOMAIN = "dev.emmily.oersted";
+
+  private JmxMetrics() {
+  }
+
+  public interface ControlMXBean {
+    boolean isEnabled();
+
+    void setEnabled(boolean enabled);
+
+    void reset();
+  }
+
+  public interface CounterMXBean {
+    long getCount();
+  }
+
+  public interface HistogramMXBean {
+    long getCount();
+
+    double getMean();
+
+    long getP50();
+
+    long getP90();
+
+    long getP99();
+
+    long getP999();
+
+    long getMax();
+  }
+
+  /**
+   * Registers the beans of the given registry in the platform MBean server.
+   *
+   * @param metrics the registry to be exposed.
+   * @throws JMException if a bean can't be registered.
+   */
+  public static void register(Metrics metrics) throws JMException {
+    register(metrics, ManagementFactory.getPlatformMBeanServer());
+  }
+
+  /**
+   * Registers the beans of the given registry, skipping the ones already registered.
+   *
+   * @param metrics the registry to be exposed.
+   * @param server  the server the beans are registered in.
+   * @throws JMException if a bean can't be registered.
+   */
+  public static void register(Metrics metrics, MBeanServer server) throws JMException {
+    register(server, new ObjectName(DOMAIN + ":type=Metrics"), ControlMXBean.class, new ControlMXBean() {
+      @Override
+      public boolean isEnabled() {
+        return metrics.enabled();
+      }
+
+      @Override
+      public void setEnabled(boolean enabled) {
+        metrics.setEnabled(enabled);
+      }
+
+      @Override
+      public void reset() {
+        metrics.reset();
+      }
+    });
+
+    for (Counter counter : metrics.counters()) {
+      register(server, name("Counter", counter.name()), CounterMXBean.class, counter::count);
+    }
+
+    for (LatencyHistogram histogram : metrics.histograms()) {
+      register(server, name("Histogram", histogram.name()), HistogramMXBean.class, new HistogramMXBean() {
+        @Override
+        public long getCount() {
+          return histogram.count();
+        }
+
+        @Override
+        public double getMean() {
+          return histogram.mean();
+        }
+
+        @Override
+        public long getP50() {
+          return histogram.percentile(50);
+        }
+
+        @Override
+        public long getP90() {
+          return histogram.percentile(90);
+        }
+
+        @Override
+        public long getP99() {
+          return histogram.percentile(99);
+        }
+
+        @Override
+        public long getP999() {
+          return histogram.percentile(99.9);
+        }
+
+        @Override
+        public long getMax() {
+          return histogram.max();
+        }
+      });
+    }
+  }
+
+  private static ObjectName name(String type, String name) throws JMException {
+    return new ObjectName(DOMAIN + ":type=" + type + ",name=" + ObjectName.quote(name));
+  }
+
+  private static <T> void register(MBeanServer server,
+                                   ObjectName name,
+                                   Class<T> type,
+                                   T bean) throws JMException {
+    if (!server.isRegistered(name)) {
+      server.registerMBean(new StandardMBean(bean, type, true), name);
+    }
+  }
+}
@@ -0,0 +1,149 @@
+package dev.emmily.oersted.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records latencies in nanoseconds into log-linear buckets, in the spirit of HdrHistogram.
+ * <p>
+ * Every power of two is split into {@value #SUB_BUCKETS} linear sub-buckets, so percentiles are reported
+ * with a relative error below 1 / {@value #SUB_BUCKETS} (about 3%) from 1 ns up to several hours, using a
+ * fixed amount of memory. Recording is lock-free and allocation-free.
+ * <p>
+ * Timings are taken with {@link #start()} and {@link #stop(long)}, which don't even read the clock while the
+ * owning {@link Metrics} registry is disabled:
+ * <pre>{@code
+ * long start = LATENCY.start();
+ * ...
+ * LATENCY.stop(start);
+ * }</pre>
+ */
+public final class LatencyHistogram {
+  private static final int SUB_BUCKET_BITS = 5;
+  private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+  private static final int MAGNITUDES = 64 - SUB_BUCKET_BITS;
+
+  private final String name;
+  private final Metrics metrics;
+  private final AtomicLongArray buckets = new AtomicLongArray((MAGNITUDES + 1) * SUB_BUCKETS);
+  private final LongAdder count = new LongAdder();
+  private final LongAdder sum = new LongAdder();
+  private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+  LatencyHistogram(String name, Metrics metrics) {
+    this.name = name;
+    this.metrics = metrics;
+  }
+
+  public String name() {
+    return name;
+  }
+
+  /**
+   * Starts a timing.
+   *
+   * @return the start timestamp, or 0 if metrics are disabled.
+   */
+  public long start() {
+    return metrics.enabled() ? System.nanoTime() : 0;
+  }
+
+  /**
+   * Records the time elapsed since the given start timestamp.
+   *
+   * @param start the timestamp returned by {@link #start()}.
+   */
+  public void stop(long start) {
+    if (start != 0) {
+      record(System.nanoTime() - start);
+    }
+  }
+
+  /**
+   * Records a latency.
+   *
+   * @param nanos the latency in nanoseconds.
+   */
+  public void record(long nanos) {
+    if (nanos < 0) {
+      nanos = 0;
+    }
+
+    buckets.incrementAndGet(bucket(nanos));
+    count.increment();
+    sum.add(nanos);
+    max.accumulate(nanos);
+  }
+
+  public long count() {
+    return count.sum();
+  }
+
+  public double mean() {
+    long count = count();
+    return count == 0 ? 0 : (double) sum.sum() / count;
+  }
+
+  public long max() {
+    return max.get();
+  }
+
+  /**
+   * Returns the latency below which the given fraction of the recorded latencies fall.
+   *
+   * @param percentile the percentile, between 0 and 100.
+   * @return the upper bound of the bucket holding the percentile (ns), or 0 if nothing was recorded.
+   */
+  public long percentile(double percentile) {
+    long total = count();
+
+    if (total == 0) {
+      return 0;
+    }
+
+    long target = Math.max(1, (long) Math.ceil(total * percentile / 100));
+    long seen = 0;
+
+    for (int bucket = 0; bucket < buckets.length(); bucket++) {
+      seen += buckets.get(bucket);
+
+      if (seen >= target) {
+        return Math.min(upperBound(bucket), max());
+      }
+    }
+
+    return max();
+  }
+
+  public void reset() {
+    for (int bucket = 0; bucket < buckets.length(); bucket++) {
+      buckets.set(bucket, 0);
+    }
+
+    count.reset();
+    sum.reset();
+    max.reset();
+  }
+
+  private static int bucket(long value) {
+    if (value < SUB_BUCKETS) {
+      return (int) value;
+    }
+
+    int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+    int subBucket = (int) (value >>> shift) - SUB_BUCKETS;
+    return (shift + 1) * SUB_BUCKETS + subBucket;
+  }
+
+  private static long upperBound(int bucket) {
+    int magnitude = bucket / SUB_BUCKETS;
+    int subBucket = bucket % SUB_BUCKETS;
+
+    if (magnitude == 0) {
+      return subBucket;
+    }
+
+    return ((long) (SUB_BUCKETS + subBucket + 1) << (magnitude - 1)) - 1;
+  }
+}
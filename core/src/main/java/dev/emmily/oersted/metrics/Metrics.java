@@ -0,0 +1,115 @@
+package dev.emmily.oersted.metrics;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Registry of the counters and latency histograms of the calculation engines.
+ * <p>
+ * Metrics are disabled by default, which reduces every instrumented call to a volatile read. They can be
+ * enabled with the {@code oersted.metrics.enabled} system property, through {@link #setEnabled(boolean)} or through
+ * the JMX control bean registered by {@link JmxMetrics}.
+ */
+public final class Metrics {
+  private static final Metrics GLOBAL = new Metrics(Boolean.getBoolean("oersted.metrics.enabled"));
+
+  /**
+   * Returns the registry used by the library's own instrumentation.
+   *
+   * @return the global registry.
+   */
+  public static Metrics global() {
+    return GLOBAL;
+  }
+
+  private final ConcurrentMap<String, Counter> counters = new ConcurrentHashMap<>();
+  private final ConcurrentMap<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+  private volatile boolean enabled;
+
+  public Metrics(boolean enabled) {
+    this.enabled = enabled;
+  }
+
+  public boolean enabled() {
+    return enabled;
+  }
+
+  public void setEnabled(boolean enabled) {
+    this.enabled = enabled;
+  }
+
+  /**
+   * Returns the counter with the given name, creating it if needed.
+   *
+   * @param name the name of the counter.
+   * @return the counter.
+   */
+  public Counter counter(String name) {
+    return counters.computeIfAbsent(name, key -> new Counter(key, this));
+  }
+
+  /**
+   * Returns the latency histogram with the given name, creating it if needed.
+   *
+   * @param name the name of the histogram.
+   * @return the histogram.
+   */
+  public LatencyHistogram histogram(String name) {
+    return histograms.computeIfAbsent(name, key -> new LatencyHistogram(key, this));
+  }
+
+  public Collection<Counter> counters() {
+    return Collections.unmodifiableCollection(counters.values());
+  }
+
+  public Collection<LatencyHistogram> histograms() {
+    return Collections.unmodifiableCollection(histograms.values());
+  }
+
+  /**
+   * Resets every counter and histogram of the registry.
+   */
+  public void reset() {
+    counters.values().forEach(Counter::reset);
+    histograms.values().forEach(LatencyHistogram::reset);
+  }
+
+  /**
+   * Hands the current metrics to the given reporter.
+   *
+   * @param reporter the reporter.
+   */
+  public void report(MetricsReporter reporter) {
+    reporter.report(this);
+  }
+
+  /**
+   * Hands the metrics to the given reporter periodically, from a daemon thread.
+   *
+   * @param reporter the reporter.
+   * @param period   the time between reports.
+   * @return the scheduled reporting, which keeps its thread until it is cancelled or closed.
+   */
+  public ScheduledReporting schedule(MetricsReporter reporter, Duration period) {
+    ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "oersted-metrics-reporter");
+      thread.setDaemon(true);
+      return thread;
+    });
+
+    ScheduledFuture<?> future = executor.scheduleAtFixedRate(
+      () -> report(reporter),
+      period.toNanos(),
+      period.toNanos(),
+      TimeUnit.NANOSECONDS
+    );
+    return new ScheduledReporting(executor, future);
+  }
+}
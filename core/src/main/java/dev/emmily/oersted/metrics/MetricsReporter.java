@@ -0,0 +1,38 @@
+package dev.emmily.oersted.metrics;
+
+import java.io.PrintStream;
+
+/**
+ * Publishes the content of a {@link Metrics} registry, e.g. to a log or a monitoring system.
+ */
+@FunctionalInterface
+public interface MetricsReporter {
+  void report(Metrics metrics);
+
+  /**
+   * Returns a reporter that prints one line per metric.
+   *
+   * @param out the stream the metrics are printed to.
+   * @return the printing reporter.
+   */
+  static MetricsReporter printing(PrintStream out) {
+    return metrics -> {
+      for (Counter counter : metrics.counters()) {
+        out.printf("%s count=%d%n", counter.name(), counter.count());
+      }
+
+      for (LatencyHistogram histogram : metrics.histograms()) {
+        out.printf(
+          "%s count=%d mean=%.0fns p50=%dns p99=%dns p999=%dns max=%dns%n",
+          histogram.name(),
+          histogram.count(),
+          histogram.mean(),
+          histogram.percentile(50),
+          histogram.percentile(99),
+          histogram.percentile(99.9),
+          histogram.max()
+        );
+      }
+    };
+  }
+}
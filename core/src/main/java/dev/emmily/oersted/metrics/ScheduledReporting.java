@@ -0,0 +1,35 @@
+package dev.emmily.oersted.metrics;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+
+/**
+ * Handle of a periodic reporting started by {@link Metrics#schedule(MetricsReporter, java.time.Duration)}.
+ * The reporting thread lives until the handle is cancelled or closed.
+ */
+public final class ScheduledReporting implements AutoCloseable {
+  private final ScheduledExecutorService executor;
+  private final ScheduledFuture<?> future;
+
+  ScheduledReporting(ScheduledExecutorService executor, ScheduledFuture<?> future) {
+    this.executor = executor;
+    this.future = future;
+  }
+
+  /**
+   * Stops the reporting and its thread, a report in progress is allowed to finish.
+   */
+  public void cancel() {
+    future.cancel(false);
+    executor.shutdown();
+  }
+
+  public boolean isCancelled() {
+    return future.isCancelled();
+  }
+
+  @Override
+  public void close() {
+    cancel();
+  }
+}
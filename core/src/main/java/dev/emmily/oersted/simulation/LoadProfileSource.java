@@ -0,0 +1,21 @@
+package dev.emmily.oersted.simulation;
+
+import dev.emmily.oersted.circuit.Circuit;
+
+/**
+ * Supplies the load profile of the final circuits of an installation, one chunk of time steps at a time.
+ * <p>
+ * Implementations are called concurrently for different circuits and must not retain the target array.
+ */
+@FunctionalInterface
+public interface LoadProfileSource {
+  /**
+   * Writes the apparent power (VA) drawn by the circuit at each of the requested time steps.
+   *
+   * @param circuit the circuit whose profile is requested.
+   * @param from    the first time step of the chunk.
+   * @param length  the amount of time steps of the chunk.
+   * @param target  the array the values must be written to, starting at index 0.
+   */
+  void fill(Circuit circuit, int from, int length, float[] target);
+}
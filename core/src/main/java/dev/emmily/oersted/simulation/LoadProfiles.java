@@ -0,0 +1,47 @@
+package dev.emmily.oersted.simulation;
+
+import dev.emmily.oersted.circuit.Circuit;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Provides common {@link LoadProfileSource}s.
+ */
+public interface LoadProfiles {
+  /**
+   * Returns a source that draws the rated apparent power of every circuit at every time step.
+   *
+   * @return the constant load profile source.
+   */
+  static LoadProfileSource constant() {
+    return (circuit, from, length, target) -> Arrays.fill(target, 0, length, circuit.apparentPower());
+  }
+
+  /**
+   * Returns a source that repeats a normalized shape per circuit type (e.g. 24 hourly or 96
+   * quarter-hourly factors for a typical day), scaled by the rated apparent power of each circuit.
+   * Circuits whose type has no shape draw their rated power at every time step.
+   *
+   * @param shapes the shape of every circuit type, as factors of the rated power.
+   * @return the shaped load profile source.
+   */
+  static LoadProfileSource shaped(Map<Circuit.CircuitType, float[]> shapes) {
+    Map<Circuit.CircuitType, float[]> copy = new EnumMap<>(shapes);
+
+    return (circuit, from, length, target) -> {
+      float[] shape = copy.get(circuit.circuitType());
+      float power = circuit.apparentPower();
+
+      if (shape == null || shape.length == 0) {
+        Arrays.fill(target, 0, length, power);
+        return;
+      }
+
+      for (int i = 0, step = from % shape.length; i < length; i++, step = step + 1 == shape.length ? 0 : step + 1) {
+        target[i] = shape[step] * power;
+      }
+    };
+  }
+}
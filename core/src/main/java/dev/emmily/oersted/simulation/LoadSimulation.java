@@ -0,0 +1,232 @@
+package dev.emmily.oersted.simulation;
+
+import dev.emmily.oersted.circuit.Circuit;
+import dev.emmily.oersted.hierarchy.Hierarchical;
+import dev.emmily.oersted.hierarchy.HierarchicalForest;
+import dev.emmily.oersted.installation.ElectricalInstallation;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Simulates the load of every circuit of an installation over time, aggregating the profiles of the
+ * final circuits up the circuit tree to find the real peak load of every feeder.
+ * <p>
+ * Profiles are never materialized as a whole: time is split into chunks, and for every chunk the
+ * tree is aggregated bottom-up with one primitive buffer per circuit in flight, recycled as soon as
+ * it has been added to its parent. Only a handful of statistics per circuit outlive a chunk, so memory
+ * is bounded by the amount of circuits plus the chunk size times the tree depth, regardless of the
+ * amount of time steps. Large subtrees are aggregated in parallel on a fork/join pool.
+ * <p>
+ * Circuits with children are considered distribution boards: their load is the sum of their children,
+ * and only the profiles of the final circuits are requested from the {@link LoadProfileSource}.
+ */
+public class LoadSimulation {
+  private static final int DEFAULT_CHUNK_SIZE = 4096;
+  private static final int FORK_THRESHOLD = 256;
+
+  /**
+   * @param steps     the amount of time steps to simulate, e.g. 8760 for a year of hourly steps.
+   * @param stepHours the duration of a time step in hours, e.g. 0.25 for 15-minute steps.
+   */
+  public static LoadSimulation create(int steps, float stepHours) {
+    return create(steps, stepHours, DEFAULT_CHUNK_SIZE, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * @param steps     the amount of time steps to simulate.
+   * @param stepHours the duration of a time step in hours.
+   * @param chunkSize the amount of time steps aggregated at once.
+   * @param pool      the pool subtrees are aggregated on.
+   */
+  public static LoadSimulation create(int steps, float stepHours, int chunkSize, ForkJoinPool pool) {
+    if (steps < 1 || chunkSize < 1) {
+      throw new IllegalArgumentException("steps and chunk size must be greater than 0");
+    }
+
+    return new LoadSimulation(steps, stepHours, chunkSize, pool);
+  }
+
+  private final int steps;
+  private final float stepHours;
+  private final int chunkSize;
+  private final ForkJoinPool pool;
+
+  private LoadSimulation(int steps, float stepHours, int chunkSize, ForkJoinPool pool) {
+    this.steps = steps;
+    this.stepHours = stepHours;
+    this.chunkSize = chunkSize;
+    this.pool = pool;
+  }
+
+  /**
+   * Simulates the installation.
+   *
+   * @param installation the installation to be simulated.
+   * @param profiles     the source of the load profiles of the final circuits.
+   * @return the peak load, peak time, energy and diversity of every circuit.
+   */
+  public SimulationResult simulate(ElectricalInstallation installation, LoadProfileSource profiles) {
+    Run run = new Run(installation.circuitTree(), profiles);
+
+    for (int from = 0; from < steps; from += chunkSize) {
+      int length = Math.min(chunkSize, steps - from);
+      run.release(pool.invoke(run.new Aggregation(run.root, from, length)));
+    }
+
+    return run.result();
+  }
+
+  /**
+   * State of a single simulation, circuits are addressed by dense ordinals and the installation
+   * itself is the virtual root, with the last ordinal.
+   */
+  private final class Run {
+    private final HierarchicalForest<Circuit> forest;
+    private final Circuit[] circuits;
+    private final int root;
+    private final int[] childStart;
+    private final int[] children;
+    private final int[] subtreeSize;
+    private final LoadProfileSource profiles;
+
+    private final float[] peak;
+    private final int[] peakStep;
+    private final double[] energy;
+
+    private final ThreadLocal<ArrayDeque<float[]>> buffers = ThreadLocal.withInitial(ArrayDeque::new);
+
+    private Run(Map<String, Circuit> circuitTree, LoadProfileSource profiles) {
+      this.forest = new HierarchicalForest<>(circuitTree.values().toArray(new Circuit[0]));
+      this.circuits = forest.elements();
+      this.root = forest.root();
+      this.childStart = forest.childStart();
+      this.children = forest.children();
+      this.subtreeSize = forest.subtreeSizes();
+      this.profiles = profiles;
+
+      this.peak = new float[circuits.length + 1];
+      this.peakStep = new int[circuits.length + 1];
+      this.energy = new double[circuits.length + 1];
+      Arrays.fill(peak, Float.NEGATIVE_INFINITY);
+    }
+
+    private float[] aggregate(int node, int from, int length) {
+      float[] load = acquire();
+      int first = childStart[node];
+      int last = childStart[node + 1];
+
+      if (first == last && node != root) {
+        profiles.fill(circuits[node], from, length, load);
+      } else {
+        Arrays.fill(load, 0, length, 0);
+        List<Aggregation> forked = null;
+
+        for (int child = first; child < last; child++) {
+          int ordinal = children[child];
+
+          if (subtreeSize[ordinal] >= FORK_THRESHOLD) {
+            if (forked == null) {
+              forked = new ArrayList<>();
+            }
+
+            Aggregation aggregation = new Aggregation(ordinal, from, length);
+            aggregation.fork();
+            forked.add(aggregation);
+          } else {
+            add(load, aggregate(ordinal, from, length), length);
+          }
+        }
+
+        if (forked != null) {
+          for (Aggregation aggregation : forked) {
+            add(load, aggregation.join(), length);
+          }
+        }
+      }
+
+      record(node, load, from, length);
+      return load;
+    }
+
+    private void record(int node, float[] load, int from, int length) {
+      float nodePeak = peak[node];
+      int nodePeakStep = peakStep[node];
+      double sum = 0;
+
+      for (int i = 0; i < length; i++) {
+        float value = load[i];
+        sum += value;
+
+        if (value > nodePeak) {
+          nodePeak = value;
+          nodePeakStep = from + i;
+        }
+      }
+
+      peak[node] = nodePeak;
+      peakStep[node] = nodePeakStep;
+      energy[node] += sum * stepHours;
+    }
+
+    private void add(float[] target, float[] source, int length) {
+      for (int i = 0; i < length; i++) {
+        target[i] += source[i];
+      }
+
+      release(source);
+    }
+
+    private float[] acquire() {
+      float[] buffer = buffers.get().poll();
+      return buffer == null ? new float[chunkSize] : buffer;
+    }
+
+    private void release(float[] buffer) {
+      buffers.get().push(buffer);
+    }
+
+    private SimulationResult result() {
+      double[] diversity = new double[peak.length];
+
+      for (int node = 0; node < peak.length; node++) {
+        double childPeaks = 0;
+
+        for (int child = childStart[node]; child < childStart[node + 1]; child++) {
+          childPeaks += peak[children[child]];
+        }
+
+        diversity[node] = childStart[node] == childStart[node + 1] || peak[node] <= 0 ? 1 : childPeaks / peak[node];
+      }
+
+      Map<String, Integer> resultOrdinals = new HashMap<>(forest.ordinals());
+      resultOrdinals.put(Hierarchical.PARENT, root);
+      return new SimulationResult(resultOrdinals, peak, peakStep, energy, diversity);
+    }
+
+    private final class Aggregation extends RecursiveTask<float[]> {
+      private static final long serialVersionUID = 1L;
+
+      private final int node;
+      private final int from;
+      private final int length;
+
+      private Aggregation(int node, int from, int length) {
+        this.node = node;
+        this.from = from;
+        this.length = length;
+      }
+
+      @Override
+      protected float[] compute() {
+        return aggregate(node, from, length);
+      }
+    }
+  }
+}
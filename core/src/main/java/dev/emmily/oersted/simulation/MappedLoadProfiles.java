@@ -0,0 +1,96 @@
+package dev.emmily.oersted.simulation;
+
+import dev.emmily.oersted.circuit.Circuit;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads measured or pre-computed load profiles from a memory-mapped file, so profiles of any size
+ * stay off the heap and are paged in by the operating system as the simulation advances.
+ * <p>
+ * The file holds one row per circuit, in the order of the given ids, and every row holds
+ * one little-endian 32-bit float (VA) per time step.
+ */
+public class MappedLoadProfiles implements LoadProfileSource {
+  /**
+   * Maps the given profile file.
+   *
+   * @param file  the profile file.
+   * @param ids   the identifiers of the circuits, in the order of their rows.
+   * @param steps the amount of time steps per row.
+   * @return the profile source backed by the file.
+   * @throws IOException if the file can't be mapped or is shorter than expected.
+   */
+  public static MappedLoadProfiles open(Path file, List<String> ids, int steps) throws IOException {
+    long rowSize = (long) steps * Float.BYTES;
+
+    if (rowSize > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("rows larger than 2 GiB are not supported");
+    }
+
+    int rowsPerSegment = (int) Math.max(1, Integer.MAX_VALUE / rowSize);
+    FloatBuffer[] segments = new FloatBuffer[(ids.size() + rowsPerSegment - 1) / rowsPerSegment];
+
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      if (channel.size() < rowSize * ids.size()) {
+        throw new IOException("the profile file " + file + " is shorter than " + ids.size() + " rows of " + steps + " steps");
+      }
+
+      for (int i = 0; i < segments.length; i++) {
+        long rows = Math.min(rowsPerSegment, ids.size() - (long) i * rowsPerSegment);
+
+        segments[i] = channel
+          .map(FileChannel.MapMode.READ_ONLY, i * rowsPerSegment * rowSize, rows * rowSize)
+          .order(ByteOrder.LITTLE_ENDIAN)
+          .asFloatBuffer();
+      }
+    }
+
+    Map<String, Integer> rows = new HashMap<>((int) (ids.size() / 0.75f) + 1);
+
+    for (int i = 0; i < ids.size(); i++) {
+      rows.put(ids.get(i), i);
+    }
+
+    return new MappedLoadProfiles(rows, segments, rowsPerSegment, steps);
+  }
+
+  private final Map<String, Integer> rows;
+  private final FloatBuffer[] segments;
+  private final int rowsPerSegment;
+  private final int steps;
+
+  private MappedLoadProfiles(Map<String, Integer> rows,
+                             FloatBuffer[] segments,
+                             int rowsPerSegment,
+                             int steps) {
+    this.rows = rows;
+    this.segments = segments;
+    this.rowsPerSegment = rowsPerSegment;
+    this.steps = steps;
+  }
+
+  @Override
+  public void fill(Circuit circuit, int from, int length, float[] target) {
+    Integer row = rows.get(circuit.id());
+
+    if (row == null) {
+      throw new IllegalArgumentException("the circuit " + circuit.id() + " has no load profile.");
+    }
+
+    if (from < 0 || from + length > steps) {
+      throw new IndexOutOfBoundsException("steps " + from + " to " + (from + length) + " out of bounds for " + steps + " steps");
+    }
+
+    // absolute bulk reads don't move the shared buffer position, so concurrent fills are safe
+    segments[row / rowsPerSegment].get((row % rowsPerSegment) * steps + from, target, 0, length);
+  }
+}
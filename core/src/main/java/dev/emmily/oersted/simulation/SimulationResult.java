@@ -0,0 +1,80 @@
+package dev.emmily.oersted.simulation;
+
+import dev.emmily.oersted.hierarchy.Hierarchical;
+
+import java.util.Map;
+
+/**
+ * Holds the outcome of a {@link LoadSimulation}, in primitive arrays indexed by circuit ordinal.
+ * The whole installation can be queried through {@link Hierarchical#PARENT}.
+ */
+public class SimulationResult {
+  private final Map<String, Integer> ordinals;
+  private final float[] peak;
+  private final int[] peakStep;
+  private final double[] energy;
+  private final double[] diversity;
+
+  SimulationResult(Map<String, Integer> ordinals,
+                   float[] peak,
+                   int[] peakStep,
+                   double[] energy,
+                   double[] diversity) {
+    this.ordinals = ordinals;
+    this.peak = peak;
+    this.peakStep = peakStep;
+    this.energy = energy;
+    this.diversity = diversity;
+  }
+
+  /**
+   * Returns the highest apparent power drawn by the circuit at any time step.
+   *
+   * @param id the unique id of the circuit.
+   * @return the peak load (VA).
+   */
+  public float peak(String id) {
+    return peak[ordinal(id)];
+  }
+
+  /**
+   * Returns the first time step at which the circuit draws its peak load.
+   *
+   * @param id the unique id of the circuit.
+   * @return the time step of the peak load.
+   */
+  public int peakStep(String id) {
+    return peakStep[ordinal(id)];
+  }
+
+  /**
+   * Returns the apparent energy drawn by the circuit over the whole simulation.
+   *
+   * @param id the unique id of the circuit.
+   * @return the energy (VAh).
+   */
+  public double energy(String id) {
+    return energy[ordinal(id)];
+  }
+
+  /**
+   * Returns the diversity factor of the circuit, which is the sum of the individual peaks of its
+   * children divided by its own peak. Final circuits have a diversity factor of 1.
+   *
+   * @param id the unique id of the circuit.
+   * @return the diversity factor, 1 or greater.
+   */
+  public double diversityFactor(String id) {
+    return diversity[ordinal(id)];
+  }
+
+  private int ordinal(String id) {
+    Integer ordinal = ordinals.get(id);
+
+    if (ordinal == null) {
+      throw new IllegalArgumentException("the element " + id + " is not part of the simulation.");
+    }
+
+    return ordinal;
+  }
+}
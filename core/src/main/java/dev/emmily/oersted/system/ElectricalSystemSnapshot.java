@@ -0,0 +1,100 @@
+package dev.emmily.oersted.system;
+
+import dev.emmily.oersted.system.ElectricalSystem.DistributionSystem;
+import dev.emmily.oersted.system.ElectricalSystem.SystemType;
+
+/**
+ * Immutable, point-in-time view of an {@link ElectricalSystem}.
+ * <p>
+ * Snapshots keep both the phase and the line voltage in double precision, deriving the missing one
+ * through {@link ElectricalSystem#SQRT_3} when the source only defines one of them. Since they can't change,
+ * a single snapshot can be shared by any amount of threads while the original system is being edited.
+ * Calculators are expected to take one snapshot per batch of circuits.
+ *
+ * @param id                 the identifier of the source system.
+ * @param systemType         the type of the source system.
+ * @param distributionSystem the distribution system of the source system.
+ * @param frequency          the frequency in Hz.
+ * @param phaseVoltage       the phase voltage in volts.
+ * @param lineVoltage        the line voltage in volts.
+ */
+public record ElectricalSystemSnapshot(String id,
+                                       SystemType systemType,
+                                       DistributionSystem distributionSystem,
+                                       int frequency,
+                                       double phaseVoltage,
+                                       double lineVoltage) implements ElectricalSystemView {
+  /**
+   * Creates a snapshot, deriving the phase or line voltage of a three-phase system through {@link ElectricalSystem#SQRT_3} if
+   * only one of them is defined (the other one being 0).
+   */
+  public static ElectricalSystemSnapshot create(String id,
+                                                SystemType systemType,
+                                                DistributionSystem distributionSystem,
+                                                int frequency,
+                                                double phaseVoltage,
+                                                double lineVoltage) {
+    if (systemType == SystemType.THREE_PHASE) {
+      if (phaseVoltage == 0) {
+        phaseVoltage = lineVoltage / ElectricalSystem.SQRT_3;
+      } else if (lineVoltage == 0) {
+        lineVoltage = phaseVoltage * ElectricalSystem.SQRT_3;
+      }
+    }
+
+    return new ElectricalSystemSnapshot(id, systemType, distributionSystem, frequency, phaseVoltage, lineVoltage);
+  }
+
+  /**
+   * Takes a snapshot of the given system, deriving the phase or line voltage if only one is defined.
+   *
+   * @param system the system to be copied.
+   * @return the snapshot of the system, which is the system itself if it's already a snapshot.
+   * @see ElectricalSystemView#snapshot()
+   */
+  public static ElectricalSystemSnapshot of(ElectricalSystemView system) {
+    return system.snapshot();
+  }
+
+  /**
+   * Returns the voltage a circuit of the given type is supplied with under this system.
+   * IT systems don't distribute the neutral, so every circuit is supplied with the line voltage.
+   *
+   * @param circuitSystemType the system type of the circuit.
+   * @return the supply voltage of the circuit in volts.
+   */
+  public double voltageFor(SystemType circuitSystemType) {
+    return switch (distributionSystem) {
+      case IT -> lineVoltage;
+      case TT -> switch (circuitSystemType) {
+        case SINGLE_PHASE -> phaseVoltage;
+        case THREE_PHASE -> lineVoltage;
+      };
+    };
+  }
+
+  @Override
+  public ElectricalSystemSnapshot snapshot() {
+    return this;
+  }
+
+  @Override
+  public String getId() {
+    return id;
+  }
+
+  @Override
+  public int getFrequency() {
+    return frequency;
+  }
+
+  @Override
+  public int getPhaseVoltage() {
+    return (int) Math.round(phaseVoltage);
+  }
+
+  @Override
+  public int getLineVoltage() {
+    return (int) Math.round(lineVoltage);
+  }
+}
@@ -0,0 +1,53 @@
+package dev.emmily.oersted.system;
+
+import dev.emmily.oersted.system.ElectricalSystem.DistributionSystem;
+import dev.emmily.oersted.system.ElectricalSystem.SystemType;
+
+/**
+ * The read-only side of an {@link ElectricalSystem}, implemented by both the mutable systems and their
+ * immutable {@link ElectricalSystemSnapshot}s.
+ */
+public interface ElectricalSystemView {
+  /**
+   * Gets the unique identifier for the electrical system.
+   * @return The system's ID.
+   */
+  String getId();
+
+  SystemType systemType();
+
+  DistributionSystem distributionSystem();
+
+  /**
+   * Gets the frequency of the electrical system (Hz).
+   * @return The frequency in Hz.
+   */
+  int getFrequency();
+
+  /**
+   * Gets the phase voltage of the electrical system.
+   * @return The phase voltage in volts.
+   */
+  int getPhaseVoltage();
+
+  /**
+   * Gets the line voltage of the electrical system.
+   * @return The line voltage in volts.
+   */
+  int getLineVoltage();
+
+  /**
+   * Takes an immutable snapshot of the current state of the electrical system.
+   * @return The snapshot of the system.
+   */
+  default ElectricalSystemSnapshot snapshot() {
+    return ElectricalSystemSnapshot.create(
+      getId(),
+      systemType(),
+      distributionSystem(),
+      getFrequency(),
+      getPhaseVoltage(),
+      getLineVoltage()
+    );
+  }
+}
@@ -0,0 +1,78 @@
+package dev.emmily.oersted.system.singlephase;
+
+import dev.emmily.oersted.system.ElectricalSystem;
+
+/**
+ * A single-phase system, supplying every circuit with its phase voltage. The line voltage is kept as given,
+ * since a single-phase supply doesn't derive it from the phase voltage.
+ */
+public class SinglePhaseElectricalSystem implements ElectricalSystem {
+
+  private final String id;
+  private DistributionSystem distributionSystem;
+  private int frequency;
+  private int phaseVoltage;
+  private int lineVoltage;
+
+  public SinglePhaseElectricalSystem(String id,
+                                     DistributionSystem distributionSystem,
+                                     int frequency,
+                                     int phaseVoltage,
+                                     int lineVoltage) {
+    this.id = id;
+    this.distributionSystem = distributionSystem;
+    this.frequency = frequency;
+    this.phaseVoltage = phaseVoltage;
+    this.lineVoltage = lineVoltage;
+  }
+
+  @Override
+  public String getId() {
+    return id;
+  }
+
+  @Override
+  public SystemType systemType() {
+    return SystemType.SINGLE_PHASE;
+  }
+
+  @Override
+  public synchronized DistributionSystem distributionSystem() {
+    return distributionSystem;
+  }
+
+  @Override
+  public synchronized void setDistributionSystem(DistributionSystem distributionSystem) {
+    this.distributionSystem = distributionSystem;
+  }
+
+  @Override
+  public synchronized int getFrequency() {
+    return frequency;
+  }
+
+  @Override
+  public synchronized void setFrequency(int frequency) {
+    this.frequency = frequency;
+  }
+
+  @Override
+  public synchronized int getPhaseVoltage() {
+    return phaseVoltage;
+  }
+
+  @Override
+  public synchronized void setPhaseVoltage(int phaseVoltage) {
+    this.phaseVoltage = phaseVoltage;
+  }
+
+  @Override
+  public synchronized int getLineVoltage() {
+    return lineVoltage;
+  }
+
+  @Override
+  public synchronized void setLineVoltage(int lineVoltage) {
+    this.lineVoltage = lineVoltage;
+  }
+}
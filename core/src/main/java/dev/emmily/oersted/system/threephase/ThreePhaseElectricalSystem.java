@@ -1,7 +1,12 @@
 package dev.emmily.oersted.system.threephase;
 
 import dev.emmily.oersted.system.ElectricalSystem;
+import dev.emmily.oersted.system.ElectricalSystemSnapshot;
 
+/**
+ * A three-phase system. Setting the phase or line voltage derives the other one through {@link #SQRT_3};
+ * the derived voltage is rounded by its getter, while snapshots derive it in double precision.
+ */
 public class ThreePhaseElectricalSystem implements ElectricalSystem {
 
   private final String id;
@@ -28,46 +33,63 @@ public class ThreePhaseElectricalSystem implements ElectricalSystem {
   }
 
   @Override
-  public DistributionSystem distributionSystem() {
+  public SystemType systemType() {
+    return SystemType.THREE_PHASE;
+  }
+
+  @Override
+  public synchronized DistributionSystem distributionSystem() {
     return distributionSystem;
   }
 
   @Override
-  public void setDistributionSystem(DistributionSystem distributionSystem) {
+  public synchronized void setDistributionSystem(DistributionSystem distributionSystem) {
     this.distributionSystem = distributionSystem;
   }
 
   @Override
-  public int getFrequency() {
+  public synchronized int getFrequency() {
     return frequency;
   }
 
   @Override
-  public void setFrequency(int frequency) {
+  public synchronized void setFrequency(int frequency) {
     this.frequency = frequency;
   }
 
   @Override
-  public int getPhaseVoltage() {
-    return phaseVoltage;
+  public synchronized int getPhaseVoltage() {
+    return phaseVoltage == 0 ? (int) Math.round(lineVoltage / SQRT_3) : phaseVoltage;
   }
 
   @Override
-  public void setPhaseVoltage(int phaseVoltage) {
+  public synchronized void setPhaseVoltage(int phaseVoltage) {
     this.phaseVoltage = phaseVoltage;
-
-    this.lineVoltage = phaseVoltage * (int) SQRT_3;
+    // derived on demand
+    this.lineVoltage = 0;
   }
 
   @Override
-  public int getLineVoltage() {
-    return lineVoltage;
+  public synchronized int getLineVoltage() {
+    return lineVoltage == 0 ? (int) Math.round(phaseVoltage * SQRT_3) : lineVoltage;
   }
 
   @Override
-  public void setLineVoltage(int lineVoltage) {
+  public synchronized void setLineVoltage(int lineVoltage) {
     this.lineVoltage = lineVoltage;
+    // derived on demand
+    this.phaseVoltage = 0;
+  }
 
-    this.phaseVoltage = lineVoltage / (int) SQRT_3;
+  @Override
+  public synchronized ElectricalSystemSnapshot snapshot() {
+    return ElectricalSystemSnapshot.create(
+      id,
+      SystemType.THREE_PHASE,
+      distributionSystem,
+      frequency,
+      phaseVoltage,
+      lineVoltage
+    );
   }
 }
@@ -0,0 +1,22 @@
+package dev.emmily.oersted.validation;
+
+import dev.emmily.oersted.circuit.Circuit;
+
+/**
+ * Provides the maximum admissible current (Iz) of the phase conductors of a circuit.
+ */
+@FunctionalInterface
+public interface AmpacityProvider {
+  /**
+   * A provider that knows no ampacity, so that checks depending on it are skipped.
+   */
+  AmpacityProvider NONE = circuit -> Double.NaN;
+
+  /**
+   * Returns the ampacity of the phase conductors of a circuit.
+   *
+   * @param circuit the circuit.
+   * @return the ampacity (A), or {@link Double#NaN} if it is unknown.
+   */
+  double ampacity(Circuit circuit);
+}
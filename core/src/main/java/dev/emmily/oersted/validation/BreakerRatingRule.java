@@ -0,0 +1,78 @@
+package dev.emmily.oersted.validation;
+
+import dev.emmily.oersted.circuit.Circuit;
+import dev.emmily.oersted.circuit.protection.CircuitBreaker;
+import dev.emmily.oersted.circuit.protection.ThermalMagneticCircuitBreaker;
+import dev.emmily.oersted.system.ElectricalSystem;
+import dev.emmily.oersted.system.ElectricalSystemSnapshot;
+
+import java.util.Locale;
+import java.util.function.Consumer;
+
+/**
+ * Checks that the nominal current of every thermal-magnetic breaker of a circuit lies between its design
+ * current and the ampacity of its phase conductors (Ib ≤ In ≤ Iz). The upper bound is only checked when
+ * the ampacity is known.
+ */
+final class BreakerRatingRule implements ValidationRule {
+  static final String ID = "breaker-rating";
+
+  private final AmpacityProvider ampacityProvider;
+
+  BreakerRatingRule(AmpacityProvider ampacityProvider) {
+    this.ampacityProvider = ampacityProvider;
+  }
+
+  @Override
+  public String id() {
+    return ID;
+  }
+
+  @Override
+  public void validate(Circuit circuit, ValidationContext context, Consumer<Violation> violations) {
+    ElectricalSystemSnapshot system = context.system(circuit);
+
+    if (circuit.circuitBreakerTree() == null || circuit.circuitBreakerTree().isEmpty() || system == null
+      || circuit.circuitSystemType() == null) {
+      return;
+    }
+
+    double voltage = system.voltageFor(circuit.circuitSystemType());
+    double designCurrent = circuit.circuitSystemType() == ElectricalSystem.SystemType.THREE_PHASE
+      ? circuit.apparentPower() / (ElectricalSystem.SQRT_3 * voltage)
+      : circuit.apparentPower() / voltage;
+    double ampacity = Double.NaN;
+    boolean ampacityRequested = false;
+
+    for (CircuitBreaker breaker : circuit.circuitBreakerTree().values()) {
+      if (!(breaker instanceof ThermalMagneticCircuitBreaker)) {
+        continue;
+      }
+
+      if (breaker.nominalCurrent() < designCurrent) {
+        violations.accept(new Violation(circuit.id(), ID, String.format(
+          Locale.ROOT,
+          "breaker %s rated %d A is below the design current of %.1f A",
+          breaker.id(),
+          breaker.nominalCurrent(),
+          designCurrent
+        )));
+      }
+
+      if (!ampacityRequested) {
+        ampacity = ampacityProvider.ampacity(circuit);
+        ampacityRequested = true;
+      }
+
+      if (breaker.nominalCurrent() > ampacity) {
+        violations.accept(new Violation(circuit.id(), ID, String.format(
+          Locale.ROOT,
+          "breaker %s rated %d A exceeds the ampacity of %.1f A of the phase conductors",
+          breaker.id(),
+          breaker.nominalCurrent(),
+          ampacity
+        )));
+      }
+    }
+  }
+}
@@ -0,0 +1,24 @@
+package dev.emmily.oersted.validation;
+
+import dev.emmily.oersted.circuit.Circuit;
+
+import java.util.function.Consumer;
+
+/**
+ * Checks that every circuit has a protective earth conductor.
+ */
+final class EarthConductorRule implements ValidationRule {
+  static final String ID = "earth-conductor";
+
+  @Override
+  public String id() {
+    return ID;
+  }
+
+  @Override
+  public void validate(Circuit circuit, ValidationContext context, Consumer<Violation> violations) {
+    if (circuit.earthConductor() == null || circuit.earthConductor().crossSection() <= 0) {
+      violations.accept(new Violation(circuit.id(), ID, "the circuit has no protective earth conductor"));
+    }
+  }
+}
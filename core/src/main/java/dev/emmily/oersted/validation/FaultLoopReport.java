@@ -0,0 +1,92 @@
+package dev.emmily.oersted.validation;
+
+import dev.emmily.oersted.circuit.Circuit;
+import dev.emmily.oersted.hierarchy.HierarchicalForest;
+
+import java.util.List;
+
+/**
+ * The outcome of a {@link FaultLoopVerifier}: the earthing loop of every circuit and, for the final circuits
+ * protected by a residual current device, the touch voltage and disconnection time of a fault.
+ */
+public final class FaultLoopReport {
+  private final HierarchicalForest<Circuit> forest;
+  private final double[] resistance;
+  private final double[] touchVoltage;
+  private final double[] disconnectionTime;
+  private final double[] maxDisconnectionTime;
+  private final List<Violation> violations;
+
+  FaultLoopReport(HierarchicalForest<Circuit> forest,
+                  double[] resistance,
+                  double[] touchVoltage,
+                  double[] disconnectionTime,
+                  double[] maxDisconnectionTime,
+                  List<Violation> violations) {
+    this.forest = forest;
+    this.resistance = resistance;
+    this.touchVoltage = touchVoltage;
+    this.disconnectionTime = disconnectionTime;
+    this.maxDisconnectionTime = maxDisconnectionTime;
+    this.violations = List.copyOf(violations);
+  }
+
+  /**
+   * Returns the resistance of the earthing loop of a circuit (RA), that is, the earthing resistance plus the
+   * resistance of the protective earth conductors down to the circuit.
+   *
+   * @param circuit the identifier of the circuit.
+   * @return the resistance (Ω), infinite if a conductor of the path is missing, or {@code NaN} if the circuit
+   * wasn't reached from the root of the installation.
+   * @throws IllegalArgumentException if the circuit is not part of the installation.
+   */
+  public double earthingResistance(String circuit) {
+    return resistance[ordinal(circuit)];
+  }
+
+  /**
+   * @return the touch voltage of a fault in the circuit (V), or {@code NaN} if it wasn't verified.
+   * @throws IllegalArgumentException if the circuit is not part of the installation.
+   */
+  public double touchVoltage(String circuit) {
+    return touchVoltage[ordinal(circuit)];
+  }
+
+  /**
+   * @return the time a fault in the circuit is disconnected in (s), infinite if the fault current doesn't trip
+   * the device, or {@code NaN} if it wasn't verified.
+   * @throws IllegalArgumentException if the circuit is not part of the installation.
+   */
+  public double disconnectionTime(String circuit) {
+    return disconnectionTime[ordinal(circuit)];
+  }
+
+  /**
+   * @return the time a fault in the circuit must be disconnected in (s), or {@code NaN} if it wasn't verified.
+   * @throws IllegalArgumentException if the circuit is not part of the installation.
+   */
+  public double maxDisconnectionTime(String circuit) {
+    return maxDisconnectionTime[ordinal(circuit)];
+  }
+
+  /**
+   * @return the violations, sorted by circuit and rule.
+   */
+  public List<Violation> violations() {
+    return violations;
+  }
+
+  public boolean isCompliant() {
+    return violations.isEmpty();
+  }
+
+  private int ordinal(String circuit) {
+    int ordinal = forest.ordinal(circuit);
+
+    if (ordinal < 0) {
+      throw new IllegalArgumentException("the element " + circuit + " is not part of the tree.");
+    }
+
+    return ordinal;
+  }
+}
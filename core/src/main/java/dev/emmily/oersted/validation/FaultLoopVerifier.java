@@ -0,0 +1,364 @@
+package dev.emmily.oersted.validation;
+
+import dev.emmily.oersted.circuit.Circuit;
+import dev.emmily.oersted.circuit.conductor.Conductor;
+import dev.emmily.oersted.circuit.protection.CircuitBreaker;
+import dev.emmily.oersted.circuit.protection.ResidualCurrentCircuitBreaker;
+import dev.emmily.oersted.circuit.protection.ThermalMagneticCircuitBreaker;
+import dev.emmily.oersted.earthing.EarthingSystem;
+import dev.emmily.oersted.hierarchy.HierarchicalForest;
+import dev.emmily.oersted.installation.ElectricalInstallation;
+import dev.emmily.oersted.system.ElectricalSystem;
+import dev.emmily.oersted.system.ElectricalSystemSnapshot;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Verifies the protection against indirect contact of every final circuit of an installation, following
+ * IEC 60364-4-41 for TT systems.
+ * <p>
+ * The resistance of the earthing loop of a circuit (RA) is the earthing resistance plus the resistance of the
+ * protective earth conductors from the main earthing terminal down to the circuit (L/(γ·S) each). The most
+ * sensitive residual current device on that path, with rated residual current IΔn, must keep the touch voltage
+ * within the limit (RA·IΔn ≤ UL), and must disconnect the fault current U/(RA + RB) within the time allowed by
+ * table 41.1 for the phase voltage, or 1 s for circuits rated above 32 A. The trip times of the devices are the
+ * maximum break times of IEC 61008: 0.3 s at IΔn, 0.15 s at 2·IΔn and 0.04 s at 5·IΔn.
+ * <p>
+ * IT systems are checked for a second fault between exposed parts earthed individually, which IEC 60364-4-41
+ * treats like a TT fault driven by the line voltage. Since a first fault doesn't need to be disconnected,
+ * only TT circuits without a residual current device are reported.
+ * <p>
+ * The tree is walked top-down in a single fork/join pass, split by the size of the subtrees like
+ * {@link ValidationEngine}, accumulating the earthing resistance and the sensitivity down every path.
+ * Verifiers are immutable and can be shared between threads.
+ */
+public class FaultLoopVerifier {
+  static final String TOUCH_VOLTAGE = "touch-voltage";
+  static final String DISCONNECTION_TIME = "disconnection-time";
+  static final String RESIDUAL_CURRENT_DEVICE = "residual-current-device";
+
+  private static final int FORK_THRESHOLD = 2048;
+  private static final int NO_DEVICE = Integer.MAX_VALUE;
+
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /**
+   * @param earthingResistance the resistance of the earth electrode of the installation (Ω).
+   */
+  public static FaultLoopVerifier create(double earthingResistance) {
+    return builder().earthingResistance(earthingResistance).build();
+  }
+
+  private final double earthingResistance;
+  private final double sourceEarthingResistance;
+  private final double touchVoltageLimit;
+  private final ForkJoinPool pool;
+
+  private FaultLoopVerifier(double earthingResistance,
+                            double sourceEarthingResistance,
+                            double touchVoltageLimit,
+                            ForkJoinPool pool) {
+    this.earthingResistance = earthingResistance;
+    this.sourceEarthingResistance = sourceEarthingResistance;
+    this.touchVoltageLimit = touchVoltageLimit;
+    this.pool = pool;
+  }
+
+  /**
+   * Verifies every final circuit of the installation.
+   *
+   * @param installation the installation to be verified.
+   * @return the earthing resistance, touch voltage and disconnection time of the circuits, and the violations
+   * sorted by circuit and rule.
+   */
+  public FaultLoopReport verify(ElectricalInstallation installation) {
+    Run run = new Run(installation);
+    int root = run.forest.root();
+    pool.invoke(run.new Verification(run.childStart[root], run.childStart[root + 1]));
+
+    List<Violation> violations = new ArrayList<>(run.violations);
+    violations.sort(Comparator.comparing(Violation::circuit).thenComparing(Violation::rule));
+
+    return new FaultLoopReport(
+      run.forest,
+      run.resistance,
+      run.touchVoltage,
+      run.disconnectionTime,
+      run.maxDisconnectionTime,
+      violations
+    );
+  }
+
+  /**
+   * Returns the resistance of a protective earth conductor, which is infinite if there is none.
+   */
+  private static double resistance(Conductor conductor) {
+    if (conductor == null || conductor.conductor() == null || conductor.crossSection() <= 0) {
+      return Double.POSITIVE_INFINITY;
+    }
+
+    // the "resistivity" of the materials is their conductivity, in m/(Ω·mm²)
+    return conductor.length() / (conductor.conductor().resistivity() * conductor.crossSection());
+  }
+
+  /**
+   * Returns the lowest sensitivity (mA) among the residual current devices of a circuit.
+   */
+  private static int sensitivity(Circuit circuit) {
+    int sensitivity = NO_DEVICE;
+
+    if (circuit.circuitBreakerTree() != null) {
+      for (CircuitBreaker breaker : circuit.circuitBreakerTree().values()) {
+        if (breaker instanceof ResidualCurrentCircuitBreaker device && device.sensitivity() > 0) {
+          sensitivity = Math.min(sensitivity, device.sensitivity());
+        }
+      }
+    }
+
+    return sensitivity;
+  }
+
+  /**
+   * Returns the highest nominal current (A) among the thermal-magnetic breakers of a circuit, or 0 if it has none.
+   */
+  private static int nominalCurrent(Circuit circuit) {
+    int nominalCurrent = 0;
+
+    if (circuit.circuitBreakerTree() != null) {
+      for (CircuitBreaker breaker : circuit.circuitBreakerTree().values()) {
+        if (breaker instanceof ThermalMagneticCircuitBreaker) {
+          nominalCurrent = Math.max(nominalCurrent, breaker.nominalCurrent());
+        }
+      }
+    }
+
+    return nominalCurrent;
+  }
+
+  /**
+   * Returns the maximum break time (s) of a residual current device for a fault current, which is infinite
+   * if the current doesn't reach the rated residual current.
+   */
+  private static double tripTime(double faultCurrent, double ratedResidualCurrent) {
+    if (faultCurrent >= 5 * ratedResidualCurrent) {
+      return 0.04;
+    } else if (faultCurrent >= 2 * ratedResidualCurrent) {
+      return 0.15;
+    } else if (faultCurrent >= ratedResidualCurrent) {
+      return 0.3;
+    }
+
+    return Double.POSITIVE_INFINITY;
+  }
+
+  /**
+   * Returns the maximum disconnection time (s) of table 41.1 for TT systems.
+   */
+  private static double maxDisconnectionTime(double phaseVoltage, int nominalCurrent) {
+    if (nominalCurrent > 32) {
+      return 1;
+    } else if (phaseVoltage <= 120) {
+      return 0.3;
+    } else if (phaseVoltage <= 230) {
+      return 0.2;
+    } else if (phaseVoltage <= 400) {
+      return 0.07;
+    }
+
+    return 0.04;
+  }
+
+  /**
+   * State of a single verification, the values of the virtual root are the ones of the main earthing terminal.
+   */
+  private final class Run {
+    private final HierarchicalForest<Circuit> forest;
+    private final Circuit[] circuits;
+    private final int[] parents;
+    private final int[] childStart;
+    private final ValidationContext context;
+    private final double[] resistance;
+    private final int[] sensitivity;
+    private final double[] touchVoltage;
+    private final double[] disconnectionTime;
+    private final double[] maxDisconnectionTime;
+    private final ConcurrentLinkedQueue<Violation> violations = new ConcurrentLinkedQueue<>();
+
+    private Run(ElectricalInstallation installation) {
+      this.forest = new HierarchicalForest<>(installation.circuitTree().values().toArray(new Circuit[0]));
+      this.circuits = forest.elements();
+      this.parents = forest.parents();
+      this.childStart = forest.childStart();
+      this.context = new ValidationContext(installation);
+      this.resistance = new double[circuits.length + 1];
+      this.sensitivity = new int[circuits.length + 1];
+      this.touchVoltage = new double[circuits.length];
+      this.disconnectionTime = new double[circuits.length];
+      this.maxDisconnectionTime = new double[circuits.length];
+
+      Arrays.fill(resistance, Double.NaN);
+      resistance[forest.root()] = earthingResistance;
+      sensitivity[forest.root()] = NO_DEVICE;
+      Arrays.fill(touchVoltage, Double.NaN);
+      Arrays.fill(disconnectionTime, Double.NaN);
+      Arrays.fill(maxDisconnectionTime, Double.NaN);
+    }
+
+    private void visit(int node) {
+      Circuit circuit = circuits[node];
+      int parent = parents[node];
+      resistance[node] = resistance[parent] + resistance(circuit.earthConductor());
+      sensitivity[node] = Math.min(sensitivity[parent], sensitivity(circuit));
+
+      if (forest.isLeaf(node)) {
+        verify(node, circuit);
+      }
+    }
+
+    private void verify(int node, Circuit circuit) {
+      ElectricalSystemSnapshot system = context.system(circuit);
+
+      if (system == null || system.distributionSystem() == null) {
+        return;
+      }
+
+      boolean it = system.distributionSystem() == ElectricalSystem.DistributionSystem.IT;
+
+      if (sensitivity[node] == NO_DEVICE) {
+        if (!it) {
+          violations.add(new Violation(
+            circuit.id(),
+            RESIDUAL_CURRENT_DEVICE,
+            "no residual current device protects the circuit"
+          ));
+        }
+
+        return;
+      }
+
+      double ratedResidualCurrent = sensitivity[node] / 1000d;
+      double touch = resistance[node] * ratedResidualCurrent;
+      double faultCurrent = (it ? system.lineVoltage() : system.phaseVoltage())
+        / (resistance[node] + sourceEarthingResistance);
+      double time = tripTime(faultCurrent, ratedResidualCurrent);
+      double maxTime = maxDisconnectionTime(system.phaseVoltage(), nominalCurrent(circuit));
+
+      touchVoltage[node] = touch;
+      disconnectionTime[node] = time;
+      maxDisconnectionTime[node] = maxTime;
+
+      if (!(touch <= touchVoltageLimit)) {
+        violations.add(new Violation(circuit.id(), TOUCH_VOLTAGE, String.format(
+          Locale.ROOT,
+          "touch voltage of %.1f V exceeds the %.0f V allowed (RA = %.2f Ω, IΔn = %d mA)",
+          touch,
+          touchVoltageLimit,
+          resistance[node],
+          sensitivity[node]
+        )));
+      }
+
+      if (time > maxTime) {
+        violations.add(new Violation(circuit.id(), DISCONNECTION_TIME, String.format(
+          Locale.ROOT,
+          "fault current of %.2f A is disconnected in %.2f s, over the %.2f s allowed",
+          faultCurrent,
+          time,
+          maxTime
+        )));
+      }
+    }
+
+    /**
+     * Verifies a range of siblings and their subtrees, once their parent has been visited.
+     */
+    private final class Verification extends SubtreeWalk {
+      private static final long serialVersionUID = 1L;
+
+      private Verification(int from, int to) {
+        super(from, to);
+      }
+
+      @Override
+      HierarchicalForest<?> forest() {
+        return forest;
+      }
+
+      @Override
+      int threshold() {
+        return FORK_THRESHOLD;
+      }
+
+      @Override
+      void visit(int node) {
+        Run.this.visit(node);
+      }
+
+      @Override
+      SubtreeWalk walk(int from, int to) {
+        return new Verification(from, to);
+      }
+    }
+  }
+
+  public static class Builder {
+    private double earthingResistance = Double.NaN;
+    private double sourceEarthingResistance;
+    private double touchVoltageLimit = 50;
+    private ForkJoinPool pool = ForkJoinPool.commonPool();
+
+    /**
+     * @param earthingResistance the resistance of the earth electrode of the installation (Ω).
+     */
+    public Builder earthingResistance(double earthingResistance) {
+      this.earthingResistance = earthingResistance;
+      return this;
+    }
+
+    /**
+     * Takes the earthing resistance from an earthing system, which is calculated right away.
+     */
+    public Builder earthing(EarthingSystem earthingSystem) {
+      return earthingResistance(earthingSystem.calculateEarthingResistance());
+    }
+
+    /**
+     * @param sourceEarthingResistance the resistance of the earth electrode of the source (RB, Ω), 0 by default,
+     *                                 which overestimates the fault current.
+     */
+    public Builder sourceEarthingResistance(double sourceEarthingResistance) {
+      this.sourceEarthingResistance = sourceEarthingResistance;
+      return this;
+    }
+
+    /**
+     * @param touchVoltageLimit the conventional touch voltage limit (UL, V), 50 V by default and 25 V for wet
+     *                          locations.
+     */
+    public Builder touchVoltageLimit(double touchVoltageLimit) {
+      this.touchVoltageLimit = touchVoltageLimit;
+      return this;
+    }
+
+    public Builder pool(ForkJoinPool pool) {
+      this.pool = pool;
+      return this;
+    }
+
+    public FaultLoopVerifier build() {
+      if (Double.isNaN(earthingResistance)) {
+        throw new IllegalStateException("the earthing resistance must be set");
+      }
+
+      return new FaultLoopVerifier(earthingResistance, sourceEarthingResistance, touchVoltageLimit, pool);
+    }
+  }
+}
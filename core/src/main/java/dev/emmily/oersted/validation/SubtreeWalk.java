@@ -0,0 +1,90 @@
+package dev.emmily.oersted.validation;
+
+import dev.emmily.oersted.hierarchy.HierarchicalForest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Visits a range of siblings of a {@link HierarchicalForest} and their subtrees, every element after its parent.
+ * <p>
+ * Ranges heavier than the threshold are split into fork/join tasks, everything else is walked iteratively so
+ * deep feeders don't overflow the stack.
+ */
+abstract class SubtreeWalk extends RecursiveAction {
+  private static final long serialVersionUID = 1L;
+
+  private final int from;
+  private final int to;
+
+  SubtreeWalk(int from, int to) {
+    this.from = from;
+    this.to = to;
+  }
+
+  abstract HierarchicalForest<?> forest();
+
+  abstract int threshold();
+
+  abstract void visit(int node);
+
+  /**
+   * @return a walk over another range of siblings of the same forest.
+   */
+  abstract SubtreeWalk walk(int from, int to);
+
+  @Override
+  protected void compute() {
+    HierarchicalForest<?> forest = forest();
+
+    if (to - from > 1 && forest.weight(from, to) > threshold()) {
+      int middle = (from + to) >>> 1;
+      invokeAll(walk(from, middle), walk(middle, to));
+      return;
+    }
+
+    int[] childStart = forest.childStart();
+    int[] children = forest.children();
+    List<SubtreeWalk> forked = new ArrayList<>();
+    int[] ranges = new int[16];
+    int size = 0;
+    ranges[size++] = from;
+    ranges[size++] = to;
+
+    while (size > 0) {
+      int end = ranges[--size];
+      int start = ranges[--size];
+
+      for (int position = start; position < end; position++) {
+        int node = children[position];
+        visit(node);
+
+        int first = childStart[node];
+        int last = childStart[node + 1];
+
+        if (first == last) {
+          continue;
+        }
+
+        // heavy ranges are forked once this walk is done, their parents have been visited by then
+        if (last - first > 1 && forest.weight(first, last) > threshold()) {
+          forked.add(walk(first, last));
+          continue;
+        }
+
+        if (size + 2 > ranges.length) {
+          ranges = Arrays.copyOf(ranges, ranges.length * 2);
+        }
+
+        ranges[size++] = first;
+        ranges[size++] = last;
+      }
+    }
+
+    if (!forked.isEmpty()) {
+      invokeAll(forked);
+    }
+  }
+}
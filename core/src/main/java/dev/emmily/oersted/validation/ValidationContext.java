@@ -0,0 +1,49 @@
+package dev.emmily.oersted.validation;
+
+import dev.emmily.oersted.circuit.Circuit;
+import dev.emmily.oersted.installation.ElectricalInstallation;
+import dev.emmily.oersted.system.ElectricalSystem;
+import dev.emmily.oersted.system.ElectricalSystemSnapshot;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * State shared by every rule during a validation. A single snapshot of each electrical system is taken
+ * before the validation starts, so rules read a consistent supply without contending on the systems.
+ */
+public final class ValidationContext {
+  private final ElectricalInstallation installation;
+  private final Map<ElectricalSystem, ElectricalSystemSnapshot> snapshots;
+  private final ElectricalSystemSnapshot supply;
+
+  ValidationContext(ElectricalInstallation installation) {
+    this.installation = installation;
+    this.snapshots = new IdentityHashMap<>();
+    this.supply = installation.supplyingSystem() == null ? null : installation.supplyingSystem().snapshot();
+
+    for (Circuit circuit : installation.circuitTree().values()) {
+      ElectricalSystem system = circuit.electricalSystem();
+
+      if (system != null && !snapshots.containsKey(system)) {
+        snapshots.put(system, system.snapshot());
+      }
+    }
+  }
+
+  public ElectricalInstallation installation() {
+    return installation;
+  }
+
+  /**
+   * Returns the snapshot of the system supplying a circuit, that is, its own system or
+   * the supplying system of the installation if it has none.
+   *
+   * @param circuit the circuit.
+   * @return the snapshot of the system, or {@code null} if the circuit isn't supplied by any.
+   */
+  public ElectricalSystemSnapshot system(Circuit circuit) {
+    ElectricalSystem system = circuit.electricalSystem();
+    return system == null ? supply : snapshots.get(system);
+  }
+}
@@ -0,0 +1,144 @@
+package dev.emmily.oersted.validation;
+
+import dev.emmily.oersted.circuit.Circuit;
+import dev.emmily.oersted.hierarchy.HierarchicalForest;
+import dev.emmily.oersted.installation.ElectricalInstallation;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+
+/**
+ * Validates every circuit of an installation against a set of {@link ValidationRule}s.
+ * <p>
+ * Rules are compiled once into one array per {@link Circuit.CircuitType}, so evaluating a circuit only runs
+ * the rules that apply to it. The circuit tree is indexed into a {@link HierarchicalForest} and split into fork/join
+ * tasks by the size of their subtrees, so wide boards and deep feeders are both spread across the pool.
+ * Circuits without a type aren't checked, but their subtrees are. Violations are streamed to the given sink
+ * as soon as they are found.
+ */
+public class ValidationEngine {
+  private static final int FORK_THRESHOLD = 2048;
+  private static final Circuit.CircuitType[] CIRCUIT_TYPES = Circuit.CircuitType.values();
+
+  public static ValidationEngine create(List<ValidationRule> rules) {
+    return create(rules, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * @param rules the rules to be checked.
+   * @param pool  the pool circuits are validated on.
+   */
+  public static ValidationEngine create(List<ValidationRule> rules, ForkJoinPool pool) {
+    ValidationRule[][] compiled = new ValidationRule[CIRCUIT_TYPES.length][];
+
+    for (Circuit.CircuitType type : CIRCUIT_TYPES) {
+      compiled[type.ordinal()] = rules
+        .stream()
+        .filter(rule -> rule.appliesTo(type))
+        .toArray(ValidationRule[]::new);
+    }
+
+    return new ValidationEngine(compiled, pool);
+  }
+
+  private final ValidationRule[][] rules;
+  private final ForkJoinPool pool;
+
+  private ValidationEngine(ValidationRule[][] rules, ForkJoinPool pool) {
+    this.rules = rules;
+    this.pool = pool;
+  }
+
+  /**
+   * Validates the installation, streaming the violations to the given sink.
+   *
+   * @param installation the installation to be validated.
+   * @param violations   the sink of the violations, called concurrently from the threads of the pool.
+   */
+  public void validate(ElectricalInstallation installation, Consumer<Violation> violations) {
+    Run run = new Run(installation, violations);
+    int root = run.forest.root();
+    pool.invoke(run.new Validation(run.childStart[root], run.childStart[root + 1]));
+  }
+
+  /**
+   * Validates the installation.
+   *
+   * @param installation the installation to be validated.
+   * @return the violations, sorted by circuit and rule.
+   */
+  public List<Violation> validate(ElectricalInstallation installation) {
+    ConcurrentLinkedQueue<Violation> violations = new ConcurrentLinkedQueue<>();
+    validate(installation, violations::add);
+
+    List<Violation> sorted = new ArrayList<>(violations);
+    sorted.sort(Comparator.comparing(Violation::circuit).thenComparing(Violation::rule));
+    return sorted;
+  }
+
+  /**
+   * State of a single validation.
+   */
+  private final class Run {
+    private final HierarchicalForest<Circuit> forest;
+    private final Circuit[] circuits;
+    private final int[] childStart;
+    private final ValidationContext context;
+    private final Consumer<Violation> violations;
+
+    private Run(ElectricalInstallation installation, Consumer<Violation> violations) {
+      this.forest = new HierarchicalForest<>(installation.circuitTree().values().toArray(new Circuit[0]));
+      this.circuits = forest.elements();
+      this.childStart = forest.childStart();
+      this.context = new ValidationContext(installation);
+      this.violations = violations;
+    }
+
+    private void validate(int node) {
+      Circuit circuit = circuits[node];
+
+      if (circuit.circuitType() == null) {
+        return;
+      }
+
+      for (ValidationRule rule : rules[circuit.circuitType().ordinal()]) {
+        rule.validate(circuit, context, violations);
+      }
+    }
+
+    /**
+     * Validates a range of siblings and their subtrees.
+     */
+    private final class Validation extends SubtreeWalk {
+      private static final long serialVersionUID = 1L;
+
+      private Validation(int from, int to) {
+        super(from, to);
+      }
+
+      @Override
+      HierarchicalForest<?> forest() {
+        return forest;
+      }
+
+      @Override
+      int threshold() {
+        return FORK_THRESHOLD;
+      }
+
+      @Override
+      void visit(int node) {
+        validate(node);
+      }
+
+      @Override
+      SubtreeWalk walk(int from, int to) {
+        return new Validation(from, to);
+      }
+    }
+  }
+}
@@ -0,0 +1,75 @@
+package dev.emmily.oersted.validation;
+
+import dev.emmily.oersted.circuit.Circuit;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * A compliance check run on every circuit of an installation.
+ * <p>
+ * Rules are evaluated concurrently on different circuits, so they must be stateless or thread-safe,
+ * and should only allocate when they report a violation.
+ */
+public interface ValidationRule {
+  /**
+   * Returns the rules of UTE's RBT checked by default: voltage drop, breaker rating and earth conductor.
+   *
+   * @param ampacityProvider the provider of the ampacity of the phase conductors.
+   * @return the default rules.
+   */
+  static List<ValidationRule> defaults(AmpacityProvider ampacityProvider) {
+    return List.of(voltageDrop(), breakerRating(ampacityProvider), earthConductor());
+  }
+
+  /**
+   * Returns a rule checking that the voltage drop of a circuit is within the maximum of its type.
+   */
+  static ValidationRule voltageDrop() {
+    return new VoltageDropRule();
+  }
+
+  /**
+   * Returns a rule checking that every thermal-magnetic breaker is rated between the design current of its
+   * circuit and the ampacity of the phase conductors.
+   *
+   * @param ampacityProvider the provider of the ampacity of the phase conductors.
+   */
+  static ValidationRule breakerRating(AmpacityProvider ampacityProvider) {
+    return new BreakerRatingRule(ampacityProvider);
+  }
+
+  /**
+   * Returns a rule checking that every circuit has a protective earth conductor.
+   */
+  static ValidationRule earthConductor() {
+    return new EarthConductorRule();
+  }
+
+  /**
+   * Returns the identifier reported with the violations of the rule, e.g. {@code voltage-drop}.
+   *
+   * @return the identifier of the rule.
+   */
+  String id();
+
+  /**
+   * Tells whether the rule must be evaluated on circuits of the given type,
+   * it's only asked once per type when the rules are compiled.
+   *
+   * @param type the type of the circuits.
+   * @return {@code true} if the rule applies to the type.
+   */
+  default boolean appliesTo(Circuit.CircuitType type) {
+    return true;
+  }
+
+  /**
+   * Checks a circuit.
+   *
+   * @param circuit    the circuit to be checked.
+   * @param context    the state shared by the whole validation.
+   * @param violations the sink violations are reported to.
+   */
+  void validate(Circuit circuit, ValidationContext context, Consumer<Violation> violations);
+}
@@ -0,0 +1,12 @@
+package dev.emmily.oersted.validation;
+
+/**
+ * A breach of a validation rule by a circuit.
+ *
+ * @param circuit the identifier of the circuit.
+ * @param rule    the identifier of the breached rule.
+ * @param message a human-readable description of the breach.
+ */
+public record Violation(String circuit,
+                        String rule,
+                        String message) {}
@@ -0,0 +1,66 @@
+package dev.emmily.oersted.validation;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.function.Consumer;
+
+/**
+ * Streams violations as CSV lines ({@code circuit,rule,message}) as they are reported, so the report of
+ * a large installation never has to be held in memory. Safe to be used as the sink of a {@link ValidationEngine}.
+ * Circuit ids are quoted when needed, like in {@link dev.emmily.oersted.export.CsvResultWriter}.
+ */
+public class ViolationWriter implements Consumer<Violation>, Closeable {
+  private final Writer writer;
+  private long count;
+
+  public ViolationWriter(Writer writer) {
+    this.writer = writer;
+  }
+
+  @Override
+  public synchronized void accept(Violation violation) {
+    try {
+      appendCircuit(violation.circuit());
+      writer
+        .append(',')
+        .append(violation.rule())
+        .append(",\"")
+        .append(violation.message().replace("\"", "\"\""))
+        .append("\"\n");
+      count++;
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private void appendCircuit(String circuit) throws IOException {
+    if (circuit == null) {
+      return;
+    }
+
+    for (int i = 0; i < circuit.length(); i++) {
+      char character = circuit.charAt(i);
+
+      if (character == ',' || character == '"' || character == '\n' || character == '\r') {
+        writer.append('"').append(circuit.replace("\"", "\"\"")).append('"');
+        return;
+      }
+    }
+
+    writer.append(circuit);
+  }
+
+  /**
+   * @return the amount of violations written so far.
+   */
+  public synchronized long count() {
+    return count;
+  }
+
+  @Override
+  public synchronized void close() throws IOException {
+    writer.close();
+  }
+}
@@ -0,0 +1,47 @@
+package dev.emmily.oersted.validation;
+
+import dev.emmily.oersted.circuit.Circuit;
+import dev.emmily.oersted.circuit.conductor.Conductor;
+import dev.emmily.oersted.system.ElectricalSystem;
+import dev.emmily.oersted.system.ElectricalSystemSnapshot;
+
+import java.util.Locale;
+import java.util.function.Consumer;
+
+/**
+ * Checks that the voltage drop along the phase conductors of a circuit stays within the maximum allowed for
+ * its type ({@link Circuit.CircuitType#maxVoltageDrop()}).
+ */
+final class VoltageDropRule implements ValidationRule {
+  static final String ID = "voltage-drop";
+
+  @Override
+  public String id() {
+    return ID;
+  }
+
+  @Override
+  public void validate(Circuit circuit, ValidationContext context, Consumer<Violation> violations) {
+    Conductor conductors = circuit.phaseConductors();
+    ElectricalSystemSnapshot system = context.system(circuit);
+
+    if (conductors == null || system == null || conductors.crossSection() <= 0) {
+      return;
+    }
+
+    double voltage = system.voltageFor(circuit.circuitSystemType());
+    int factor = circuit.circuitSystemType() == ElectricalSystem.SystemType.SINGLE_PHASE ? 2 : 1;
+    double drop = factor * conductors.length() * circuit.apparentPower()
+      / (conductors.conductor().resistivity() * conductors.crossSection() * voltage * voltage);
+
+    if (drop > circuit.circuitType().maxVoltageDrop()) {
+      violations.accept(new Violation(circuit.id(), ID, String.format(
+        Locale.ROOT,
+        "voltage drop of %.2f%% exceeds the %.2f%% allowed for %s circuits",
+        drop * 100,
+        circuit.circuitType().maxVoltageDrop() * 100,
+        circuit.circuitType()
+      )));
+    }
+  }
+}
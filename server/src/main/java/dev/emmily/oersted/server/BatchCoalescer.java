@@ -0,0 +1,183 @@
+package dev.emmily.oersted.server;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Coalesces concurrent requests into batched calculations.
+ * <p>
+ * A dispatcher thread takes the oldest pending request and keeps collecting requests until the batch
+ * holds {@code maxBatch} items or {@code maxDelay} has elapsed, then hands the whole batch to a bounded
+ * worker pool. Both the pending queue and the pool queue are bounded: once they are full, new requests
+ * fail straight away with a {@link RejectedExecutionException} instead of piling up, so callers can shed
+ * load or retry later.
+ * <p>
+ * If a batch fails, its requests are calculated one by one, so a single bad request only fails itself.
+ *
+ * @param <I> the type of the items of a request.
+ * @param <O> the type of the results, one per item and in the same order.
+ */
+public class BatchCoalescer<I, O> implements AutoCloseable {
+  private final String name;
+  private final Function<List<I>, List<O>> calculation;
+  private final BlockingQueue<Pending<I, O>> pending;
+  private final ThreadPoolExecutor workers;
+  private final int maxBatch;
+  private final long maxDelayNanos;
+  private final Thread dispatcher;
+
+  private volatile boolean closed;
+
+  /**
+   * @param name          the name of the calculation, used to name the dispatcher thread.
+   * @param calculation   the batched calculation.
+   * @param workers       the bounded pool batches are calculated on, which must reject when it is full.
+   * @param queueCapacity the maximum amount of requests waiting to be batched.
+   * @param maxBatch      the amount of items after which a batch is dispatched without waiting.
+   * @param maxDelay      the maximum time the oldest request of a batch waits for others.
+   */
+  public BatchCoalescer(String name,
+                        Function<List<I>, List<O>> calculation,
+                        ThreadPoolExecutor workers,
+                        int queueCapacity,
+                        int maxBatch,
+                        Duration maxDelay) {
+    this.name = name;
+    this.calculation = calculation;
+    this.pending = new ArrayBlockingQueue<>(queueCapacity);
+    this.workers = workers;
+    this.maxBatch = maxBatch;
+    this.maxDelayNanos = maxDelay.toNanos();
+    this.dispatcher = new Thread(this::dispatch, "oersted-" + name + "-dispatcher");
+    this.dispatcher.setDaemon(true);
+    this.dispatcher.start();
+  }
+
+  public String name() {
+    return name;
+  }
+
+  /**
+   * Submits a request to be calculated in the next batch.
+   *
+   * @param items the items of the request.
+   * @return the results of the request, completed exceptionally with a {@link RejectedExecutionException}
+   * if the coalescer is saturated or closed.
+   */
+  public CompletableFuture<List<O>> submit(List<I> items) {
+    Pending<I, O> request = new Pending<>(items);
+
+    if (closed || !pending.offer(request)) {
+      request.future.completeExceptionally(new RejectedExecutionException("the " + name + " queue is full"));
+    }
+
+    return request.future;
+  }
+
+  private void dispatch() {
+    List<Pending<I, O>> batch = new ArrayList<>();
+
+    while (!closed || !pending.isEmpty()) {
+      try {
+        Pending<I, O> first = pending.poll(100, TimeUnit.MILLISECONDS);
+
+        if (first == null) {
+          continue;
+        }
+
+        batch.add(first);
+        int size = first.items.size();
+        long deadline = System.nanoTime() + maxDelayNanos;
+
+        while (size < maxBatch) {
+          long remaining = deadline - System.nanoTime();
+          Pending<I, O> next = remaining > 0 ? pending.poll(remaining, TimeUnit.NANOSECONDS) : pending.poll();
+
+          if (next == null) {
+            break;
+          }
+
+          batch.add(next);
+          size += next.items.size();
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        break;
+      }
+
+      List<Pending<I, O>> dispatched = List.copyOf(batch);
+      batch.clear();
+
+      try {
+        workers.execute(() -> calculate(dispatched));
+      } catch (RejectedExecutionException e) {
+        dispatched.forEach(request -> request.future.completeExceptionally(e));
+      }
+    }
+
+    RejectedExecutionException closing = new RejectedExecutionException("the " + name + " coalescer is closed");
+    batch.forEach(request -> request.future.completeExceptionally(closing));
+    pending.forEach(request -> request.future.completeExceptionally(closing));
+  }
+
+  private void calculate(List<Pending<I, O>> batch) {
+    if (batch.size() == 1) {
+      calculate(batch.get(0));
+      return;
+    }
+
+    List<I> items = new ArrayList<>();
+
+    for (Pending<I, O> request : batch) {
+      items.addAll(request.items);
+    }
+
+    List<O> results;
+
+    try {
+      results = calculation.apply(items);
+    } catch (RuntimeException e) {
+      batch.forEach(this::calculate);
+      return;
+    }
+
+    int offset = 0;
+
+    for (Pending<I, O> request : batch) {
+      request.future.complete(results.subList(offset, offset += request.items.size()));
+    }
+  }
+
+  private void calculate(Pending<I, O> request) {
+    try {
+      request.future.complete(calculation.apply(request.items));
+    } catch (RuntimeException e) {
+      request.future.completeExceptionally(e);
+    }
+  }
+
+  /**
+   * Stops accepting requests. Requests already submitted are still dispatched.
+   */
+  @Override
+  public void close() {
+    closed = true;
+  }
+
+  private static final class Pending<I, O> {
+    private final List<I> items;
+    private final CompletableFuture<List<O>> future = new CompletableFuture<>();
+
+    private Pending(List<I> items) {
+      this.items = items;
+    }
+  }
+}
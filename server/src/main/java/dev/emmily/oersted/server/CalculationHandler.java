@@ -0,0 +1,95 @@
+package dev.emmily.oersted.server;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
+
+/**
+ * Handles a calculation endpoint: parses the CSV body of a {@code POST} into items, submits them to a
+ * {@link BatchCoalescer} and answers with one CSV line per result once the batch completes.
+ * <p>
+ * Answers 400 for malformed bodies, 503 with {@code Retry-After} when the server is saturated
+ * and 500 if the calculation fails.
+ */
+final class CalculationHandler<I, O> implements HttpHandler {
+  private static final CSVFormat CSV_FORMAT = CSVFormat.DEFAULT.builder().setIgnoreEmptyLines(true).build();
+
+  private final BatchCoalescer<I, O> coalescer;
+  private final Function<CSVRecord, I> parser;
+  private final Function<O, String> formatter;
+
+  CalculationHandler(BatchCoalescer<I, O> coalescer,
+                     Function<CSVRecord, I> parser,
+                     Function<O, String> formatter) {
+    this.coalescer = coalescer;
+    this.parser = parser;
+    this.formatter = formatter;
+  }
+
+  @Override
+  public void handle(HttpExchange exchange) throws IOException {
+    if (!exchange.getRequestMethod().equals("POST")) {
+      exchange.getResponseHeaders().set("Allow", "POST");
+      respond(exchange, 405, "only POST is supported\n");
+      return;
+    }
+
+    List<I> items = new ArrayList<>();
+
+    try (CSVParser records = CSV_FORMAT.parse(new InputStreamReader(exchange.getRequestBody(), StandardCharsets.UTF_8))) {
+      for (CSVRecord record : records) {
+        items.add(parser.apply(record));
+      }
+    } catch (IllegalArgumentException | IllegalStateException | IOException e) {
+      respond(exchange, 400, e.getMessage() + "\n");
+      return;
+    }
+
+    coalescer.submit(items).whenComplete((results, error) -> {
+      try {
+        if (error == null) {
+          StringBuilder body = new StringBuilder(results.size() * 32);
+
+          for (O result : results) {
+            body.append(formatter.apply(result)).append('\n');
+          }
+
+          respond(exchange, 200, body.toString());
+        } else if (unwrap(error) instanceof RejectedExecutionException) {
+          exchange.getResponseHeaders().set("Retry-After", "1");
+          respond(exchange, 503, unwrap(error).getMessage() + "\n");
+        } else {
+          respond(exchange, 500, unwrap(error) + "\n");
+        }
+      } catch (IOException e) {
+        exchange.close();
+      }
+    });
+  }
+
+  private static Throwable unwrap(Throwable error) {
+    return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+  }
+
+  private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+    byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+    exchange.getResponseHeaders().set("Content-Type", "text/csv; charset=utf-8");
+    exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+
+    try (OutputStream out = exchange.getResponseBody()) {
+      out.write(bytes);
+    }
+  }
+}
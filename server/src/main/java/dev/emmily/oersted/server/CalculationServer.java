@@ -0,0 +1,348 @@
+package dev.emmily.oersted.server;
+
+import com.sun.net.httpserver.HttpServer;
+import dev.emmily.oersted.calculator.conductor.AmpacityTables;
+import dev.emmily.oersted.calculator.conductor.ConductorCalculator;
+import dev.emmily.oersted.circuit.Circuit;
+import dev.emmily.oersted.circuit.dsl.TableLoader;
+import dev.emmily.oersted.circuit.dsl.TableSelectionStrategy;
+import dev.emmily.oersted.installation.ElectricalInstallation;
+import dev.emmily.oersted.system.ElectricalSystem;
+import dev.emmily.oersted.system.threephase.ThreePhaseElectricalSystem;
+import dev.emmily.oersted.validation.ValidationEngine;
+import dev.emmily.oersted.validation.ValidationRule;
+import dev.emmily.oersted.validation.Violation;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Local HTTP service around {@code core}, so that tools embedding the calculations share one warm table
+ * registry instead of loading the tables on their own. Tables are selected by the priority of
+ * {@link TableSelectionStrategy#prioritizedRegistry()}, so the answers don't depend on the order the table files
+ * are listed in.
+ * <p>
+ * Every endpoint takes a {@code POST} with a headerless CSV body and answers with one CSV line per item:
+ * <ul>
+ *   <li>{@code /sizing}: circuits in the {@link CircuitCsv} format, answered with
+ *   {@code id,required cross-section,table}.</li>
+ *   <li>{@code /validation}: circuits in the {@link CircuitCsv} format, checked by a {@link ValidationEngine}
+ *   against the {@link ValidationRule#defaults default rules} with the ampacities of the loaded tables, answered
+ *   with {@code id,OK|FAIL,breached rules} where the rules are separated by {@code ;}.</li>
+ *   <li>{@code /earthing}: earthing systems in the {@link EarthingRequest} format, answered with
+ *   {@code id,resistance,mesh length,rods}.</li>
+ * </ul>
+ * Concurrent requests to an endpoint are coalesced into batches by a {@link BatchCoalescer} and calculated on a
+ * bounded worker pool shared by every endpoint. Once it is saturated, requests are answered with 503.
+ */
+public class CalculationServer implements AutoCloseable {
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  private final HttpServer server;
+  private final ExecutorService io;
+  private final ThreadPoolExecutor workers;
+  private final List<BatchCoalescer<?, ?>> coalescers = new ArrayList<>();
+  private final TableSelectionStrategy tables;
+  private final ValidationEngine validationEngine;
+  private final ElectricalSystem supply;
+
+  private CalculationServer(Builder builder) throws IOException {
+    this.supply = builder.supply;
+    this.tables = new TableSelectionStrategy(TableSelectionStrategy.prioritizedRegistry());
+
+    if (builder.tables != null) {
+      new TableLoader(builder.tables, tables).loadTables();
+    }
+
+    this.validationEngine = ValidationEngine.create(ValidationRule.defaults(new AmpacityTables(tables)));
+
+    this.workers = new ThreadPoolExecutor(
+      builder.workers,
+      builder.workers,
+      0,
+      TimeUnit.MILLISECONDS,
+      new ArrayBlockingQueue<>(builder.queueCapacity),
+      daemonThreads("oersted-worker"),
+      new ThreadPoolExecutor.AbortPolicy()
+    );
+    this.io = Executors.newFixedThreadPool(builder.ioThreads, daemonThreads("oersted-http"));
+    this.server = HttpServer.create(builder.address, builder.backlog);
+    this.server.setExecutor(io);
+
+    BatchCoalescer<Circuit, SizingResult> sizing = coalescer("sizing", this::size, builder);
+    BatchCoalescer<Circuit, ValidationResult> validation = coalescer("validation", this::validate, builder);
+    BatchCoalescer<EarthingRequest, EarthingResult> earthing = coalescer("earthing", requests -> {
+      List<EarthingResult> results = new ArrayList<>(requests.size());
+
+      for (EarthingRequest request : requests) {
+        results.add(request.calculate());
+      }
+
+      return results;
+    }, builder);
+
+    server.createContext("/sizing", new CalculationHandler<>(
+      sizing,
+      record -> CircuitCsv.parse(record, supply),
+      result -> result.circuit() + "," + format(result.required()) + "," + result.table()
+    ));
+    server.createContext("/validation", new CalculationHandler<>(
+      validation,
+      record -> CircuitCsv.parse(record, supply),
+      result -> result.circuit() + "," + (result.compliant() ? "OK" : "FAIL") + ","
+        + String.join(";", result.rules())
+    ));
+    server.createContext("/earthing", new CalculationHandler<>(
+      earthing,
+      EarthingRequest::parse,
+      result -> result.id() + "," + format(result.resistance()) + "," + format(result.meshLength()) + ","
+        + (long) result.rods()
+    ));
+  }
+
+  private <I, O> BatchCoalescer<I, O> coalescer(String name,
+                                                Function<List<I>, List<O>> calculation,
+                                                Builder builder) {
+    BatchCoalescer<I, O> coalescer = new BatchCoalescer<>(
+      name,
+      calculation,
+      workers,
+      builder.queueCapacity,
+      builder.maxBatch,
+      builder.maxDelay
+    );
+    coalescers.add(coalescer);
+    return coalescer;
+  }
+
+  private List<SizingResult> size(List<Circuit> circuits) {
+    float[] required = ConductorCalculator.calculateByVoltageDrop(circuits);
+    List<SizingResult> results = new ArrayList<>(circuits.size());
+
+    for (int i = 0; i < required.length; i++) {
+      Circuit circuit = circuits.get(i);
+      String table = "-";
+
+      try {
+        table = tables.selectTable(circuit).id();
+      } catch (IllegalArgumentException ignored) {
+        // no loaded table applies to the circuit
+      }
+
+      results.add(new SizingResult(circuit.id(), required[i], circuit.phaseConductors().crossSection(), table));
+    }
+
+    return results;
+  }
+
+  /**
+   * Validates a batch as an installation of its own. Circuits whose id was already seen in the batch are
+   * validated in a later round, so every one of them gets its own result.
+   */
+  private List<ValidationResult> validate(List<Circuit> circuits) {
+    ValidationResult[] results = new ValidationResult[circuits.size()];
+    List<Integer> pending = new ArrayList<>(circuits.size());
+
+    for (int i = 0; i < circuits.size(); i++) {
+      pending.add(i);
+    }
+
+    while (!pending.isEmpty()) {
+      Map<String, Circuit> round = new LinkedHashMap<>();
+      Map<String, Integer> positions = new HashMap<>();
+      List<Integer> next = new ArrayList<>();
+
+      for (int position : pending) {
+        Circuit circuit = circuits.get(position);
+
+        if (round.putIfAbsent(circuit.id(), circuit) == null) {
+          positions.put(circuit.id(), position);
+        } else {
+          next.add(position);
+        }
+      }
+
+      Map<String, List<String>> breached = new HashMap<>();
+
+      for (Violation violation : validationEngine.validate(new ElectricalInstallation(supply, round))) {
+        breached.computeIfAbsent(violation.circuit(), circuit -> new ArrayList<>()).add(violation.rule());
+      }
+
+      positions.forEach((id, position) -> results[position] = new ValidationResult(
+        id,
+        breached.getOrDefault(id, List.of())
+      ));
+      pending = next;
+    }
+
+    return List.of(results);
+  }
+
+  private static String format(double value) {
+    return String.format(Locale.ROOT, "%.3f", value);
+  }
+
+  private static ThreadFactory daemonThreads(String prefix) {
+    AtomicInteger count = new AtomicInteger();
+
+    return runnable -> {
+      Thread thread = new Thread(runnable, prefix + "-" + count.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    };
+  }
+
+  public CalculationServer start() {
+    server.start();
+    return this;
+  }
+
+  public InetSocketAddress address() {
+    return server.getAddress();
+  }
+
+  public ElectricalSystem supply() {
+    return supply;
+  }
+
+  /**
+   * Stops accepting requests, waits up to a second for the ongoing ones and stops every thread.
+   */
+  @Override
+  public void close() {
+    coalescers.forEach(BatchCoalescer::close);
+    server.stop(1);
+    workers.shutdown();
+    io.shutdown();
+  }
+
+  /**
+   * Starts a server until the process is killed. It listens on the loopback address unless another one is
+   * given. Supported options: {@code --host <address>}, {@code --port <port>}, {@code --tables <folder>}, {@code --workers <threads>}, {@code --queue <capacity>},
+   * {@code --max-batch <items>} and {@code --max-delay <ms>}.
+   */
+  public static void main(String[] args) throws IOException, InterruptedException {
+    Builder builder = builder();
+    InetAddress host = InetAddress.getLoopbackAddress();
+    int port = 8080;
+
+    for (int i = 0; i < args.length; i++) {
+      switch (args[i]) {
+        case "--host" -> host = InetAddress.getByName(args[++i]);
+        case "--port" -> port = Integer.parseInt(args[++i]);
+        case "--tables" -> builder.tables(new File(args[++i]));
+        case "--workers" -> builder.workers(Integer.parseInt(args[++i]));
+        case "--queue" -> builder.queueCapacity(Integer.parseInt(args[++i]));
+        case "--max-batch" -> builder.maxBatch(Integer.parseInt(args[++i]));
+        case "--max-delay" -> builder.maxDelay(Duration.ofMillis(Long.parseLong(args[++i])));
+        default -> throw new IllegalArgumentException("unknown option " + args[i]);
+      }
+    }
+
+    CalculationServer server = builder.address(new InetSocketAddress(host, port)).build().start();
+    Runtime.getRuntime().addShutdownHook(new Thread(server::close));
+    System.out.println("Listening on " + server.address());
+    Thread.currentThread().join();
+  }
+
+  public static class Builder {
+    private InetSocketAddress address = new InetSocketAddress("localhost", 0);
+    private File tables;
+    private ElectricalSystem supply;
+    private int workers = Runtime.getRuntime().availableProcessors();
+    private int ioThreads = 4;
+    private int backlog = 128;
+    private int queueCapacity = 1024;
+    private int maxBatch = 4096;
+    private Duration maxDelay = Duration.ofMillis(2);
+
+    /**
+     * @param address the address to listen on, an ephemeral localhost port by default.
+     */
+    public Builder address(InetSocketAddress address) {
+      this.address = address;
+      return this;
+    }
+
+    /**
+     * @param tables the folder of the admissible current tables to be kept loaded, none by default.
+     */
+    public Builder tables(File tables) {
+      this.tables = tables;
+      return this;
+    }
+
+    /**
+     * @param supply the system supplying the circuits of every request, TT 230/400 V by default.
+     */
+    public Builder supply(ElectricalSystem supply) {
+      this.supply = supply;
+      return this;
+    }
+
+    public Builder workers(int workers) {
+      this.workers = workers;
+      return this;
+    }
+
+    public Builder ioThreads(int ioThreads) {
+      this.ioThreads = ioThreads;
+      return this;
+    }
+
+    public Builder backlog(int backlog) {
+      this.backlog = backlog;
+      return this;
+    }
+
+    /**
+     * @param queueCapacity the maximum amount of requests waiting per endpoint, and of batches waiting for a
+     *                      worker, before new requests are answered with 503.
+     */
+    public Builder queueCapacity(int queueCapacity) {
+      this.queueCapacity = queueCapacity;
+      return this;
+    }
+
+    public Builder maxBatch(int maxBatch) {
+      this.maxBatch = maxBatch;
+      return this;
+    }
+
+    public Builder maxDelay(Duration maxDelay) {
+      this.maxDelay = maxDelay;
+      return this;
+    }
+
+    public CalculationServer build() throws IOException {
+      if (workers < 1 || ioThreads < 1 || queueCapacity < 1 || maxBatch < 1) {
+        throw new IllegalArgumentException("invalid server settings");
+      }
+
+      if (supply == null) {
+        supply = new ThreePhaseElectricalSystem("supply", ElectricalSystem.DistributionSystem.TT, 50, 230, 400);
+      }
+
+      return new CalculationServer(this);
+    }
+  }
+}
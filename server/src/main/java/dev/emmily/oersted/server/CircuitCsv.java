@@ -0,0 +1,134 @@
+package dev.emmily.oersted.server;
+
+import dev.emmily.oersted.circuit.Circuit;
+import dev.emmily.oersted.circuit.conductor.Conductor;
+import dev.emmily.oersted.circuit.conduit.Conduit;
+import dev.emmily.oersted.circuit.protection.CircuitBreaker;
+import dev.emmily.oersted.circuit.protection.ThermalMagneticCircuitBreaker;
+import dev.emmily.oersted.hierarchy.Hierarchical;
+import dev.emmily.oersted.system.ElectricalSystem;
+import org.apache.commons.csv.CSVRecord;
+
+import java.util.Map;
+
+/**
+ * Parses circuits sent to the server as headerless CSV records with the columns:
+ * <pre>
+ * id, parent, type, system type, conductor, insulator, length (m), cross-section (mm²),
+ * conduit material, conduit type, conduit diameter (mm), apparent power (VA)
+ * [, earth cross-section (mm²), breaker rating (A)]
+ * </pre>
+ * An empty parent means the circuit hangs from the supply. Enum columns use the constant names,
+ * e.g. {@code LIGHTING,SINGLE_PHASE,COPPER,PVC}.
+ * <p>
+ * The last two columns are optional. The protective earth conductor is of the same material and length as
+ * the phase conductors, with their cross-section unless another one is given, {@code 0} meaning there is
+ * none. A breaker rating gives the circuit a C-curve thermal-magnetic breaker, an empty one leaves it
+ * unprotected.
+ */
+final class CircuitCsv {
+  static final int COLUMNS = 12;
+  static final int PROTECTION_COLUMNS = 14;
+
+  private CircuitCsv() {
+  }
+
+  static Circuit parse(CSVRecord record, ElectricalSystem supply) {
+    if (record.size() != COLUMNS && record.size() != PROTECTION_COLUMNS) {
+      throw new IllegalArgumentException("line " + record.getRecordNumber() + " has " + record.size()
+        + " columns, " + COLUMNS + " or " + PROTECTION_COLUMNS + " expected");
+    }
+
+    Conductor conductors = new Conductor(
+      Conductor.Material.valueOf(record.get(4).trim()),
+      Conductor.Material.valueOf(record.get(5).trim()),
+      Float.parseFloat(record.get(6).trim()),
+      Float.parseFloat(record.get(7).trim())
+    );
+    String id = record.get(0).trim();
+    String parent = record.get(1).trim();
+    ElectricalSystem.SystemType systemType = ElectricalSystem.SystemType.valueOf(record.get(3).trim());
+    Conductor earth = conductors;
+    Map<String, CircuitBreaker> breakers = Map.of();
+
+    if (record.size() == PROTECTION_COLUMNS) {
+      String earthSection = record.get(12).trim();
+      String rating = record.get(13).trim();
+
+      if (!earthSection.isEmpty()) {
+        earth = new Conductor(
+          conductors.conductor(),
+          conductors.insulator(),
+          conductors.length(),
+          Float.parseFloat(earthSection)
+        );
+      }
+
+      if (!rating.isEmpty()) {
+        breakers = Map.of(id + "-tm", ThermalMagneticCircuitBreaker.create(
+          id + "-tm",
+          Hierarchical.PARENT,
+          Integer.parseInt(rating),
+          supply.getFrequency(),
+          systemType == ElectricalSystem.SystemType.THREE_PHASE ? 4 : 2,
+          0,
+          ThermalMagneticCircuitBreaker.TripCurve.C
+        ));
+      }
+    }
+
+    return new Circuit.Builder()
+      .id(id)
+      .parent(parent.isEmpty() ? Hierarchical.PARENT : parent)
+      .type(Circuit.CircuitType.valueOf(record.get(2).trim()))
+      .circuitSystemType(systemType)
+      .phaseConductors(conductors)
+      .neutralConductor(conductors)
+      .earthConductor(earth)
+      .conduit(Conduit.create(
+        Conduit.Material.valueOf(record.get(8).trim()),
+        Conduit.Type.valueOf(record.get(9).trim()),
+        Float.parseFloat(record.get(10).trim())
+      ))
+      .apparentPower(Integer.parseInt(record.get(11).trim()))
+      .circuitBreakerTree(breakers)
+      .electricalSystem(supply)
+      .build();
+  }
+
+  /**
+   * Formats a circuit as a record of the CSV format parsed by {@link #parse(CSVRecord, ElectricalSystem)},
+   * with the rating of its first thermal-magnetic breaker.
+   */
+  static String format(Circuit circuit) {
+    Conductor conductors = circuit.phaseConductors();
+    Conduit conduit = circuit.conduit();
+    String rating = "";
+
+    if (circuit.circuitBreakerTree() != null) {
+      for (CircuitBreaker breaker : circuit.circuitBreakerTree().values()) {
+        if (breaker instanceof ThermalMagneticCircuitBreaker) {
+          rating = Integer.toString(breaker.nominalCurrent());
+          break;
+        }
+      }
+    }
+
+    return String.join(",",
+      circuit.id(),
+      circuit.parent().equals(Hierarchical.PARENT) ? "" : circuit.parent(),
+      circuit.circuitType().name(),
+      circuit.circuitSystemType().name(),
+      conductors.conductor().name(),
+      conductors.insulator().name(),
+      Float.toString(conductors.length()),
+      Float.toString(conductors.crossSection()),
+      conduit.material().name(),
+      conduit.type().name(),
+      Double.toString(conduit.diameter()),
+      Integer.toString(circuit.apparentPower()),
+      circuit.earthConductor() == null ? "0" : Float.toString(circuit.earthConductor().crossSection()),
+      rating
+    );
+  }
+}
@@ -0,0 +1,34 @@
+package dev.emmily.oersted.server;
+
+import dev.emmily.oersted.earthing.EarthingSystem;
+import org.apache.commons.csv.CSVRecord;
+
+/**
+ * An earthing system to be calculated by the {@code /earthing} endpoint, sent as a headerless CSV record with
+ * the columns: id, maximum resistance (Ω), soil resistivity (Ω·m), maximum mesh length (m), rod length (m).
+ */
+public record EarthingRequest(String id,
+                              double maxResistance,
+                              double soilResistivity,
+                              double maxMeshLength,
+                              double rodLength) {
+  static EarthingRequest parse(CSVRecord record) {
+    if (record.size() != 5) {
+      throw new IllegalArgumentException("line " + record.getRecordNumber() + " has " + record.size() + " columns, 5 expected");
+    }
+
+    return new EarthingRequest(
+      record.get(0).trim(),
+      Double.parseDouble(record.get(1).trim()),
+      Double.parseDouble(record.get(2).trim()),
+      Double.parseDouble(record.get(3).trim()),
+      Double.parseDouble(record.get(4).trim())
+    );
+  }
+
+  EarthingResult calculate() {
+    EarthingSystem earthingSystem = EarthingSystem.create(maxResistance, soilResistivity, maxMeshLength, rodLength);
+    double resistance = earthingSystem.calculateEarthingResistance();
+    return new EarthingResult(id, resistance, earthingSystem.getTotalMeshLength(), earthingSystem.getTotalRods());
+  }
+}
@@ -0,0 +1,14 @@
+package dev.emmily.oersted.server;
+
+/**
+ * The result of an {@link EarthingRequest}.
+ *
+ * @param id         the identifier of the earthing system.
+ * @param resistance the earthing resistance (Ω).
+ * @param meshLength the length of the mesh (m).
+ * @param rods       the amount of rods.
+ */
+public record EarthingResult(String id,
+                             double resistance,
+                             double meshLength,
+                             double rods) {}
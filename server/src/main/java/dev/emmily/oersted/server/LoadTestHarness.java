@@ -0,0 +1,148 @@
+package dev.emmily.oersted.server;
+
+import dev.emmily.oersted.circuit.Circuit;
+import dev.emmily.oersted.installation.generator.InstallationGenerator;
+import dev.emmily.oersted.metrics.LatencyHistogram;
+import dev.emmily.oersted.metrics.Metrics;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fires concurrent requests at a {@link CalculationServer} and reports throughput, latency percentiles and
+ * the amount of requests shed with 503. Unless {@code --url} is given, a server is started on an ephemeral
+ * localhost port for the run. Supported options:
+ * {@code --url <base url>}, {@code --endpoint sizing|validation}, {@code --requests <n>},
+ * {@code --concurrency <n>}, {@code --circuits <per request>}, {@code --tables <folder>},
+ * {@code --workers <threads>} and {@code --queue <capacity>}.
+ */
+public class LoadTestHarness {
+  public static void main(String[] args) throws IOException, InterruptedException {
+    String url = null;
+    String endpoint = "sizing";
+    int requests = 10_000;
+    int concurrency = 64;
+    int circuitsPerRequest = 20;
+    CalculationServer.Builder server = CalculationServer.builder();
+
+    for (int i = 0; i < args.length; i++) {
+      switch (args[i]) {
+        case "--url" -> url = args[++i];
+        case "--endpoint" -> endpoint = args[++i];
+        case "--requests" -> requests = Integer.parseInt(args[++i]);
+        case "--concurrency" -> concurrency = Integer.parseInt(args[++i]);
+        case "--circuits" -> circuitsPerRequest = Integer.parseInt(args[++i]);
+        case "--tables" -> server.tables(new File(args[++i]));
+        case "--workers" -> server.workers(Integer.parseInt(args[++i]));
+        case "--queue" -> server.queueCapacity(Integer.parseInt(args[++i]));
+        default -> throw new IllegalArgumentException("unknown option " + args[i]);
+      }
+    }
+
+    CalculationServer local = null;
+
+    if (url == null) {
+      local = server.build().start();
+      url = "http://localhost:" + local.address().getPort();
+    }
+
+    try {
+      List<String> bodies = bodies(requests, circuitsPerRequest);
+      run(URI.create(url + "/" + endpoint), bodies, Math.min(concurrency, requests) * 4 / 10 + 1, concurrency);
+      run(URI.create(url + "/" + endpoint), bodies, requests, concurrency);
+    } finally {
+      if (local != null) {
+        local.close();
+      }
+    }
+  }
+
+  private static List<String> bodies(int requests, int circuitsPerRequest) {
+    List<String> bodies = new ArrayList<>(Math.min(requests, 256));
+    StringBuilder body = new StringBuilder();
+    int[] lines = {0};
+
+    InstallationGenerator.builder()
+      .seed(42)
+      .depth(4)
+      .maxCircuits(Math.min(requests, 256) * circuitsPerRequest)
+      .build()
+      .generate((Circuit circuit) -> {
+        body.append(CircuitCsv.format(circuit)).append('\n');
+
+        if (++lines[0] % circuitsPerRequest == 0) {
+          bodies.add(body.toString());
+          body.setLength(0);
+        }
+      });
+
+    if (!body.isEmpty()) {
+      bodies.add(body.toString());
+    }
+
+    return bodies;
+  }
+
+  private static void run(URI uri, List<String> bodies, int requests, int concurrency) throws InterruptedException {
+    HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    LatencyHistogram latency = new Metrics(true).histogram(uri.getPath());
+    Semaphore inFlight = new Semaphore(concurrency);
+    AtomicLong ok = new AtomicLong();
+    AtomicLong shed = new AtomicLong();
+    AtomicLong failed = new AtomicLong();
+    List<CompletableFuture<?>> responses = new ArrayList<>(requests);
+    long start = System.nanoTime();
+
+    for (int i = 0; i < requests; i++) {
+      inFlight.acquire();
+
+      HttpRequest request = HttpRequest.newBuilder(uri)
+        .header("Content-Type", "text/csv")
+        .POST(HttpRequest.BodyPublishers.ofString(bodies.get(i % bodies.size())))
+        .build();
+      long sent = latency.start();
+
+      responses.add(client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, error) -> {
+        latency.stop(sent);
+        inFlight.release();
+
+        if (error != null) {
+          failed.incrementAndGet();
+        } else if (response.statusCode() == 200) {
+          ok.incrementAndGet();
+        } else if (response.statusCode() == 503) {
+          shed.incrementAndGet();
+        } else {
+          failed.incrementAndGet();
+        }
+      }));
+    }
+
+    CompletableFuture.allOf(responses.toArray(new CompletableFuture[0])).exceptionally(error -> null).join();
+    double seconds = (System.nanoTime() - start) / 1e9;
+
+    System.out.printf(
+      "%s: %d requests in %.2fs (%.0f req/s), ok=%d shed=%d failed=%d, p50=%.2fms p99=%.2fms p999=%.2fms max=%.2fms%n",
+      uri,
+      requests,
+      seconds,
+      requests / seconds,
+      ok.get(),
+      shed.get(),
+      failed.get(),
+      latency.percentile(50) / 1e6,
+      latency.percentile(99) / 1e6,
+      latency.percentile(99.9) / 1e6,
+      latency.max() / 1e6
+    );
+  }
+}
@@ -0,0 +1,19 @@
+package dev.emmily.oersted.server;
+
+/**
+ * The sizing of a circuit, as answered by the {@code /sizing} endpoint.
+ *
+ * @param circuit   the identifier of the circuit.
+ * @param required  the cross-section required by the voltage drop (mm²).
+ * @param installed the cross-section of the phase conductors of the circuit (mm²).
+ * @param table     the identifier of the admissible current table applicable to the circuit, or
+ *                  {@code -} if no table is loaded.
+ */
+public record SizingResult(String circuit,
+                           float required,
+                           float installed,
+                           String table) {
+  public boolean compliant() {
+    return installed >= required;
+  }
+}
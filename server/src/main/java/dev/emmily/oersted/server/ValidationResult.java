@@ -0,0 +1,16 @@
+package dev.emmily.oersted.server;
+
+import java.util.List;
+
+/**
+ * The validation of a circuit, as answered by the {@code /validation} endpoint.
+ *
+ * @param circuit the identifier of the circuit.
+ * @param rules   the identifiers of the rules breached by the circuit, e.g. {@code voltage-drop}.
+ */
+public record ValidationResult(String circuit,
+                               List<String> rules) {
+  public boolean compliant() {
+    return rules.isEmpty();
+  }
+}